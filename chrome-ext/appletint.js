@@ -295,6 +295,25 @@ function processAppletDefinition(appletEl, className, archiveUrl, codebase, appl
 	});
 	console.info ("Found Applet: %s . Number of applets in the registered list: %d", appletName, registeredAppletList.length);
 
+	// Prefetch the archives while the page renders, so they are in the OPLauncher cache by the time the applet loads
+	if (archiveUrl) {
+		chrome.runtime.sendMessage({
+			op: OPResources.OP_PREFETCH,
+			className: className,
+			archiveUrl: archiveUrl,
+			codebase: codebase,
+			appletName: appletName,
+			baseUrl: baseUrl,
+			width: width,
+			height: height,
+			posx: 0,
+			posy: 0,
+			parameters: paramArray.join(";")
+		}, (resp) => {
+			console.info("Prefetch requested for the applet %s:", appletName, resp);
+		});
+	}
+
 	// Create an iframe replacement for the applet
 	const iframe = document.createElement("iframe");
 	iframe.width = width;
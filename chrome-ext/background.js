@@ -9,6 +9,14 @@ let TriggeredHBControl = false;
 // Saves the token
 let commToken = null;
 
+// WebSocket channel to the OP server (WS2_BACKEND): one connection shared by all the requests
+let OPWebSocket = null;
+let OPWebSocketSeq = 0;
+const OPWebSocketPending = new Map();
+
+// Requests to the JSON backend issued within the same batch window are sent together: backend URL -> queued requests
+const OPBatchQueue = new Map();
+
 if (OPResources.DEBUG) {
     /**
      * Testing...
@@ -159,22 +167,9 @@ chrome.runtime.onMessage.addListener((message, sender, sendResponse) => {
             }
         }
         else if ( message.pipecfn === OPResources.PIPE_REST ) {
-            let payload = {};
             console.info("Transforming the applet message for a REST OP:", message.appletName);
 
-            Object.assign(payload, {
-                op: message.op,
-                applet_name: message.appletName,
-                params: [
-                    message.op,
-                    message.baseUrl,
-                    message.codebase,
-                    message.archiveUrl,
-                    message.appletName,
-                    `width=${message.width};height=${message.height};posx=${message.posx};posy=${message.posy};`.concat(message.parameters),
-                    message.className
-                ]
-            });
+            const payload = toAppletOPPayload(message);
             console.info("Parsed message payload for(%s) OPLauncher: ", message.appletName, payload);
 
             send2OPLauncherJSONPort(payload, (resp, port) => {
@@ -186,6 +181,21 @@ chrome.runtime.onMessage.addListener((message, sender, sendResponse) => {
             console.error("Incorrect PIPE configuration [%s]. No changes were applied to the system", message.pipecfn);
         }
     }
+    // Prefetch the applet archives, only when OPLauncher is already up: it's a hint, nothing waits for it
+    else if (message.op === OPResources.OP_PREFETCH) {
+        if (!BackendControlReady) {
+            console.info("OPLauncher backend port is not ready, the archives won't be prefetched for:", message.appletName);
+            sendResponse({ success: false });
+            return false;
+        }
+
+        sendOPRequest(toAppletOPPayload(message), (resp, port) => {
+            console.info("Got a response back from the 'prefetch' OP from OPLauncher", resp);
+            sendResponse ( resp );
+        }, (error) => {
+            sendResponse ({ success: false, message: error.message });
+        });
+    }
     // Unload the applets in the page
     else if (message.op === OPResources.OP_UNLOAD) {
         console.info("About to unload the OJDK Applet Launcher");
@@ -233,7 +243,7 @@ chrome.runtime.onMessage.addListener((message, sender, sendResponse) => {
         });
     }
     else {
-        console.warn(`OP selected no supported: ${message.op} . Expected OPs: ${OPResources.OP_LOAD}, ${OPResources.OP_UNLOAD}, ${OPResources.OP_MOVE}, ${OPResources.OP_BLUR}, ${OPResources.OP_FOCUS}`);
+        console.warn(`OP selected no supported: ${message.op} . Expected OPs: ${OPResources.OP_LOAD}, ${OPResources.OP_UNLOAD}, ${OPResources.OP_MOVE}, ${OPResources.OP_BLUR}, ${OPResources.OP_FOCUS}, ${OPResources.OP_PREFETCH}`);
     }
 
     // keeps the channel open
@@ -257,42 +267,7 @@ function send2OPLauncherJSONPort(messageToNative, callback, callbackErr) {
         if (messageToNative.op) { // don't run on undefined Intervals ... JS bug
             if (BackendControlReady) {
                 console.info("OPLauncher backend port is ready! Sending request...");
-                chrome.storage.local.get([OPResources.CHROME_PROP_HTTPPORT,
-                                          OPResources.CHROME_PROP_HOSTURL,
-                                          OPResources.CHROME_PROP_CTXROOT,
-                                          OPResources.CHROME_PROP_APPTKN,
-                                          OPResources.CHROME_PROP_CIPHERKEY,
-                                          OPResources.CHROME_PROP_CIPHACT], function (config) {
-                    const host = config.hostURL || "127.0.0.1";
-                    const contextRoot = config.contextRoot || "oplauncher-op";
-                    const port = config.httpPort || 7777;
-                    const token = config.personalToken || OPResources.DEFAULT_APP_TOKEN;
-                    const backendURL = `http://${host}:${port}/${contextRoot}`;
-                    const cipherKey = config.cipherKey;
-
-                    if (messageToNative) {
-                        Object.assign(messageToNative, {
-                            _tkn_: token
-                        });
-                    }
-
-                    if ( config.msgCipherActive ) {
-                        encryptPayloadWithDES3(messageToNative, commToken || config.cipherKey || OPResources.DES3_DEF_KEY, OPResources.DEFAULT_MAGICNUM,
-                            (encpayload) => {
-
-                            console.info("Payload was encrypted and it's ready to be sent to OPLauncher", encpayload);
-                            const requestMsg = JSON.stringify(encpayload);
-                            // Send to OPLauncher
-                            send2port(OPResources.JSON_BACKEND, requestMsg, backendURL, callback, callbackErr);
-                        }, true);
-                    }
-                    else {
-                        const requestMsg = JSON.stringify(messageToNative);
-                        console.info("Received unload message from content script. Sending to backend...", messageToNative);
-                        // Send to OPLauncher
-                        send2port(OPResources.JSON_BACKEND, requestMsg, backendURL, callback, callbackErr);
-                    }
-                });
+                sendOPRequest(messageToNative, callback, callbackErr);
 
                 if (ctrl_interval) clearInterval(ctrl_interval);
             }
@@ -323,36 +298,248 @@ function send2OPLauncherJSONPort(messageToNative, callback, callbackErr) {
     return true;
 }
 
+/**
+ * Send the message to the OP Server right away, the backend port must be ready (see send2OPLauncherJSONPort)
+ * @param messageToNative   the applet computed message
+ * @param callback          the callback function. Called when the applet responds back to the Browser
+ * @param callbackErr       the error callback function. Called when something bad happened
+ */
+function sendOPRequest(messageToNative, callback, callbackErr) {
+    chrome.storage.local.get([OPResources.CHROME_PROP_HTTPPORT,
+                              OPResources.CHROME_PROP_HOSTURL,
+                              OPResources.CHROME_PROP_CTXROOT,
+                              OPResources.CHROME_PROP_APPTKN,
+                              OPResources.CHROME_PROP_BACKENDTP,
+                              OPResources.CHROME_PROP_CIPHERKEY,
+                              OPResources.CHROME_PROP_CIPHERALG,
+                              OPResources.CHROME_PROP_CIPHACT], function (config) {
+        const host = config.hostURL || "127.0.0.1";
+        const contextRoot = config.contextRoot || "oplauncher-op";
+        const port = config.httpPort || 7777;
+        const token = config.personalToken || OPResources.DEFAULT_APP_TOKEN;
+        const proto = config.backendType || OPResources.SELECTED_BACKEND_TP;
+        const backendURL = proto === OPResources.WS2_BACKEND ? `ws://${host}:${port}/${contextRoot}`
+                                                             : `http://${host}:${port}/${contextRoot}`;
+
+        if (messageToNative) {
+            Object.assign(messageToNative, {
+                _tkn_: token
+            });
+        }
+
+        if ( config.msgCipherActive ) {
+            encryptPayload(messageToNative, commToken || config.cipherKey || OPResources.DES3_DEF_KEY, OPResources.DEFAULT_MAGICNUM,
+                (encpayload) => {
+
+                console.info("Payload was encrypted and it's ready to be sent to OPLauncher", encpayload);
+                const requestMsg = JSON.stringify(encpayload);
+                // Send to OPLauncher
+                send2port(proto, requestMsg, backendURL, callback, callbackErr);
+            }, true, config.cipherAlg);
+        }
+        else {
+            const requestMsg = JSON.stringify(messageToNative);
+            console.info("Received unload message from content script. Sending to backend...", messageToNative);
+            // Send to OPLauncher
+            send2port(proto, requestMsg, backendURL, callback, callbackErr);
+        }
+    });
+}
+
+/**
+ * Transform the applet message of the content script into the OP payload (load_applet and prefetch_applet)
+ * @param message   the applet message
+ * @returns {{op, applet_name, params}}
+ */
+function toAppletOPPayload(message) {
+    return {
+        op: message.op,
+        applet_name: message.appletName,
+        params: [
+            message.op,
+            message.baseUrl,
+            message.codebase,
+            message.archiveUrl,
+            message.appletName,
+            `width=${message.width};height=${message.height};posx=${message.posx};posy=${message.posy};`.concat(message.parameters),
+            message.className
+        ]
+    };
+}
+
 /**
  * Send the payload to the backend port based on the PROTO send as parameter
  */
 function send2port(proto, requestMsg, backendURL, callback, callbackErr) {
     if ( proto === OPResources.JSON_BACKEND ) {
-        console.info("Sending payload to backend URL:", backendURL);
-        fetch(backendURL, {
-            method: "POST",
-            body: requestMsg,
-            headers: {
-                "Content-Type": "application/json",
-                "X-Chrome-Extension-Tkn": chrome.runtime.id
-            },
-        })
-        .then(resp => resp.json())
-        .then(data => {
-            console.info("Successfully receive a response from the OP Server")
-            if (callback) callback(data);
-        })
-        .catch(error => {
-            console.warn("Failed to send unload message via fetch:", error);
-            if (callbackErr) callbackErr(error);
-        });
+        enqueueOPBatch(requestMsg, backendURL, callback, callbackErr);
+    }
+    else if ( proto === OPResources.WS2_BACKEND ) {
+        send2WebSocketPort(requestMsg, backendURL, callback, callbackErr);
     }
-    // TODO: Implement other port types
     else {
         throw new Error(`Unsupported proto: ${proto}`);
     }
 }
 
+/**
+ * Queues the request for the next batch sent to the backend URL. Bursts of requests (focus, move, status of
+ * several applets) go in a single HTTP request
+ */
+function enqueueOPBatch(requestMsg, backendURL, callback, callbackErr) {
+    let queue = OPBatchQueue.get(backendURL);
+    if (!queue) {
+        queue = [];
+        OPBatchQueue.set(backendURL, queue);
+        setTimeout(() => flushOPBatch(backendURL), OPResources.OP_BATCH_WINDOW_MILLIS);
+    }
+
+    queue.push({ requestMsg: requestMsg, callback: callback, callbackErr: callbackErr });
+    if (queue.length >= OPResources.OP_BATCH_MAX_SIZE) {
+        flushOPBatch(backendURL);
+    }
+}
+
+function flushOPBatch(backendURL) {
+    const queue = OPBatchQueue.get(backendURL);
+    if (!queue || queue.length === 0) return;
+    OPBatchQueue.delete(backendURL);
+
+    // A single request does not need the batch envelope
+    if (queue.length === 1) {
+        postOPRequest(queue[0].requestMsg, backendURL, queue[0].callback, queue[0].callbackErr);
+        return;
+    }
+
+    const batchMsg = `{"batch":[${queue.map(item => item.requestMsg).join(",")}]}`;
+    postOPRequest(batchMsg, backendURL, (data) => {
+        // The results come in the same order of the requests
+        queue.forEach((item, idx) => {
+            const result = data.results ? data.results[idx] : data;
+            if (item.callback) item.callback(result);
+        });
+    }, (error) => {
+        queue.forEach(item => {
+            if (item.callbackErr) item.callbackErr(error);
+        });
+    });
+}
+
+function postOPRequest(requestMsg, backendURL, callback, callbackErr) {
+    console.info("Sending payload to backend URL:", backendURL);
+    fetch(backendURL, {
+        method: "POST",
+        body: requestMsg,
+        headers: {
+            "Content-Type": "application/json",
+            "X-Chrome-Extension-Tkn": chrome.runtime.id
+        },
+    })
+    .then(resp => resp.json())
+    .then(data => {
+        console.info("Successfully receive a response from the OP Server")
+        if (callback) callback(data);
+    })
+    .catch(error => {
+        console.warn("Failed to send unload message via fetch:", error);
+        if (callbackErr) callbackErr(error);
+    });
+}
+
+/**
+ * Sends the payload through the WebSocket channel, opening it when needed. Every request carries a sequence
+ * number and the OP server answers with the same number, so the response goes back to the right callback
+ */
+function send2WebSocketPort(requestMsg, backendURL, callback, callbackErr) {
+    const seq = ++OPWebSocketSeq;
+    const envelope = `{"seq":${seq},"message":${requestMsg}}`;
+
+    OPWebSocketPending.set(seq, { callback: callback, callbackErr: callbackErr });
+
+    openOPWebSocket(backendURL, (ws) => {
+        console.info("Sending payload to backend WebSocket:", backendURL, seq);
+        ws.send(envelope);
+    }, (error) => {
+        OPWebSocketPending.delete(seq);
+        console.warn("Failed to send the message via WebSocket:", error);
+        if (callbackErr) callbackErr(error);
+    });
+}
+
+/**
+ * Returns the open WebSocket channel to the OP server, connecting first if there is none
+ */
+function openOPWebSocket(backendURL, onReady, onError) {
+    if (OPWebSocket && OPWebSocket.url === backendURL) {
+        if (OPWebSocket.readyState === WebSocket.OPEN) {
+            onReady(OPWebSocket);
+            return;
+        }
+        if (OPWebSocket.readyState === WebSocket.CONNECTING) {
+            OPWebSocket.addEventListener("open", () => onReady(OPWebSocket), { once: true });
+            OPWebSocket.addEventListener("error", onError, { once: true });
+            return;
+        }
+    }
+
+    let ws;
+    try {
+        ws = new WebSocket(backendURL);
+    }
+    catch (error) {
+        onError(error);
+        return;
+    }
+    OPWebSocket = ws;
+
+    ws.addEventListener("open", () => {
+        console.info("WebSocket channel to the OP server is open:", backendURL);
+        BackendControlReady = true;
+        onReady(ws);
+    }, { once: true });
+    ws.addEventListener("error", onError, { once: true });
+    ws.addEventListener("message", (event) => processOPWebSocketMessage(event.data));
+    ws.addEventListener("close", () => {
+        console.warn("WebSocket channel to the OP server was closed:", backendURL);
+        if (OPWebSocket === ws) OPWebSocket = null;
+
+        // Nobody will answer the requests in flight anymore
+        OPWebSocketPending.forEach((pending) => {
+            if (pending.callbackErr) pending.callbackErr(new Error("OPLauncher WebSocket channel was closed"));
+        });
+        OPWebSocketPending.clear();
+    });
+}
+
+/**
+ * Handles a message received from the OP server: either the response of a request or an event pushed by the server
+ */
+function processOPWebSocketMessage(data) {
+    let message;
+    try {
+        message = JSON.parse(data);
+    }
+    catch (error) {
+        console.warn("Invalid message received from the OP server WebSocket:", data);
+        return;
+    }
+
+    if (message.kind === OPResources.WS2_KIND_PUSH) {
+        console.info(`OP server event received: ${message.event}`, message.response);
+        return;
+    }
+
+    const pending = OPWebSocketPending.get(message.seq);
+    if (pending) {
+        OPWebSocketPending.delete(message.seq);
+        console.info("Successfully receive a response from the OP Server")
+        if (pending.callback) pending.callback(message.response);
+    }
+    else {
+        console.warn("Response received for an unknown request:", message.seq);
+    }
+}
+
 /**
  * Sends a message to OPLauncher
  * @param messageToNative   the applet computed message
@@ -366,14 +553,15 @@ function send2OPLauncher(messageToNative, callback, callbackErr) {
     }
 
     chrome.storage.local.get([OPResources.CHROME_PROP_CIPHERKEY,
+                              OPResources.CHROME_PROP_CIPHERALG,
                               OPResources.CHROME_PROP_CIPHACT], function (config) {
         // We need to generate the payload if set
         if (config.msgCipherActive) {
-            encryptPayloadWithDES3(messageToNative, commToken || config.cipherKey || OPResources.DES3_DEF_KEY, OPResources.DEFAULT_MAGICNUM,
+            encryptPayload(messageToNative, commToken || config.cipherKey || OPResources.DES3_DEF_KEY, OPResources.DEFAULT_MAGICNUM,
                 (encpayload) => {
                     console.info("About to send the encoded payload to OPLauncher", encpayload);
                     send2native(encpayload, callback, callbackErr);
-            }, false);
+            }, false, config.cipherAlg);
         }
         // Payload with no ecryption, simple payload
         else {
@@ -428,6 +616,10 @@ function arrayBufferToBase64(buffer) {
  * Checks to see if the backend server is active or not
  */
 function checkBackendStatus(hbInterval) {
+    // An open WebSocket channel already proves the backend is alive
+    if (OPWebSocket && OPWebSocket.readyState === WebSocket.OPEN) {
+        BackendControlReady = true;
+    }
     if (BackendControlReady || !BackendConnActive) {
         clearInterval(hbInterval);
         return;
@@ -494,15 +686,26 @@ function getRandomNumber() {
 }
 
 /**
- * Encrypts the payload using the given key passed as parameter
+ * Encrypts the payload with the cipher algorithm selected in the settings
  * @param jsonData      the JSON data to be encrypted
- * @param base64Key     the DES3 key encoded in a Base64 string format
- * @param callback      the callback function
- * @returns {{payload: string, msgsize: number}}
+ * @param base64Key     the cipher key encoded in a Base64 string format
+ * @param magicmsk      the magic number mask
+ * @param callback      the callback function, receives the secure payload
+ * @param compact       true for the compact field names of the OP server
+ * @param algorithm     the cipher algorithm: des3 (default) or aes (AES-GCM)
  */
-async function encryptPayloadWithDES3(jsonData, base64Key, magicmsk, callback, compact) {
-    const rmaskednum   = getRandomNumber() | magicmsk;
-    const syncresponse = jsonData.syncresp || false;
+async function encryptPayload(jsonData, base64Key, magicmsk, callback, compact, algorithm) {
+    if (algorithm === OPResources.CIPHER_ALG_AES) {
+        return encryptPayloadWithAESGCM(jsonData, base64Key, magicmsk, callback, compact);
+    }
+    return encryptPayloadWithDES3(jsonData, base64Key, magicmsk, callback, compact);
+}
+
+/**
+ * Adds the magic number to the payload, and returns the JSON string to be encrypted
+ */
+function prepareSecurePayload(jsonData, magicmsk, compact) {
+    const rmaskednum = getRandomNumber() | magicmsk;
     console.info("Magic number: ", rmaskednum);
 
     if (compact) {
@@ -516,27 +719,17 @@ async function encryptPayloadWithDES3(jsonData, base64Key, magicmsk, callback, c
         });
     }
 
-    // Convert Base64 key to a WordArray (CryptoJS format)
-    const keyBytes = CryptoJS.enc.Base64.parse(base64Key);
-
     // Converts the JSON payload (remove breaklines for correct size)
     const jsonString = JSON.stringify(jsonData).replace(/\r?\n|\r/g, "");
-
-    console.info("About to cipher the payload: %s", jsonString);
     console.info("PAYLOAD size: ", jsonString.length);
-    console.debug("-> PAYLOAD key: ", base64Key);
-
-    // Encrypt using DES3 with ECB mode and PKCS7 padding
-    const encrypted = CryptoJS.TripleDES.encrypt(jsonString, keyBytes, {
-        mode: CryptoJS.mode.ECB,
-        padding: CryptoJS.pad.Pkcs7
-    });
 
-    // Convert encrypted bytes to Base64
-    const encryptedBase64 = encrypted.toString();
-    console.info("Encrypted payload: %s", encryptedBase64);
+    return jsonString;
+}
 
-    // Return the formatted message
+/**
+ * Passes the formatted secure payload to the callback
+ */
+function deliverSecurePayload(encryptedBase64, jsonString, syncresponse, callback, compact) {
     if (callback) {
         if (compact) {
             callback({
@@ -555,3 +748,60 @@ async function encryptPayloadWithDES3(jsonData, base64Key, magicmsk, callback, c
     }
 }
 
+/**
+ * Encrypts the payload using the given key passed as parameter
+ * @param jsonData      the JSON data to be encrypted
+ * @param base64Key     the DES3 key encoded in a Base64 string format
+ * @param callback      the callback function
+ * @returns {{payload: string, msgsize: number}}
+ */
+async function encryptPayloadWithDES3(jsonData, base64Key, magicmsk, callback, compact) {
+    const syncresponse = jsonData.syncresp || false;
+    const jsonString   = prepareSecurePayload(jsonData, magicmsk, compact);
+
+    // Convert Base64 key to a WordArray (CryptoJS format)
+    const keyBytes = CryptoJS.enc.Base64.parse(base64Key);
+
+    // Encrypt using DES3 with ECB mode and PKCS7 padding
+    const encrypted = CryptoJS.TripleDES.encrypt(jsonString, keyBytes, {
+        mode: CryptoJS.mode.ECB,
+        padding: CryptoJS.pad.Pkcs7
+    });
+
+    // Convert encrypted bytes to Base64
+    deliverSecurePayload(encrypted.toString(), jsonString, syncresponse, callback, compact);
+}
+
+/// The imported AES key, imported again only when the key changes
+let OPAESKey = { base64Key: null, key: null };
+
+/**
+ * Encrypts the payload with AES-GCM (WebCrypto): base64(IV (12 bytes) || ciphertext || tag)
+ * @param jsonData      the JSON data to be encrypted
+ * @param base64Key     the AES key (16, 24 or 32 bytes) encoded in a Base64 string format
+ * @param callback      the callback function
+ */
+async function encryptPayloadWithAESGCM(jsonData, base64Key, magicmsk, callback, compact) {
+    const syncresponse = jsonData.syncresp || false;
+    const jsonString   = prepareSecurePayload(jsonData, magicmsk, compact);
+
+    if (OPAESKey.base64Key !== base64Key) {
+        const keyBytes = Uint8Array.from(atob(base64Key), c => c.charCodeAt(0));
+        OPAESKey = {
+            base64Key: base64Key,
+            key: await crypto.subtle.importKey("raw", keyBytes, { name: "AES-GCM" }, false, ["encrypt"])
+        };
+    }
+
+    const iv = crypto.getRandomValues(new Uint8Array(OPResources.AES_GCM_IV_LENGTH));
+    const encrypted = new Uint8Array(await crypto.subtle.encrypt({ name: "AES-GCM", iv: iv }, OPAESKey.key,
+                                                                 new TextEncoder().encode(jsonString)));
+    const message = new Uint8Array(iv.length + encrypted.length);
+    message.set(iv, 0);
+    message.set(encrypted, iv.length);
+
+    let binary = "";
+    message.forEach(b => binary += String.fromCharCode(b));
+    deliverSecurePayload(btoa(binary), jsonString, syncresponse, callback, compact);
+}
+
@@ -10,6 +10,7 @@ let OPResources = {
     OP_MOVE: "move_applet",
     OP_CLEAR_EVT: "clear_events",
     OP_INVOKE_METHOD: "method_invoke_applet",
+    OP_PREFETCH: "prefetch_applet",
 
     NATIVE_SERVICE: "org.oplauncher.applet_service",
     OPLAUNCHER_RESPONSE_CODE: "oplauncher_applet_response",
@@ -23,10 +24,14 @@ let OPResources = {
     CHROME_PROP_APPTKN: "personalToken",
     CHROME_PROP_CIPHACT: "msgCipherActive",
     CHROME_PROP_CIPHERKEY: "cipherKey",
+    CHROME_PROP_CIPHERALG: "cipherAlg",
+    CHROME_PROP_BACKENDTP: "backendType",
 
     JSON_BACKEND: "json",
     WS2_BACKEND: "websocket",
     SELECTED_BACKEND_TP: "json",
+    OP_BATCH_WINDOW_MILLIS: 10,
+    OP_BATCH_MAX_SIZE: 64,
 
     JAVA_MIME_TYPE: "application/x-java-applet",
 
@@ -51,9 +56,17 @@ let OPResources = {
     ALARM_SERVER_HB: "hbCheck",
     HB_CTXROOT: "oplauncher-hb",
 
+    WS2_KIND_RESPONSE: "response",
+    WS2_KIND_PUSH: "push",
+
     /* Currently controlling if the payload will be encrypted or not */
     ENCRYPTED_PAYLOAD: true,
 
+    /* Cipher algorithms, it must match oplauncher.runtime.secur.alg */
+    CIPHER_ALG_DES3: "des3",
+    CIPHER_ALG_AES: "aes",
+    AES_GCM_IV_LENGTH: 12,
+
     /* Default 3DES key */
     DES3_DEF_KEY: "oFcwe0uR6plrVa1eQJljTiqb10clfGaH"
 };
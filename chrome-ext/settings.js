@@ -2,9 +2,11 @@ document.addEventListener("DOMContentLoaded", function () {
     const httpPortInput = document.getElementById("httpPort");
     const backendURLInput = document.getElementById("hostURL");
     const contextRootInput = document.getElementById("contextRoot");
+    const backendTypeInput = document.getElementById("backendType");
     const personalTokenInput = document.getElementById("personalToken");
     const cipherActive = document.getElementById("msgCipherActive");
     const cipherKeyInput = document.getElementById("cipherKey");
+    const cipherAlgInput = document.getElementById("cipherAlg");
     const cipherKeyContainer = document.getElementById("cipherKeyContainer");
     const saveButton = document.getElementById("saveSettings");
     const statusMessage = document.getElementById("statusMessage");
@@ -14,7 +16,7 @@ document.addEventListener("DOMContentLoaded", function () {
     console.info("Settings script loaded successfully.");
 
     // Load saved settings when the settings page opens
-    chrome.storage.local.get(["httpPort", "hostURL", "contextRoot", "personalToken", "msgCipherActive", "cipherKey"], function (data) {
+    chrome.storage.local.get(["httpPort", "hostURL", "contextRoot", "backendType", "personalToken", "msgCipherActive", "cipherKey", "cipherAlg"], function (data) {
         if (chrome.runtime.lastError) {
             console.error("Error accessing storage:", chrome.runtime.lastError);
         }
@@ -28,11 +30,14 @@ document.addEventListener("DOMContentLoaded", function () {
             if (data.contextRoot) contextRootInput.value = data.contextRoot;
             else contextRootInput.value = "oplauncher-op";
 
+            backendTypeInput.value = data.backendType || "json";
+
             if (data.personalToken) personalTokenInput.value = data.personalToken;
 
             cipherActive.checked = data.msgCipherActive !== undefined ? data.msgCipherActive : true;
             cipherKeyContainer.style.display = cipherActive.checked ? "block" : "none";
             cipherKeyInput.value = data.cipherKey || defCipherKey;
+            cipherAlgInput.value = data.cipherAlg || "des3";
         }
     });
 
@@ -46,11 +51,13 @@ document.addEventListener("DOMContentLoaded", function () {
         const httpPort = httpPortInput.value;
         const hostURL = backendURLInput.value;
         const contextRoot = contextRootInput.value;
+        const backendType = backendTypeInput.value;
         const personalToken = personalTokenInput.value;
         const msgCipherActive = cipherActive.checked;
         const cipherKey = cipherActive.checked ? cipherKeyInput.value : defCipherKey;
+        const cipherAlg = cipherAlgInput.value;
 
-        chrome.storage.local.set({ httpPort, hostURL, personalToken, contextRoot, msgCipherActive, cipherKey }, function () {
+        chrome.storage.local.set({ httpPort, hostURL, personalToken, contextRoot, backendType, msgCipherActive, cipherKey, cipherAlg }, function () {
             statusMessage.textContent = "Settings saved successfully!";
             setTimeout(() => (statusMessage.textContent = ""), 2000);
         });
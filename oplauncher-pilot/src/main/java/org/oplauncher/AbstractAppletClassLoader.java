@@ -6,12 +6,14 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.oplauncher.res.ArchiveClassSource;
 import org.oplauncher.res.FileResource;
 import org.oplauncher.res.HttpSessionResourceRequest;
 import org.oplauncher.res.ResourceRequestFactory;
 import sun.nio.ch.IOUtil;
 
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.oplauncher.CommunicationParameterParser.IDX_RESURL;
 import static org.oplauncher.res.FileResource.ResourceType.CLASS_FILE;
 import static org.oplauncher.res.FileResource.ResourceType.ZIP_FILE;
@@ -26,16 +28,26 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public abstract class AbstractAppletClassLoader<T> extends ClassLoader implements IAppletClassLoader<T> {
-    static private final Lock LOCK = new ReentrantLock();
     static private final Logger LOGGER = LogManager.getLogger(AbstractAppletClassLoader.class);
+    static private final AtomicReference<ExecutorService> ARCHIVE_FETCH_EXECUTOR = new AtomicReference<>();
+    static {
+        ///  Class loading is locked per class name (getClassLoadingLock), not per loader
+        ClassLoader.registerAsParallelCapable();
+    }
     /*static {
         ///  Logger initialization
         ConfigurationHelper.intializeLog();
@@ -44,14 +56,19 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
     protected AbstractAppletClassLoader(ClassLoader parent) {
         super(parent);
 
-        _fileMap = new LinkedHashMap<>();
-        _loadedClassMap = new LinkedHashMap<>();
+        _loaderLock = new ReentrantLock();
+        _fileMap = new ConcurrentHashMap<>();
+        _loadedClassMap = new ConcurrentHashMap<>();
+        _archiveSources = new CopyOnWriteArrayList<>();
+        _archiveEntryIndex = new ConcurrentHashMap<>();
+        _indexHits = new AtomicLong();
+        _indexMisses = new AtomicLong();
         _currentParameters = new ArrayList<>();
     }
 
     @Override
     public String processAppletC2A(List<T> parameters) {
-        LOCK.lock();
+        ///  No loader lock here: the ops take the class-name locks first, and then the loader lock (downloads)
         try {
             String opcode = CommunicationParameterParser.resolveOpCode(parameters);
 
@@ -73,9 +90,6 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
 
             return e.getMessage();
         }
-        finally {
-            LOCK.unlock();
-        }
     }
 
     protected boolean isClassLoaded(String name) {
@@ -87,7 +101,7 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
     }
 
     protected List<FileResource> loadAppletFromURL(List<T> parameters) throws OPLauncherException {
-        LOCK.lock();
+        _loaderLock.lock();
         try {
             boolean loadArchives = false;
             HttpSessionResourceRequest session = ResourceRequestFactory.getResourceRequest(HTTP_SESSION_REQUEST);
@@ -111,13 +125,10 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
             _appletParameters = CommunicationParameterParser.resolveAppletParameters(appletName, parameters);
 
             // Load all the deps archives (JARS)
-            for (String archive : archives) {
+            if (!archives.isEmpty()) {
                 loadArchives = true;
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("(loadAppletFromURL) Loading applet archive [{}] from base URL: {}", archive, loadSourceBaseURLPath);
-                }
-                resources.add(_loadAppletFromURL(applTagDef, appletName, loadSourceBaseURLPath, loadResApplType,
-                                                 archive, cookies, session, false));
+                resources.addAll(_loadArchivesFromURL(applTagDef, appletName, loadSourceBaseURLPath, loadResApplType,
+                                                      archives, cookies, session));
             }
 
             _appletClassName = loadJavaClass;
@@ -134,7 +145,7 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
             return resources;
         }
         finally {
-            LOCK.unlock();
+            _loaderLock.unlock();
         }
     }
     protected FileResource loadAppletFromURL(URL loadSourceBaseURL, HttpSessionResourceRequest session, Map<String,String> cookies) {
@@ -146,6 +157,69 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
         return res;
     }
 
+    private List<FileResource> _loadArchivesFromURL(CommunicationParameterParser.AppletTagDef applTagDef,
+                                                    String appletName,
+                                                    String loadSourceBaseURLPath,
+                                                    String loadResApplType,
+                                                    List<String> archives,
+                                                    Map<String,String> cookies,
+                                                    HttpSessionResourceRequest session) throws OPLauncherException {
+        final long kStartTime = System.nanoTime();
+        List<Future<FileResource>> fetches = new ArrayList<>(archives.size());
+        List<Long> fetchTimes = Collections.synchronizedList(new ArrayList<>(Collections.nCopies(archives.size(), 0L)));
+
+        ///  All the archives are fetched concurrently...
+        for (int i = 0; i < archives.size(); i++) {
+            final int kIdx = i;
+            final String kArchive = archives.get(i);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("(loadAppletFromURL) Loading applet archive [{}] from base URL: {}", kArchive, loadSourceBaseURLPath);
+            }
+            fetches.add(getArchiveFetchExecutor().submit(() -> {
+                long archiveStartTime = System.nanoTime();
+                try {
+                    return _fetchAppletResource(applTagDef, appletName, loadSourceBaseURLPath, loadResApplType,
+                                                kArchive, cookies, session, false);
+                }
+                finally {
+                    fetchTimes.set(kIdx, NANOSECONDS.toMillis(System.nanoTime() - archiveStartTime));
+                }
+            }));
+        }
+
+        ///  ... but the results are collected (and registered) in the declaration order
+        List<FileResource> resources = new ArrayList<>(archives.size());
+        try {
+            for (int i = 0; i < fetches.size(); i++) {
+                FileResource res = fetches.get(i).get();
+                addFileResource(archives.get(i), res);
+                resources.add(res);
+            }
+        }
+        catch (InterruptedException e) {
+            fetches.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new OPLauncherException("Interrupted while fetching the applet archives", e, ErrorCode.FAILED_TO_DOWNLOAD_FILE);
+        }
+        catch (ExecutionException e) {
+            ///  A single failure fails the whole load
+            fetches.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof OPLauncherException) throw (OPLauncherException) cause;
+            else throw new OPLauncherException("Failed to fetch the applet archives", cause, ErrorCode.FAILED_TO_DOWNLOAD_FILE);
+        }
+
+        if (LOGGER.isInfoEnabled()) {
+            for (int i = 0; i < archives.size(); i++) {
+                LOGGER.info("+-> Archive [{}] fetched in {} ms", archives.get(i), fetchTimes.get(i));
+            }
+            LOGGER.info("Applet {}: {} archive(s) fetched in {} ms (sum of the fetches: {} ms)", appletName, archives.size(),
+                    NANOSECONDS.toMillis(System.nanoTime() - kStartTime), fetchTimes.stream().mapToLong(Long::longValue).sum());
+        }
+
+        return resources;
+    }
+
     private FileResource _loadAppletFromURL(CommunicationParameterParser.AppletTagDef applTagDef,
                                                   String appletName,
                                                   String loadSourceBaseURLPath,
@@ -153,6 +227,20 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
                                                   String loadSourceResURLPath,
                                                   Map<String,String> cookies,
                                                   HttpSessionResourceRequest session, boolean loadApplet) throws OPLauncherException {
+        FileResource res = _fetchAppletResource(applTagDef, appletName, loadSourceBaseURLPath, loadResApplType,
+                                                loadSourceResURLPath, cookies, session, loadApplet);
+        // Add the loaded file to the control map
+        addFileResource(loadSourceResURLPath, res);
+
+        return res;
+    }
+    private FileResource _fetchAppletResource(CommunicationParameterParser.AppletTagDef applTagDef,
+                                              String appletName,
+                                              String loadSourceBaseURLPath,
+                                              String loadResApplType,
+                                              String loadSourceResURLPath,
+                                              Map<String,String> cookies,
+                                              HttpSessionResourceRequest session, boolean loadApplet) throws OPLauncherException {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Loading applet Base URL: [{}]", loadSourceBaseURLPath);
             LOGGER.debug("Loading applet resource URL: [{}]", loadSourceResURLPath);
@@ -160,21 +248,7 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
         }
 
         try {
-            String codeBase;
-            String prePattUrlPath = ofNullable(loadSourceResURLPath).map(s->s.trim().toLowerCase()).orElse("");
-            if ( !prePattUrlPath.startsWith("http://") && !prePattUrlPath.startsWith("https://") ) {
-                StringBuilder sb = new StringBuilder(loadSourceBaseURLPath);
-                if (!loadSourceBaseURLPath.endsWith("/")) sb.append('/');
-                if (applTagDef == CommunicationParameterParser.AppletTagDef.CODEBASE)
-                    sb.append(loadResApplType).append('/');
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Applet tag definition: [{}}]", applTagDef.name());
-                }
-
-                codeBase = sb.toString();
-            }
-            else codeBase = "";
-
+            String codeBase = resolveCodeBase(applTagDef, loadSourceBaseURLPath, loadResApplType, loadSourceResURLPath);
             URL loadSourceBaseURL = new URL(codeBase.concat(loadSourceResURLPath));
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("Applet name: [{}]", appletName);
@@ -184,14 +258,14 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
                 _appletDocumentBase = loadSourceBaseURL;
                 _appletCodeBase = new URL(codeBase);
             }
+            else {
+                ///  An archive being prefetched is not downloaded twice, the load waits for it
+                AppletArchivePrefetcher.getInstance().awaitPrefetch(loadSourceBaseURL);
+            }
 
-            /// TODO: Missing the implementation of the JARs Applet parameter to download multiple jar deps
             FileResource res = loadAppletFromURL(loadSourceBaseURL, session, cookies);
 
             if (res != null) {
-                // Add the loaded file to the control map
-                addFileResource(loadSourceResURLPath, res);
-
                 return res;
             }
             else {
@@ -203,15 +277,52 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
         }
     }
 
+    /**
+     * Code base of the resource: empty if the resource URL is absolute
+     */
+    static protected String resolveCodeBase(CommunicationParameterParser.AppletTagDef applTagDef,
+                                            String loadSourceBaseURLPath,
+                                            String loadResApplType,
+                                            String loadSourceResURLPath) {
+        String prePattUrlPath = ofNullable(loadSourceResURLPath).map(s->s.trim().toLowerCase()).orElse("");
+        if ( !prePattUrlPath.startsWith("http://") && !prePattUrlPath.startsWith("https://") ) {
+            StringBuilder sb = new StringBuilder(loadSourceBaseURLPath);
+            if (!loadSourceBaseURLPath.endsWith("/")) sb.append('/');
+            if (applTagDef == CommunicationParameterParser.AppletTagDef.CODEBASE)
+                sb.append(loadResApplType).append('/');
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Applet tag definition: [{}}]", applTagDef.name());
+            }
+
+            return sb.toString();
+        }
+
+        return "";
+    }
+    static protected URL resolveResourceURL(CommunicationParameterParser.AppletTagDef applTagDef,
+                                            String loadSourceBaseURLPath,
+                                            String loadResApplType,
+                                            String loadSourceResURLPath) throws MalformedURLException {
+        return new URL(resolveCodeBase(applTagDef, loadSourceBaseURLPath, loadResApplType, loadSourceResURLPath).concat(loadSourceResURLPath));
+    }
+
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        LOCK.lock();
-        try {
+        synchronized (getClassLoadingLock(name)) {
             if (isClassLoaded(name)) {
                 return getLoadedClass(name);
             }
             else {
                 try {
+                    ArchiveClassSource source = getArchiveSource(getResourcePath(name));
+                    if (source != null) {
+                        byte[] klassBytes = source.readClass(name);
+                        Class<?> klass = defineClass(name, klassBytes, 0, klassBytes.length);
+
+                        _loadedClassMap.put(name, klass);
+                        return klass;
+                    }
+
                     ArchiveClassLoaderType type = ConfigurationHelper.getArchiveClassLoaderType();
                     FileResource res = getResourceByName(name);
                     Class<?> klass = null;
@@ -241,8 +352,15 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
 
                                     //if (!name.endsWith(".class")) name = name.concat(".class");
 
-                                    setCurrentParameterValue(IDX_RESURL, (T) name);
-                                    List<FileResource> resources = loadAppletFromURL(getCurrentlyUsedParameters());
+                                    List<FileResource> resources;
+                                    _loaderLock.lock();
+                                    try {
+                                        setCurrentParameterValue(IDX_RESURL, (T) name);
+                                        resources = loadAppletFromURL(getCurrentlyUsedParameters());
+                                    }
+                                    finally {
+                                        _loaderLock.unlock();
+                                    }
                                     for (FileResource resource : resources) {
                                         klass = this.findClass(name);
                                     }
@@ -254,6 +372,10 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
                         }
                     }
 
+                    if (klass == null) {
+                        throw new ClassNotFoundException(String.format("Could not load class from Applet framework: [%s]", name));
+                    }
+
                     _loadedClassMap.put(name, klass);
                     return klass;
                 } catch (IOException e) {
@@ -261,79 +383,41 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
                 }
             }
         }
-        finally {
-            LOCK.unlock();
-        }
     }
 
     private void _loadJarSimple(final File jarPath) throws IOException {
-        try (JarFile jarFile = new JarFile(jarPath)) {
-            jarFile.stream()
-                    .parallel()
-                    .forEach(jarEntry -> {
-                        // TODO: In the future is also important to have code that read load the dep jars inside the jar
-                        //       file since the MANIFEST can also contain libs to be added to the classpath. If that's the
-                        //       this will not work for the current implementation
-                        try {
-                            InputStream is = jarFile.getInputStream(jarEntry);
-                            byte[] classBytes = IOUtils.toByteArray(is);
-                            String entryName = jarEntry.getName();
-                            String className = entryName.replace('/', '.')
-                                    .replace(".class", "");
-
-                            // Save the resource to the temp class path
-                            File resFile = new File(jarPath.getParentFile(), entryName);
-                            if (!resFile.getParentFile().exists()) {
-                                FileUtils.forceMkdir(resFile.getParentFile());
-                            }
-                            FileUtils.copyInputStreamToFile(new ByteArrayInputStream(classBytes), resFile);
-
-                            if (LOGGER.isInfoEnabled()) {
-                                LOGGER.info("Loaded resource [{}] from Jar [{}]", entryName, jarFile.getName());
-                                LOGGER.info("+-> Cached to: [{}]", resFile.getAbsolutePath());
-                            }
+        _loaderLock.lock();
+        try {
+            boolean indexed = _archiveSources.stream().anyMatch(src -> src.getArchiveFile().equals(jarPath));
+            if (indexed) {
+                LOGGER.warn("The archive [{}] was already indexed by this loader", jarPath.getAbsolutePath());
+                return;
+            }
 
-                            /// Define a new class if necessary
-                            /*if (jarEntry.getName().endsWith(".class")) {
-                                // Set the class into the classpath
-                                defineClass(className, classBytes, 0, classBytes.length);
-                            }*/
-                        }
-                        catch (IOException e) {
-                            System.err.println(String.format("Failed to load Applet class from the Jar file(%s): [%s]", jarPath, jarEntry.getName()));
-                        }
-                    });
+            // Index the archive only (or adopt the index of its prefetch), the classes are defined on demand by findClass
+            ArchiveClassSource source = AppletArchivePrefetcher.getInstance().takeIndexedSource(jarPath);
+            if (source == null) {
+                source = new ArchiveClassSource(jarPath);
+            }
+            _archiveSources.add(source);
+            for (String entryName : source.getEntryNames()) {
+                // first registered archive wins, same as the classpath order
+                _archiveEntryIndex.putIfAbsent(entryName, source);
+            }
+        }
+        finally {
+            _loaderLock.unlock();
         }
-
-        // STEP 2: Now that all the class were placed in the temp folder, lets load all the classes to the classpath
-        File tempFolder = jarPath.getParentFile();
-        Arrays.stream(tempFolder.listFiles())
-                .parallel()
-                .filter(f -> f.getName().endsWith(".class"))
-                .forEach(f -> {
-                    String rootPath = tempFolder.getAbsolutePath();
-                    int startIndex = rootPath.length() +1;
-                    String className = f.getAbsolutePath()
-                            .substring(startIndex)
-                            .replace("/", ".")
-                            .replace(".class", "");
-
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("Loaded class [{}] from: [{}]", className, tempFolder.getAbsolutePath());
-                    }
-
-                    try {
-                        byte clzb[] = FileUtils.readFileToByteArray(f);
-                        defineClass(className, clzb, 0, clzb.length);
-                    }
-                    catch (Throwable t) {
-                        LOGGER.error("Failed to load class [{}}]", className, t);
-                    }
-                });
     }
     private void _initURLClzLoader(final File file) throws IOException {
-        if ( _urlClassLoader == null ) {
-            _urlClassLoader = new URLClassLoader(new URL[]{file.toURI().toURL()});
+        _loaderLock.lock();
+        try {
+            if ( _urlClassLoader == null ) {
+                _urlClassLoader = new URLClassLoader(new URL[]{file.toURI().toURL()});
+            }
+        }
+        finally {
+            _loaderLock.unlock();
         }
     }
     protected void loadJar(final File jarPath) throws IOException {
@@ -377,7 +461,11 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
                                     }
 
                                     byte b[] = IOUtils.toByteArray(Files.newInputStream(path));
-                                    defineClass(klassName, b, 0, b.length);
+                                    synchronized (getClassLoadingLock(klassName)) {
+                                        if (!isClassLoaded(klassName) && findLoadedClass(klassName) == null) {
+                                            _loadedClassMap.put(klassName, defineClass(klassName, b, 0, b.length));
+                                        }
+                                    }
                                 }
                                 else {
                                     LOGGER.warn("The resource in the ZIP file [{}] was not loaded because in the current version only classes are loaded into the ClassPath: {}", zipPath.getAbsolutePath(), klassFile.getAbsolutePath());
@@ -398,7 +486,12 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
     }
 
     protected URLClassLoader getURLClassLoader(final String name) {
-        if (_urlClassLoader == null) {
+        _loaderLock.lock();
+        try {
+            if (_urlClassLoader != null) {
+                return _urlClassLoader;
+            }
+
             try {
                 FileResource res = getResourceByName(name);
                 if (res != null) {
@@ -412,9 +505,12 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
             catch (MalformedURLException mex) {
                 throw new OPLauncherException(mex, ErrorCode.MALFORMED_URL);
             }
-        }
 
-        return _urlClassLoader;
+            return _urlClassLoader;
+        }
+        finally {
+            _loaderLock.unlock();
+        }
     }
 
     private String getResourcePath(final String name) {
@@ -431,28 +527,68 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
             throw new IOException(String.format("Could not find a class resource associated with the following class: [%s]", path));
         }
 
+        ///  The classes of the Jar files are read from their archive source by findClass, before getting here
         if (res.getResourceType() == CLASS_FILE) {
             Path classPath = Paths.get(res.getTempClassPath().getPath(), path);
             return Files.readAllBytes(classPath);
         }
-        // Jar files
-        else {
-            ArchiveClassLoaderType type = ConfigurationHelper.getArchiveClassLoaderType();
-            File klassFile = Arrays.stream(res.getTempClassPath().listFiles())
-                                    .filter(f -> f.getName().equals(path))
-                                    .findFirst().orElse(null);
-            if (klassFile != null) {
-                return Files.readAllBytes(klassFile.toPath());
+
+        LOGGER.warn("Could not find a class resource associated with the following class: {}", name);
+
+        return new byte[0];
+    }
+
+    static protected ExecutorService getArchiveFetchExecutor() {
+        ExecutorService executor = ARCHIVE_FETCH_EXECUTOR.get();
+        if (executor == null) {
+            final int kThreads = ConfigurationHelper.getArchiveFetchThreadCount();
+            final AtomicInteger kThreadCounter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(kThreads, r -> {
+                Thread t = new Thread(r, "oplauncher-archive-fetch-" + kThreadCounter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            if (!ARCHIVE_FETCH_EXECUTOR.compareAndSet(null, executor)) {
+                executor.shutdown();
+                executor = ARCHIVE_FETCH_EXECUTOR.get();
             }
+            else if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Archive fetch pool created with {} thread(s)", kThreads);
+            }
+        }
 
-            LOGGER.warn("Could not find a class resource associated with the following class: {}", name);
+        return executor;
+    }
 
-            return new byte[0];
+    @Override
+    protected URL findResource(String name) {
+        ArchiveClassSource source = getArchiveSource(name);
+        if (source != null) {
+            return source.getEntryURL(name);
         }
+
+        return super.findResource(name);
     }
 
-    private List<String> getJarArchives() {
-        return _fileMap.keySet().stream().filter(name -> name.endsWith(".jar")).collect(Collectors.toList());
+    protected ArchiveClassSource getArchiveSource(final String entryName) {
+        ArchiveClassSource source = _archiveEntryIndex.get(entryName);
+        if (source != null) _indexHits.incrementAndGet();
+        else _indexMisses.incrementAndGet();
+
+        return source;
+    }
+
+    protected void closeArchiveSources() {
+        for (ArchiveClassSource source : _archiveSources) {
+            try {
+                source.close();
+            }
+            catch (IOException e) {
+                LOGGER.warn("Failed to close the archive: {}", source.getArchiveFile().getAbsolutePath(), e);
+            }
+        }
+        _archiveSources.clear();
+        _archiveEntryIndex.clear();
     }
 
     public URL getAppletDocumentBase() {
@@ -469,56 +605,25 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
     }
 
     private void addFileResource(final String klassName, FileResource resource) {
-        LOCK.lock();
-        try {
-            _fileMap.put(klassName, resource);
-        }
-        finally {
-            LOCK.unlock();
-        }
-    }
-    protected boolean isFileInJar(File jarPath, String klassName) {
-        if (!jarPath.exists() || !jarPath.isFile()) {
-            throw new RuntimeException("The specified JAR file does not exist: " + jarPath.getAbsolutePath());
-        }
-
-        try (JarFile jarFile = new JarFile(jarPath)) {
-            JarEntry entry = jarFile.getJarEntry(klassName);
-            return entry != null;
-        }
-        catch (IOException e) {
-            throw new RuntimeException("Error while accessing the JAR file: " + jarPath.getName(), e);
-        }
+        _fileMap.put(klassName, resource);
     }
     protected FileResource getFileResource(final String klassName) {
-        LOCK.lock();
-        try {
-            FileResource res = _fileMap.get(klassName);
-            if (res == null) { // maybe it's a class within a Jar file
-                List<String> jars = getJarArchives();
-                for (String jar : jars) {
-                    FileResource jarRes = _fileMap.get(jar);
-                    if ( jarRes == null ) {
-                        throw new RuntimeException("Could not find any resource associated with the jar: " + jar);
-                    }
+        FileResource res = _fileMap.get(klassName);
 
-                    if ( isFileInJar(jarRes.getUnmaskedFile(), klassName) ) {
-                        return jarRes;
-                    }
-                }
-            }
+        if (LOGGER.isDebugEnabled() && res != null) {
+            LOGGER.debug("(getFileResource) Found resource: {}", klassName);
+            LOGGER.debug("(getFileResource) Temp resource path: {}", res.getTempClassPath().getPath());
+            LOGGER.debug("(getFileResource) Temp file masked path: {}", res.getMaskedFile().getAbsolutePath());
+        }
 
-            if (LOGGER.isDebugEnabled() && res != null) {
-                LOGGER.debug("(getFileResource) Found resource: {}", klassName);
-                LOGGER.debug("(getFileResource) Temp resource path: {}", res.getTempClassPath().getPath());
-                LOGGER.debug("(getFileResource) Temp file masked path: {}", res.getMaskedFile().getAbsolutePath());
-            }
+        return res;
+    }
 
-            return res;
-        }
-        finally {
-            LOCK.unlock();
-        }
+    public long getIndexHits() {
+        return _indexHits.get();
+    }
+    public long getIndexMisses() {
+        return _indexMisses.get();
     }
 
     protected List<T> getCurrentlyUsedParameters() {
@@ -558,8 +663,14 @@ public abstract class AbstractAppletClassLoader<T> extends ClassLoader implement
     public abstract String processUnloadAppletOp(List<T> parameters) throws OPLauncherException;
 
     // class properties
+    /// Guards the downloads and the loader state of this applet only
+    private final Lock _loaderLock;
     private Map<String, FileResource> _fileMap;
     private Map<String, Class<?>> _loadedClassMap;
+    private List<ArchiveClassSource> _archiveSources;
+    private Map<String, ArchiveClassSource> _archiveEntryIndex;
+    private AtomicLong _indexHits;
+    private AtomicLong _indexMisses;
     private AppletParameters _appletParameters;
 
     private URL _appletDocumentBase;
@@ -0,0 +1,347 @@
+package org.oplauncher;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.res.ArchiveClassSource;
+import org.oplauncher.res.FileResource;
+import org.oplauncher.res.HttpSessionResourceRequest;
+import org.oplauncher.res.ResourceRequestFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.oplauncher.res.ResourceType.HTTP_SESSION_REQUEST;
+
+/**
+ * <p>Fetches the archives of an applet in the background as soon as the page finds its tag (prefetch_applet), before
+ * its load_applet comes in. The archives go through the HTTP session, so they land in the disk cache, and with the
+ * simple archive class loader their entries are indexed as well: the load then finds the cache warm and adopts the
+ * index instead of building it.</p>
+ * <p>It runs on a single low priority thread with a bounded queue, and the prefetches that don't fit are dropped: it's
+ * only a hint. A load needing an archive that is being prefetched waits for that download instead of starting another
+ * one on the same cache file; if the prefetch hasn't started yet, it's cancelled and the load fetches the archive
+ * itself.</p>
+ */
+public class AppletArchivePrefetcher {
+    static private final Logger LOGGER = LogManager.getLogger(AppletArchivePrefetcher.class);
+    static private final Lock LOCK = new ReentrantLock();
+
+    static private final int MAX_TRACKED_ARCHIVES = 256;
+    static private final int MAX_INDEXED_ARCHIVES = 16;
+
+    static private AppletArchivePrefetcher _instance;
+
+    /**
+     * Fetches the archive into the cache, and returns the archive to be indexed (null if there is nothing to index)
+     */
+    @FunctionalInterface
+    protected interface ArchiveFetcher {
+        File fetch(URL url, Map<String,String> cookies) throws Exception;
+    }
+
+    protected AppletArchivePrefetcher(int queueSize, ArchiveFetcher fetcher) {
+        final AtomicInteger kThreadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread t = new Thread(r, "oplauncher-archive-prefetch-" + kThreadCounter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        _executor = executor;
+        _fetcher = fetcher;
+        _tasks = new ConcurrentHashMap<>();
+        _indexedArchives = new LinkedHashMap<>();
+        _queued = new AtomicLong();
+        _fetched = new AtomicLong();
+        _failed = new AtomicLong();
+        _dropped = new AtomicLong();
+        _loadHits = new AtomicLong();
+        _loadJoins = new AtomicLong();
+        _loadMisses = new AtomicLong();
+        _indexesAdopted = new AtomicLong();
+    }
+
+    static public AppletArchivePrefetcher getInstance() {
+        LOCK.lock();
+        try {
+            if (_instance == null) {
+                _instance = new AppletArchivePrefetcher(ConfigurationHelper.getArchivePrefetchQueueSize(), AppletArchivePrefetcher::fetchIntoCache);
+            }
+
+            return _instance;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Queues the archives of the applet described by the parameters (same layout as load_applet)
+     * @return the number of archives queued
+     */
+    public int prefetch(List<String> parameters) {
+        if (!ConfigurationHelper.isArchivePrefetchActive() || !ConfigurationHelper.isCacheActive()) {
+            LOGGER.info("Archive prefetch is not active, the prefetch request was ignored");
+            return 0;
+        }
+
+        CommunicationParameterParser.AppletTagDef applTagDef = CommunicationParameterParser.resolveAppletTagDef(parameters);
+        String loadSourceBaseURLPath = CommunicationParameterParser.resolveBaseUrl(parameters);
+        String loadResApplType = CommunicationParameterParser.resolveAppletTag(parameters, applTagDef);
+        List<String> archives = CommunicationParameterParser.resolveArchives(parameters);
+        Map<String,String> cookies = CommunicationParameterParser.resolveCookies(parameters);
+
+        List<URL> urls = new ArrayList<>(archives.size());
+        for (String archive : archives) {
+            try {
+                urls.add(AbstractAppletClassLoader.resolveResourceURL(applTagDef, loadSourceBaseURLPath, loadResApplType, archive));
+            }
+            catch (MalformedURLException e) {
+                LOGGER.warn("Invalid archive URL, not prefetched: {}", archive, e);
+            }
+        }
+
+        return prefetch(urls, cookies);
+    }
+
+    protected int prefetch(List<URL> urls, Map<String,String> cookies) {
+        int queued = 0;
+        for (URL url : urls) {
+            final String kKey = url.toString();
+            if (_tasks.size() >= MAX_TRACKED_ARCHIVES) {
+                // prefetched archives never loaded (i.e., the page was left) make room first
+                _tasks.values().removeIf(t -> t.getResult().isDone());
+                if (_tasks.size() >= MAX_TRACKED_ARCHIVES) {
+                    _dropped.incrementAndGet();
+                    continue;
+                }
+            }
+
+            PrefetchTask task = new PrefetchTask(url, cookies);
+            if (_tasks.putIfAbsent(kKey, task) != null) continue; // already prefetched
+
+            try {
+                _executor.execute(task);
+                _queued.incrementAndGet();
+                queued++;
+            }
+            catch (RejectedExecutionException e) {
+                _tasks.remove(kKey, task);
+                _dropped.incrementAndGet();
+                LOGGER.warn("The prefetch queue is full, archive not prefetched: {}", url);
+            }
+        }
+
+        return queued;
+    }
+
+    /**
+     * Called by the load before fetching an archive. It waits for the prefetch of the archive if it's running, and
+     * cancels it if it's only queued
+     * @return true if the archive was prefetched (the cache is warm)
+     */
+    public boolean awaitPrefetch(URL url) {
+        if (!ConfigurationHelper.isArchivePrefetchActive()) return false;
+
+        PrefetchTask task = _tasks.remove(url.toString());
+        if (task == null || task.cancel()) {
+            _loadMisses.incrementAndGet();
+            return false;
+        }
+
+        boolean done = task.getResult().isDone();
+        try {
+            task.getResult().get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            _loadMisses.incrementAndGet();
+            return false;
+        }
+        catch (ExecutionException e) {
+            _loadMisses.incrementAndGet();
+            return false;
+        }
+
+        if (done) _loadHits.incrementAndGet();
+        else _loadJoins.incrementAndGet();
+
+        return true;
+    }
+
+    /**
+     * Hands the index built by the prefetch over to the loader (which closes it). Null if the archive wasn't indexed,
+     * or if it changed since
+     */
+    public ArchiveClassSource takeIndexedSource(File archive) {
+        IndexedArchive indexed;
+        LOCK.lock();
+        try {
+            indexed = _indexedArchives.remove(archive.getAbsoluteFile());
+        }
+        finally {
+            LOCK.unlock();
+        }
+        if (indexed == null) return null;
+
+        if (indexed.isStale()) {
+            indexed.close();
+            return null;
+        }
+
+        _indexesAdopted.incrementAndGet();
+        return indexed._source;
+    }
+
+    private void index(File archive) throws IOException {
+        IndexedArchive indexed = new IndexedArchive(new ArchiveClassSource(archive));
+        IndexedArchive evicted = null;
+
+        LOCK.lock();
+        try {
+            IndexedArchive previous = _indexedArchives.put(archive.getAbsoluteFile(), indexed);
+            if (previous != null) {
+                evicted = previous;
+            }
+            else if (_indexedArchives.size() > MAX_INDEXED_ARCHIVES) {
+                Iterator<IndexedArchive> eldest = _indexedArchives.values().iterator();
+                evicted = eldest.next();
+                eldest.remove();
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+
+        if (evicted != null) evicted.close();
+    }
+
+    static private File fetchIntoCache(URL url, Map<String,String> cookies) {
+        HttpSessionResourceRequest session = ResourceRequestFactory.getResourceRequest(HTTP_SESSION_REQUEST);
+        FileResource res = session.verifyCache(url);
+        if (res == null) {
+            res = session.getResource(url, cookies);
+        }
+
+        return res.getResourceType() == FileResource.ResourceType.JAR_FILE &&
+               ConfigurationHelper.getArchiveClassLoaderType() == ArchiveClassLoaderType.SIMPLE ? res.getFile() : null;
+    }
+
+    public long getLoadHits() {
+        return _loadHits.get() + _loadJoins.get();
+    }
+    public long getLoadMisses() {
+        return _loadMisses.get();
+    }
+
+    public String getStatistics() {
+        long hits = getLoadHits(), lookups = hits + getLoadMisses();
+        return String.format("Archives (queued/fetched/failed/dropped): %d/%d/%d/%d, loads (warm/joined/missed): %d/%d/%d, hit rate: %.1f%%, indexes adopted: %d",
+                             _queued.get(), _fetched.get(), _failed.get(), _dropped.get(),
+                             _loadHits.get(), _loadJoins.get(), _loadMisses.get(),
+                             lookups > 0 ? hits * 100.0 / lookups : 0.0, _indexesAdopted.get());
+    }
+
+    private class PrefetchTask implements Runnable {
+        static private final int QUEUED = 0;
+        static private final int RUNNING = 1;
+        static private final int CANCELLED = 2;
+
+        private PrefetchTask(URL url, Map<String,String> cookies) {
+            _url = url;
+            _cookies = cookies;
+            _state = new AtomicInteger(QUEUED);
+            _result = new CompletableFuture<>();
+        }
+
+        @Override
+        public void run() {
+            if (!_state.compareAndSet(QUEUED, RUNNING)) return;
+
+            final long kStartTime = System.nanoTime();
+            try {
+                File archive = _fetcher.fetch(_url, _cookies);
+                if (archive != null) {
+                    index(archive);
+                }
+                _fetched.incrementAndGet();
+                _result.complete(null);
+
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Archive prefetched in {} ms: {}", (System.nanoTime() - kStartTime) / 1_000_000L, _url);
+                }
+            }
+            catch (Throwable t) {
+                _failed.incrementAndGet();
+                _result.completeExceptionally(t);
+                // the load will try again, and report the error if it fails too
+                LOGGER.warn("Failed to prefetch the archive: {}", _url, t);
+            }
+        }
+
+        private boolean cancel() {
+            return _state.compareAndSet(QUEUED, CANCELLED);
+        }
+        private CompletableFuture<Void> getResult() {
+            return _result;
+        }
+
+        // class properties
+        private final URL _url;
+        private final Map<String,String> _cookies;
+        private final AtomicInteger _state;
+        private final CompletableFuture<Void> _result;
+    }
+
+    static private class IndexedArchive {
+        private IndexedArchive(ArchiveClassSource source) {
+            _source = source;
+            _lastModified = source.getArchiveFile().lastModified();
+            _length = source.getArchiveFile().length();
+        }
+
+        private boolean isStale() {
+            File archive = _source.getArchiveFile();
+            return archive.lastModified() != _lastModified || archive.length() != _length;
+        }
+
+        private void close() {
+            try {
+                _source.close();
+            }
+            catch (IOException e) {
+                LOGGER.warn("Failed to close the prefetched archive: {}", _source.getArchiveFile().getAbsolutePath(), e);
+            }
+        }
+
+        // class properties
+        private final ArchiveClassSource _source;
+        private final long _lastModified;
+        private final long _length;
+    }
+
+    // class properties
+    private final ExecutorService _executor;
+    private final ArchiveFetcher _fetcher;
+    private final Map<String, PrefetchTask> _tasks;
+    private final Map<File, IndexedArchive> _indexedArchives;
+
+    private final AtomicLong _queued;
+    private final AtomicLong _fetched;
+    private final AtomicLong _failed;
+    private final AtomicLong _dropped;
+    private final AtomicLong _loadHits;
+    private final AtomicLong _loadJoins;
+    private final AtomicLong _loadMisses;
+    private final AtomicLong _indexesAdopted;
+}
@@ -18,6 +18,9 @@ import static org.oplauncher.IConstants.SUCCESS_RESPONSE;
 
 public class AppletClassLoader extends AbstractAppletClassLoader<String> {
     static private final Logger LOGGER = LogManager.getLogger(AppletClassLoader.class);
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
 
     public AppletClassLoader(OPLauncherDispatcher dispatcherRef) {
         super(AppletClassLoader.getSystemClassLoader());
@@ -25,8 +28,8 @@ public class AppletClassLoader extends AbstractAppletClassLoader<String> {
         // Saves the applet reference
         _dispatcherRef = dispatcherRef;
 
-        // Trigger the splash
-        SplashScreen.instance.showSplash();
+        // Trigger the splash (queued on the EDT, the load doesn't wait for it)
+        SplashScreen.showSplash();
 
         // Creates the controller
         _appletController = AppletControllerFactory.createAppletController(this);
@@ -34,12 +37,15 @@ public class AppletClassLoader extends AbstractAppletClassLoader<String> {
 
     @Override
     public String processLoadAppletOp(List<String> parameters) throws OPLauncherException {
+        _loadStartNanos = System.nanoTime();
         try {
             // Step 0: Name this loader instance with the Applet name
             _instanceName = CommunicationParameterParser.resolveAppletName(parameters);
 
             // Step 1: Load the applet source code and cache it (if enabled)
             List<FileResource> loadedResources = loadAppletFromURL(parameters);
+            // The applet is named now: its OP messages can be routed to the controller
+            getAppletController().registerOPRoute(getAppletName());
 
             // Lets load all resources
             for (FileResource resource : loadedResources) {
@@ -73,7 +79,7 @@ public class AppletClassLoader extends AbstractAppletClassLoader<String> {
         }
         catch (Throwable t) {
             LOGGER.error("An error occurred while loading the applet", t);
-            SplashScreen.instance.closeSplash();
+            SplashScreen.closeSplash();
 
             SwingUtilities.invokeLater(() ->
                 JOptionPane.showMessageDialog(null, "An error occurred: " + t.getMessage(), "Error", JOptionPane.ERROR_MESSAGE)
@@ -93,6 +99,8 @@ public class AppletClassLoader extends AbstractAppletClassLoader<String> {
 
     public AppletClassLoader disposeApplets() {
         getAppletController().disposeAllApplets();
+        // Release the indexed archives
+        closeArchiveSources();
         // Stops the OP server
         /*if ( getAppletController().getOPServer().isOPServerRunning() ) {
             getAppletController().getOPServer().stopOPServer();
@@ -177,8 +185,16 @@ public class AppletClassLoader extends AbstractAppletClassLoader<String> {
         return _instanceName;
     }
 
+    /**
+     * When the last load request came in (System.nanoTime()), to measure the time to the first applet frame
+     */
+    public long getLoadStartNanos() {
+        return _loadStartNanos;
+    }
+
     // class properties
     private AppletController _appletController;
     private OPLauncherDispatcher _dispatcherRef;
     private String _instanceName;
+    private volatile long _loadStartNanos;
 }
@@ -35,6 +35,14 @@ public class CommunicationParameterParser {
         }
     }
 
+    /**
+     * The ops carrying the applet tag definition: load_applet, and prefetch_applet (same parameters)
+     */
+    static private boolean isAppletDefinitionOp(String opcode) {
+        OpCode op = OpCode.parse(opcode);
+        return op == OpCode.LOAD_APPLET || op == OpCode.PREFETCH_APPLET;
+    }
+
     static private <T>String paramValue(List<T> params, int idx) {
         if ( params!=null && params.size() > idx ) {
             return (String) params.get(idx);
@@ -66,7 +74,7 @@ public class CommunicationParameterParser {
         String val;
         if ( params!=null && (val = paramValue(params, IDX_BASEURL)) != null ) {
             String opcode = resolveOpCode(params);
-            if ( val != null && OpCode.parse(opcode) == OpCode.LOAD_APPLET ) {
+            if ( val != null && isAppletDefinitionOp(opcode) ) {
                 return val;
             }
             else if (val != null) {
@@ -98,7 +106,7 @@ public class CommunicationParameterParser {
         String val;
         if ( params!=null && (val = paramValue(params, IDX_APPLTPARAMS)) != null ) {
             String opcode = resolveOpCode(params);
-            if (val != null && OpCode.parse(opcode) == OpCode.LOAD_APPLET) {
+            if (val != null && isAppletDefinitionOp(opcode)) {
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.info("Loading Applet({}) Parameters: {}", appletName, params);
                 }
@@ -116,7 +124,7 @@ public class CommunicationParameterParser {
         String val;
         if ( params!=null && (val = paramValue(params, IDX_APPLTTAG)) != null ) {
             String opcode = resolveOpCode(params);
-            if (val != null && OpCode.parse(opcode) == OpCode.LOAD_APPLET) {
+            if (val != null && isAppletDefinitionOp(opcode)) {
                 String parts[] = val.split(quote("="));
 
                 return AppletTagDef.getAppletTagDef(parts[0]);
@@ -129,7 +137,7 @@ public class CommunicationParameterParser {
         String val;
         if ( params!=null && (val = paramValue(params, IDX_APPLTTAG)) != null ) {
             String opcode = resolveOpCode(params);
-            if ( val != null && OpCode.parse(opcode) == OpCode.LOAD_APPLET ) {
+            if ( val != null && isAppletDefinitionOp(opcode) ) {
                 String parts[] = val.split(quote("="));
                 if ( parts.length < 2 ) return "";
 
@@ -152,7 +160,7 @@ public class CommunicationParameterParser {
         String val;
         if ( params!=null && (val = paramValue(params, IDX_RESURL)) != null ) {
             String opcode = resolveOpCode(params);
-            if (val != null && OpCode.parse(opcode) == OpCode.LOAD_APPLET) {
+            if (val != null && isAppletDefinitionOp(opcode)) {
                 return val;
             }
             else if (val != null) {
@@ -167,7 +175,7 @@ public class CommunicationParameterParser {
         String val;
         if ( params!=null && (val = paramValue(params, IDX_RESURL)) != null ) {
             String opcode = resolveOpCode(params);
-            if ( val != null && OpCode.parse(opcode) == OpCode.LOAD_APPLET ) {
+            if ( val != null && isAppletDefinitionOp(opcode) ) {
                 String ext = FilenameUtils.getExtension(val);
 
                 /// Save the resource name for later usage - TODO, there are better ways for doing this
@@ -193,7 +201,7 @@ public class CommunicationParameterParser {
         String opcode = resolveOpCode(params);
         Map<String,String> cookies = new LinkedHashMap<>();
         if ( params!=null && params.size() > (IDX_RESURL +1) ) {
-            if ( OpCode.parse(opcode) == OpCode.LOAD_APPLET ) {
+            if ( isAppletDefinitionOp(opcode) ) {
                 for (int i=(IDX_RESURL+1); i<params.size(); i+=2 /*key value pairs*/ ) {
                     String key = paramValue(params, i);
                     if ( params.size() > (i +1)) {
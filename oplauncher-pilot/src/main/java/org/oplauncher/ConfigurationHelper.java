@@ -21,6 +21,8 @@ import org.oplauncher.runtime.JavaConsoleBuilder;
 import org.oplauncher.runtime.secur.OPCipherType;
 
 import javax.swing.*;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -176,6 +178,14 @@ public class ConfigurationHelper {
         return JavaConsoleBuilder.ConsoleType.parse(configtype);
     }
 
+    static public final int getJavaConsoleMaxLines() {
+        return Math.max(100, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_JAVACONSOLE_MAXLINES, String.valueOf(DEFAULT_JAVACONSOLE_MAXLINES)).trim()));
+    }
+
+    static public final int getJavaConsoleFlushMillis() {
+        return Math.max(10, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_JAVACONSOLE_FLUSHMS, String.valueOf(DEFAULT_JAVACONSOLE_FLUSH_MS)).trim()));
+    }
+
     static public final OPCipherType getDefaultCipherType() {
         if ( configPropAvailable(CONFIG_PROP_SECUR_ALGORITHM) ) {
             return OPCipherType.from(CONFIG.getProperty(CONFIG_PROP_SECUR_ALGORITHM, "des3"));
@@ -183,15 +193,24 @@ public class ConfigurationHelper {
         else return OPCipherType.DES3 /*Default is DES3*/;
     }
 
+    /**
+     * Looks the cipher key up: the Windows registry first (on Windows), then the configuration. It's called by the
+     * key provider only, which caches the key (see {@link org.oplauncher.runtime.secur.SecurityManager#getCipherKeyProvider()})
+     */
     static public final String getCipherKey() {
         // Windows system, lets see if the cypher exists in the registry
         if (isRunningOnWindows()) {
             LOGGER.info("Running on Windows, retrieving the cipher key from the Windows Registry: HKLM:\\{}\\{}", WINREG_OPLAUNCHER_KEY, WINREG_OPLAUNCHER_KEYVAL);
 
-            String cipherKey = Advapi32Util.registryGetStringValue(WinReg.HKEY_LOCAL_MACHINE, WINREG_OPLAUNCHER_KEY, WINREG_OPLAUNCHER_KEYVAL);
-            if (cipherKey != null) {
-                LOGGER.info("The cipher key was found and retrieved from the Windows Registry: {}", cipherKey);
-                return cipherKey;
+            try {
+                String cipherKey = Advapi32Util.registryGetStringValue(WinReg.HKEY_LOCAL_MACHINE, WINREG_OPLAUNCHER_KEY, WINREG_OPLAUNCHER_KEYVAL);
+                if (cipherKey != null) {
+                    LOGGER.info("The cipher key was found and retrieved from the Windows Registry");
+                    return cipherKey;
+                }
+            }
+            catch (RuntimeException e) {
+                LOGGER.warn("The cipher key could not be read from the Windows Registry, using the configured key: {}", e.getMessage());
             }
         }
 
@@ -203,6 +222,14 @@ public class ConfigurationHelper {
         }
     }
 
+    /**
+     * File holding the cipher key (Base64), watched for key rotations. Null when not configured
+     */
+    static public final File getCipherKeyFile() {
+        String path = CONFIG.getProperty(CONFIG_PROP_SECUR_KEYFILE, "").trim();
+        return path.isEmpty() ? null : new File(path);
+    }
+
     static public final boolean isRunningOnWindows() {
         String osName = System.getProperty("os.name").toLowerCase();
 
@@ -217,6 +244,56 @@ public class ConfigurationHelper {
         return isFlagActive(CONFIG.getProperty(CONFIG_PROP_CACHE_ACTIVEFLAG, "true").trim());
     }
 
+    static public final int getArchiveFetchThreadCount() {
+        int threads = Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_ARCHIVE_FETCH_THREADS, String.valueOf(DEFAULT_ARCHIVE_FETCH_THREADS)).trim());
+
+        return Math.max(1, threads);
+    }
+
+    static public final boolean isArchivePrefetchActive() {
+        return isFlagActive(CONFIG.getProperty(CONFIG_PROP_ARCHIVE_PREFETCH_ACTIVE, "true").trim());
+    }
+    static public final int getArchivePrefetchQueueSize() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_ARCHIVE_PREFETCH_QUEUESIZE, String.valueOf(DEFAULT_ARCHIVE_PREFETCH_QUEUESIZE)).trim()));
+    }
+
+    static public final int getHttpPoolMaxTotal() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_HTTP_POOL_MAXTOTAL, String.valueOf(DEFAULT_HTTP_POOL_MAXTOTAL)).trim()));
+    }
+
+    static public final int getHttpPoolMaxPerRoute() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_HTTP_POOL_MAXPERROUTE, String.valueOf(DEFAULT_HTTP_POOL_MAXPERROUTE)).trim()));
+    }
+
+    static public final long getHttpPoolIdleEvictSeconds() {
+        return Math.max(1, Long.valueOf(CONFIG.getProperty(CONFIG_PROP_HTTP_POOL_IDLEEVICT, String.valueOf(DEFAULT_HTTP_POOL_IDLEEVICT_SEC)).trim()));
+    }
+
+    static public final boolean isCacheRevalidationActive() {
+        return isFlagActive(CONFIG.getProperty(CONFIG_PROP_CACHE_REVALIDATE, "true").trim());
+    }
+
+    static public final long getCacheQuotaBytes() {
+        long quotaMb = Long.valueOf(CONFIG.getProperty(CONFIG_PROP_CACHE_QUOTA_MB, String.valueOf(DEFAULT_CACHE_QUOTA_MB)).trim());
+
+        return Math.max(1, quotaMb) * 1024L * 1024L;
+    }
+
+    /**
+     * Max age (in days) of a cache entry not accessed. Zero disables the age based eviction
+     */
+    static public final int getCacheMaxAgeDays() {
+        return Math.max(0, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_CACHE_MAXAGE_DAYS, String.valueOf(DEFAULT_CACHE_MAXAGE_DAYS)).trim()));
+    }
+
+    static public final long getCacheSweepIntervalSeconds() {
+        return Math.max(10, Long.valueOf(CONFIG.getProperty(CONFIG_PROP_CACHE_SWEEP_INTERVAL, String.valueOf(DEFAULT_CACHE_SWEEP_INTERVAL_SEC)).trim()));
+    }
+
+    static public final int getTempClassPathMaxAgeHours() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_CACHE_TMPCP_MAXAGE, String.valueOf(DEFAULT_CACHE_TMPCP_MAXAGE_HOURS)).trim()));
+    }
+
     static public final boolean isWindowCloseActive() {
         return isFlagActive(CONFIG.getProperty(CONFIG_PROP_APPLET_CLOSEWINDOW, "true").trim());
     }
@@ -229,6 +306,27 @@ public class ConfigurationHelper {
         return isFlagActive(CONFIG.getProperty(CONFIG_PROP_APPLET_TRACKWINPOS, "false").trim());
     }
 
+    /**
+     * Max rate (per second) at which the tracked applet positions are applied. Zero uses the refresh rate of the
+     * screen
+     */
+    static public final int getWindowTrackingRefreshRate() {
+        int rate = Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_APPLET_TRACKWIN_REFRESH, "0").trim());
+        if (rate > 0) return rate;
+
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                int screenRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+                if (screenRate != DisplayMode.REFRESH_RATE_UNKNOWN && screenRate > 0) return screenRate;
+            }
+        }
+        catch (Exception e) {
+            LOGGER.warn("Unable to read the screen refresh rate, using the default: {}Hz", DEFAULT_TRACKWINDOW_REFRESH_HZ);
+        }
+
+        return DEFAULT_TRACKWINDOW_REFRESH_HZ;
+    }
+
     static public final boolean isSecurePayloadActive() {
         return isFlagActive(CONFIG.getProperty(CONFIG_PROP_SECUR_ACTIVE, "true").trim());
     }
@@ -259,6 +357,29 @@ public class ConfigurationHelper {
         return CONFIG.getProperty(CONFIG_PROP_OP_SERVER_CTXROOT, DEFAULT_OPSERVER_CTXROOT);
     }
 
+    static public final int getOPBatchMaxSize() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_OP_BATCH_MAXSIZE, String.valueOf(DEFAULT_OP_BATCH_MAXSIZE)).trim()));
+    }
+
+    static public final int getOPCallThreads() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_OP_CALL_THREADS, String.valueOf(DEFAULT_OP_CALL_THREADS)).trim()));
+    }
+
+    static public final int getOPCallQueueSize() {
+        return Math.max(1, Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_OP_CALL_QUEUESIZE, String.valueOf(DEFAULT_OP_CALL_QUEUESIZE)).trim()));
+    }
+
+    /**
+     * Max time (in millis) of a synchronous OP call (i.e., applet method call). Zero disables the timeout
+     */
+    static public final long getOPCallTimeoutMillis() {
+        return Math.max(0, Long.valueOf(CONFIG.getProperty(CONFIG_PROP_OP_CALL_TIMEOUT, String.valueOf(DEFAULT_OP_CALL_TIMEOUT_MS)).trim()));
+    }
+
+    static public final boolean isOPJsonPrettyPrintActive() {
+        return isFlagActive(CONFIG.getProperty(CONFIG_PROP_OP_JSON_PRETTY, "false").trim());
+    }
+
     static public final int getOPServerPort() {
         return Integer.valueOf(CONFIG.getProperty(CONFIG_PROP_OP_SERVER_PORT, "7777")).intValue();
     }
@@ -323,6 +444,24 @@ public class ConfigurationHelper {
         return new ImageIcon(loadReloadIconBytes(iconpat));
     }
 
+    /**
+     * The splash is shown unless disabled in the configuration or with the system property of the same name (i.e.,
+     * <code>-Doplauncher.splash.active=off</code> for automated or kiosk launches), or when there is no display
+     */
+    static public final boolean isSplashActive() {
+        String active = System.getProperty(CONFIG_PROP_SPLASH_ACTIVE, CONFIG.getProperty(CONFIG_PROP_SPLASH_ACTIVE, "true"));
+        return isFlagActive(active.trim()) && !GraphicsEnvironment.isHeadless();
+    }
+
+    /**
+     * The launcher warms the JVM up right after creating it (see {@link org.oplauncher.load.JVMWarmup}), unless
+     * disabled in the configuration or with the system property of the same name
+     */
+    static public final boolean isJVMWarmupActive() {
+        String active = System.getProperty(CONFIG_PROP_JVM_WARMUP_ACTIVE, CONFIG.getProperty(CONFIG_PROP_JVM_WARMUP_ACTIVE, "true"));
+        return isFlagActive(active.trim());
+    }
+
     static public final ImageIcon getSplashIcon() {
         String iconsplash = CONFIG.getProperty(CONFIG_PROP_SPLASH_IMAGE, CONFIG_SPLASH_IMAGE);
 
@@ -26,7 +26,10 @@ public enum ErrorCode {
     FAILED_VALID_MAGIC_NUMBER(8022),
     SECURE_PAYLOAD_PARSE_ERROR(8023),
     REFLECTION_ERROR(8024),
-    FAILED_TO_FIND_APPLET_INSTANCE(8025)
+    FAILED_TO_FIND_APPLET_INSTANCE(8025),
+    WEBSOCKET_PROTOCOL_ERROR(8026),
+    INVALID_BATCH_PAYLOAD(8027),
+    METHOD_CALL_CANCELLED(8028)
       ;
 
     private ErrorCode(int cd) {
@@ -22,11 +22,31 @@ public interface IConstants {
     static public final int DEFAULT_INIT_POSX = 50;
     static public final int DEFAULT_INIT_POSY = 50;
 
+    static public final int DEFAULT_ARCHIVE_FETCH_THREADS = 4;
+    static public final int DEFAULT_ARCHIVE_PREFETCH_QUEUESIZE = 32;
+    static public final int DEFAULT_HTTP_POOL_MAXTOTAL = 20;
+    static public final int DEFAULT_HTTP_POOL_MAXPERROUTE = 6;
+    static public final int DEFAULT_HTTP_POOL_IDLEEVICT_SEC = 30;
+    static public final long DEFAULT_CACHE_QUOTA_MB = 512;
+    static public final int DEFAULT_CACHE_MAXAGE_DAYS = 30;
+    static public final int DEFAULT_CACHE_SWEEP_INTERVAL_SEC = 300;
+    static public final int DEFAULT_CACHE_TMPCP_MAXAGE_HOURS = 24;
+    static public final String DEFAULT_TMPCP_PREFIX = "oplauncher_";
+    static public final int DEFAULT_TRACKWINDOW_REFRESH_HZ = 60;
+    static public final int DEFAULT_OP_BATCH_MAXSIZE = 64;
+    static public final int DEFAULT_JAVACONSOLE_MAXLINES = 5000;
+    static public final int DEFAULT_JAVACONSOLE_FLUSH_MS = 50;
+    static public final int DEFAULT_OP_CALL_THREADS = 4;
+    static public final int DEFAULT_OP_CALL_QUEUESIZE = 64;
+    static public final long DEFAULT_OP_CALL_TIMEOUT_MS = 30000;
+
     static public final int DEFAULT_CONNECTION_BACKLOG = 5;
     static public final int DEFAULT_CONNECTION_SETSOTIMEOUT_SEC = 5000;
 
     static public final String DEFAULT_OPSERVER_CTXROOT = "oplauncher-op";
     static public final String DEFAULT_HB_CTXROOT = "oplauncher-hb";
+    static public final String OP_EVENT_APPLET_LOADED = "applet_loaded";
+    static public final String OP_EVENT_APPLET_UNLOADED = "applet_unloaded";
     static public final String HTTP_HEADER_CHROMEEXT_TKN = "X-Chrome-Extension-Tkn";
 
     static public final String WINREG_OPLAUNCHER_KEY = "SOFTWARE\\OPlauncher";
@@ -54,6 +74,17 @@ public interface IConstants {
 
     static public final String CONFIG_PROP_CACHE_ACTIVEFLAG = "oplauncher.cache.active";
     static public final String CONFIG_PROP_CACHE_FILEPATH = "oplauncher.cache.directory";
+    static public final String CONFIG_PROP_CACHE_REVALIDATE = "oplauncher.cache.revalidate";
+    static public final String CONFIG_PROP_CACHE_QUOTA_MB = "oplauncher.cache.quota_mb";
+    static public final String CONFIG_PROP_CACHE_MAXAGE_DAYS = "oplauncher.cache.max_age_days";
+    static public final String CONFIG_PROP_CACHE_SWEEP_INTERVAL = "oplauncher.cache.sweep_interval_sec";
+    static public final String CONFIG_PROP_CACHE_TMPCP_MAXAGE = "oplauncher.cache.tmp_classpath.max_age_hours";
+    static public final String CONFIG_PROP_ARCHIVE_FETCH_THREADS = "oplauncher.runtime.archive.fetch.threads";
+    static public final String CONFIG_PROP_ARCHIVE_PREFETCH_ACTIVE = "oplauncher.runtime.archive.prefetch.active";
+    static public final String CONFIG_PROP_ARCHIVE_PREFETCH_QUEUESIZE = "oplauncher.runtime.archive.prefetch.queue_size";
+    static public final String CONFIG_PROP_HTTP_POOL_MAXTOTAL = "oplauncher.runtime.http.pool.max_total";
+    static public final String CONFIG_PROP_HTTP_POOL_MAXPERROUTE = "oplauncher.runtime.http.pool.max_per_route";
+    static public final String CONFIG_PROP_HTTP_POOL_IDLEEVICT = "oplauncher.runtime.http.pool.idle_evict_sec";
     static public final String CONFIG_PROP_CONFIG_ROOT = "oplauncher.config.root";
     static public final String CONFIG_PROP_RESOURCENAME = "oplauncher.runtime.res_name";
     static public final String CONFIG_PROP_CURTEMPCP = "oplauncher.runtime.current.classpath";
@@ -71,12 +102,22 @@ public interface IConstants {
     static public final String CONFIG_PROP_APPLET_CLOSEWINDOW = "oplauncher.runtime.closewindow.active";
     static public final String CONFIG_PROP_APPLET_STATUSBAR = "oplauncher.runtime.statusbar.active";
     static public final String CONFIG_PROP_APPLET_TRACKWINPOS = "oplauncher.runtime.trackwindow.position";
+    static public final String CONFIG_PROP_APPLET_TRACKWIN_REFRESH = "oplauncher.runtime.trackwindow.refresh_hz";
     static public final String CONFIG_PROP_JAVACONSOLE = "oplauncher.config.java.console";
     static public final String CONFIG_PROP_JAVACONSOLE_TYPE = "oplauncher.config.java.console.type";
+    static public final String CONFIG_PROP_JAVACONSOLE_MAXLINES = "oplauncher.config.java.console.max_lines";
+    static public final String CONFIG_PROP_JAVACONSOLE_FLUSHMS = "oplauncher.config.java.console.flush_ms";
     static public final String CONFIG_PROP_APPLETFRAME_ICON = "oplauncher.runtime.icon";
     static public final String CONFIG_PROP_SPLASH_IMAGE = "oplauncher.splash.image";
+    static public final String CONFIG_PROP_SPLASH_ACTIVE = "oplauncher.splash.active";
+    static public final String CONFIG_PROP_JVM_WARMUP_ACTIVE = "oplauncher.jvm.warmup.active";
     static public final String CONFIG_PROP_OP_SERVER_TYPE = "oplauncher.runtime.opserver.type";
     static public final String CONFIG_PROP_OP_SERVER_PORT = "oplauncher.runtime.opserver.port";
+    static public final String CONFIG_PROP_OP_BATCH_MAXSIZE = "oplauncher.runtime.opserver.batch.max_size";
+    static public final String CONFIG_PROP_OP_CALL_THREADS = "oplauncher.runtime.opserver.call.threads";
+    static public final String CONFIG_PROP_OP_CALL_QUEUESIZE = "oplauncher.runtime.opserver.call.queue_size";
+    static public final String CONFIG_PROP_OP_CALL_TIMEOUT = "oplauncher.runtime.opserver.call.timeout_ms";
+    static public final String CONFIG_PROP_OP_JSON_PRETTY = "oplauncher.runtime.opserver.json.pretty";
     static public final String CONFIG_PROP_OP_SERVER_IP = "oplauncher.runtime.opserver.registered_ip";
     static public final String CONFIG_PROP_OP_SERVER_CHROME_TOKEN = "oplauncher.runtime.opserver.chrome.token";
     static public final String CONFIG_PROP_OP_SERVER_CTXROOT = "oplauncher.runtime.opserver.ctxroot";
@@ -86,6 +127,7 @@ public interface IConstants {
     static public final String CONFIG_PROP_SECUR_MASK = "oplauncher.runtime.secur.mask";
     static public final String CONFIG_PROP_SECUR_ACTIVE = "oplauncher.runtime.secur.active";
     static public final String CONFIG_PROP_SECUR_ENCKEY = "oplauncher.runtime.secur.key";
+    static public final String CONFIG_PROP_SECUR_KEYFILE = "oplauncher.runtime.secur.keyfile";
 
     static public final String APPLETPARAM_WIDTH = "width";
     static public final String APPLETPARAM_HEIGHT = "height";
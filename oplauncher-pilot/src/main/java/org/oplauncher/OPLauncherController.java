@@ -44,6 +44,23 @@ public class OPLauncherController {
         }
     }
 
+    /**
+     * Queues the archives of an applet found in the page, so they are in the cache when its load_applet comes in
+     */
+    public String processPrefetchAppletOp(List<String> parameters) {
+        try {
+            int queued = AppletArchivePrefetcher.getInstance().prefetch(parameters);
+            LOGGER.info("Prefetching {} archive(s) of the Applet: {}", queued, CommunicationParameterParser.resolveAppletName(parameters));
+
+            return SUCCESS_RESPONSE;
+        }
+        catch (RuntimeException e) {
+            LOGGER.warn("Failed to prefetch the Applet archives", e);
+
+            return FAILURE_RESPONSE;
+        }
+    }
+
     static public void main(String[] args) {
         OPLauncherController controller = new OPLauncherController();
         controller.processLoadAppletOp(Arrays.asList("load_applet",
@@ -2,6 +2,10 @@ package org.oplauncher;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.oplauncher.op.OPCallExecutor;
+import org.oplauncher.op.OPServerFactory;
+import org.oplauncher.res.CacheManager;
+import org.oplauncher.runtime.AppletEventCoalescer;
 
 import java.text.DecimalFormat;
 import java.util.LinkedHashMap;
@@ -29,6 +33,9 @@ public class OPLauncherDispatcherPool {
 
         // triggers the pooling stats mechanism
         _poolService.scheduleAtFixedRate(this::poolStatistics, 1, 15, TimeUnit.MINUTES);
+
+        // keeps the disk cache (and the temporary class paths) bounded
+        CacheManager.getInstance().start();
     }
 
     public void poolStatistics() {
@@ -40,6 +47,12 @@ public class OPLauncherDispatcherPool {
             LOGGER.info("[STATS] JVM Heap allocation (Used/Max): {}/{} MB", freeMem, maxMem);
             LOGGER.info("[STATS] Number of load/ToBeLoaded Applets: {} applet(s)", INSTANCE_POOL.size());
             LOGGER.info("[STATS] Loaded Applet details (name/class): {}", INSTANCE_POOL.values().stream().map(op->getLoadAppletNames(op)).collect(Collectors.joining(";")));
+            LOGGER.info("[STATS] Class index lookups (hits/misses): {}", INSTANCE_POOL.values().stream().map(op->getClassIndexStats(op)).collect(Collectors.joining(";")));
+            LOGGER.info("[STATS] Disk cache: {}", CacheManager.getInstance().getStatistics());
+            LOGGER.info("[STATS] Window tracking: {}", AppletEventCoalescer.getInstance().getStatistics());
+            LOGGER.info("[STATS] OP calls: {}", OPCallExecutor.getInstance().getStatistics());
+            LOGGER.info("[STATS] OP server: {}", OPServerFactory.getSharedServerStatistics());
+            LOGGER.info("[STATS] Archive prefetch: {}", AppletArchivePrefetcher.getInstance().getStatistics());
             //LOGGER.info("[STATS] Loaded Applet parameters (name/key-pairs): {}", INSTANCE_POOL.values().stream().map(op->getLoadedAppletParameters(op)).collect(Collectors.joining(";")));
             LOGGER.info("============================");
         }
@@ -115,6 +128,13 @@ public class OPLauncherDispatcherPool {
                     .collect(Collectors.joining(",")))
                 .append("]").toString();
     }
+    private String getClassIndexStats(OPLauncherDispatcher dispatcher) {
+        return new StringBuilder("[")
+                .append(dispatcher.getAllAppletLoaders()
+                    .stream().map((loaders)->String.format("%s - %d/%d", loaders.getAppletName(), loaders.getIndexHits(), loaders.getIndexMisses()))
+                    .collect(Collectors.joining(",")))
+                .append("]").toString();
+    }
     /*private String getLoadedAppletParameters(OPLauncherDispatcher dispatcher) {
         return dispatcher.getAllAppletLoaders()
                 .stream()
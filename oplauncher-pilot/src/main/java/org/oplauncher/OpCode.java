@@ -9,6 +9,7 @@ public enum OpCode {
     CHANGE_POSTION("move_applet"),
     FOCUS_APPLET("focus_applet"),
     BLUR_APPLET("blur_applet"),
+    PREFETCH_APPLET("prefetch_applet"),
     UNKNOWN("unknown")
       ;
 
@@ -0,0 +1,107 @@
+package org.oplauncher.load;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>Warms the JVM up for the first applet. The native launcher calls {@link #startWarmup()} right after creating the
+ * JVM, and the classes the first load needs anyway (OP server, JSON mappers, HTTP core, AWT/Swing) are loaded on a
+ * background thread while the launcher is still parsing the load request and the archives are being downloaded.</p>
+ * <p>The same warm-up is the training run of the class data sharing archive: the launcher started with
+ * <code>--generate-cds</code> calls {@link #warmup()} in a JVM that dumps the loaded classes at exit, so the next
+ * launches map them from the archive instead of loading them again.</p>
+ */
+public class JVMWarmup {
+    static private final Logger LOGGER = LogManager.getLogger(JVMWarmup.class);
+    static private final AtomicBoolean STARTED = new AtomicBoolean();
+
+    static private final String[] WARMUP_CLASSES = {
+            // OP server and its JSON codec (builds the shared mapper, readers and writers)
+            "org.oplauncher.OPLauncherController",
+            "org.oplauncher.OPLauncherDispatcherPool",
+            "org.oplauncher.op.OPJsonCodec",
+            "org.oplauncher.op.HttpOPServer",
+            "org.oplauncher.op.WebSocket2OPServer",
+            "org.oplauncher.op.OPHttpHandler",
+            "org.oplauncher.op.OPBatchProcessor",
+            "org.apache.http.impl.nio.bootstrap.ServerBootstrap",
+            "org.apache.http.impl.nio.reactor.DefaultListeningIOReactor",
+            // applet load
+            "org.oplauncher.AppletClassLoader",
+            "org.oplauncher.res.HttpSessionResourceRequest",
+            "org.oplauncher.res.CacheManager",
+            "org.oplauncher.runtime.AppletOPDispatcher",
+            "org.oplauncher.runtime.DefaultAppletController",
+            // UI
+            "java.applet.Applet",
+            "javax.swing.JFrame",
+            "javax.swing.JWindow",
+    };
+    static private final String[] INITIALIZED_CLASSES = {
+            "org.oplauncher.op.OPJsonCodec",
+    };
+
+    private JVMWarmup() {}
+
+    /**
+     * Starts the warm-up in the background, once
+     * @return false if the warm-up is disabled or was already started
+     */
+    static public final boolean startWarmup() {
+        if (!ConfigurationHelper.isJVMWarmupActive()) {
+            LOGGER.info("JVM warm-up disabled");
+            return false;
+        }
+        if (!STARTED.compareAndSet(false, true)) return false;
+
+        Thread t = new Thread(JVMWarmup::warmup, "oplauncher-jvm-warmup");
+        t.setDaemon(true);
+        t.start();
+
+        return true;
+    }
+
+    /**
+     * Loads the warm-up classes and the AWT toolkit in the calling thread
+     * @return the time it took, in milliseconds
+     */
+    static public final long warmup() {
+        final long kStartTime = System.nanoTime();
+        final ClassLoader kLoader = JVMWarmup.class.getClassLoader();
+
+        int loaded = 0;
+        for (String className : WARMUP_CLASSES) {
+            try {
+                Class.forName(className, false, kLoader);
+                loaded++;
+            }
+            catch (ClassNotFoundException | LinkageError e) {
+                LOGGER.warn("(warmup) Class not preloaded: {}", className, e);
+            }
+        }
+        for (String className : INITIALIZED_CLASSES) {
+            try {
+                Class.forName(className, true, kLoader);
+            }
+            catch (ClassNotFoundException | LinkageError e) {
+                LOGGER.warn("(warmup) Class not initialized: {}", className, e);
+            }
+        }
+        if (!GraphicsEnvironment.isHeadless()) {
+            Toolkit.getDefaultToolkit();
+        }
+
+        long elapsedMillis = (System.nanoTime() - kStartTime) / 1_000_000L;
+        LOGGER.info("JVM warm-up done in {} ms ({} classes preloaded)", elapsedMillis, loaded);
+
+        return elapsedMillis;
+    }
+
+    static protected String[] getWarmupClasses() {
+        return WARMUP_CLASSES.clone();
+    }
+}
@@ -7,36 +7,37 @@ import org.oplauncher.ConfigurationHelper;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.atomic.AtomicReference;
+import java.awt.image.BufferedImage;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static java.awt.Font.BOLD;
-import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * <p>Splash screen shown while the applet loads. It stays off the load path: {@link #showSplash()} and
+ * {@link #closeSplash()} only queue work on the EDT and return right away, the window is built there when it's first
+ * shown, and the animation runs on a Swing timer. The splash image is scaled once and kept for the next applets.</p>
+ * <p>Nothing is shown when the splash is disabled ({@link ConfigurationHelper#isSplashActive()}), i.e., for headless,
+ * automated or kiosk launches.</p>
+ */
 public class SplashScreen extends JWindow {
-    static public final SplashScreen instance = new SplashScreen();
-    private final AtomicReference<ScheduledExecutorService> EXECUTOR_SERVICE = new AtomicReference<>(Executors.newSingleThreadScheduledExecutor());
-
     static private final Lock LOCK = new ReentrantLock();
     static private final Logger LOGGER = LogManager.getLogger(SplashScreen.class);
 
     static public final int WSIZE = 661;
     static public final int HSIZE = 371;
     static private final int NUM_DOTS = 6;
+    static private final int ANIMATION_DELAY_MS = 1000;
 
     private SplashScreen() {
         setSize(WSIZE, HSIZE);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
-        Image splash = ConfigurationHelper.getSplashIcon()
-                                            .getImage()
-                                            .getScaledInstance(WSIZE, HSIZE, Image.SCALE_SMOOTH);
-        _imageLabel = new JLabel(new ImageIcon(splash));
+        _imageLabel = new JLabel(new ImageIcon(getSplashImage()));
         _statusLabel = new JLabel("Loading.", SwingConstants.LEFT);
+        _animationTimer = new Timer(ANIMATION_DELAY_MS, e -> updateLoadingText());
+        _animationTimer.setInitialDelay(0);
 
         additionUIConfig();
 
@@ -57,66 +58,103 @@ public class SplashScreen extends JWindow {
         getStatusLabel().setForeground(Color.YELLOW);
     }
 
-    public SplashScreen showSplash() {
+    /**
+     * Queues the splash on the EDT, it doesn't wait for it to be shown
+     * @return false if the splash is disabled
+     */
+    static public final boolean showSplash() {
+        if (!ConfigurationHelper.isSplashActive()) {
+            LOGGER.info("Splash screen disabled, not shown");
+            return false;
+        }
+
+        LOGGER.info("Loading the splash screen...");
+        SwingUtilities.invokeLater(() -> {
+            // already up, i.e., a second applet loading before the first one is shown
+            if (_current != null) return;
+
+            _current = new SplashScreen();
+            _current.setVisible(true);
+            _current.getAnimationTimer().start();
+            LOGGER.info("Splash screen loaded!");
+        });
+
+        return true;
+    }
+
+    /**
+     * Queues the closing of the splash on the EDT, it doesn't wait for it either. The show requests queued before it
+     * are handled first, so it never leaves a splash behind
+     */
+    static public final void closeSplash() {
+        if (!ConfigurationHelper.isSplashActive()) return;
+
+        SwingUtilities.invokeLater(() -> {
+            if (_current == null) return;
+
+            LOGGER.info("Closing the splash screen...");
+            _current.getAnimationTimer().stop();
+            _current.setVisible(false);
+            _current.dispose();
+            _current = null;
+
+            LOGGER.info("Splash screen closed!");
+        });
+    }
+
+    /**
+     * The splash image scaled to the window size, done once: the next splashes reuse it
+     */
+    static protected Image getSplashImage() {
         LOCK.lock();
         try {
-            LOGGER.info("Loading the splash screen...");
-            SwingUtilities.invokeLater(() -> {
-                setVisible(true);
-                LOGGER.info("Splash screen loaded!");
-            });
+            if (_splashImage == null) {
+                long start = System.nanoTime();
+                _splashImage = scale(ConfigurationHelper.getSplashIcon().getImage(), WSIZE, HSIZE);
 
-            // starts the animation
-            startLoadingAnimation();
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("(getSplashImage) Splash image ready in {} ms", (System.nanoTime() - start) / 1_000_000L);
+                }
+            }
 
-            return this;
+            return _splashImage;
         }
         finally {
             LOCK.unlock();
         }
     }
-    public SplashScreen closeSplash() {
-        ScheduledExecutorService executor = getExecutorService();
 
-        LOCK.lock();
-        try {
-            LOGGER.info("Closing the splash screen...");
-            // Stop the scheduled updates
-            executor.shutdown();
-            try {
-                while (!executor.awaitTermination(2l, SECONDS)) ;
-            }
-            catch (InterruptedException e) {
-                LOGGER.warn("Interrupted while waiting for the splash screen to close.", e);
-            }
+    /**
+     * Scales with a bilinear/quality rendering pass instead of {@link Image#SCALE_SMOOTH} (area averaging, several
+     * times slower for a visually equivalent result). An image already of the given size is kept as it is
+     */
+    static protected Image scale(Image image, int width, int height) {
+        if (image.getWidth(null) == width && image.getHeight(null) == height) return image;
 
-            SwingUtilities.invokeLater(() -> {
-                setVisible(false);
-                dispose();
-
-                LOGGER.info("Splash screen closed!");
-            });
-
-            return this;
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.drawImage(image, 0, 0, width, height, null);
         }
         finally {
-            LOCK.unlock();
+            g.dispose();
         }
+
+        return scaled;
     }
 
-    private String _dots_() {
-        String dots = "";
-        for (int i = 0; i < _dotCount; i++) {dots += ".";}
-        return dots;
+    private void updateLoadingText() {
+        String loadingText = "Loading".concat(_dots_());
+        getStatusLabel().setText(loadingText);
+        _dotCount = (_dotCount % NUM_DOTS) + 1;  // Cycle through 1, 2, 3...,NUM_DOTS dots
     }
-    protected void startLoadingAnimation() {
-        getExecutorService().scheduleAtFixedRate(() -> {
-            SwingUtilities.invokeLater(() -> {
-                String loadingText = "Loading".concat(_dots_());
-                getStatusLabel().setText(loadingText);
-                _dotCount = (_dotCount % NUM_DOTS) + 1;  // Cycle through 1, 2, 3...,NUM_DOTS dots
-            });
-        }, 0, 1, SECONDS);
+    private String _dots_() {
+        StringBuilder dots = new StringBuilder(NUM_DOTS);
+        for (int i = 0; i < _dotCount; i++) {dots.append('.');}
+        return dots.toString();
     }
 
     protected JLabel getImageLabel() {
@@ -125,18 +163,18 @@ public class SplashScreen extends JWindow {
     protected JLabel getStatusLabel() {
         return _statusLabel;
     }
-    protected ScheduledExecutorService getExecutorService() {
-        ScheduledExecutorService executorService = EXECUTOR_SERVICE.get();
-        if (executorService == null || executorService.isShutdown()) {
-            EXECUTOR_SERVICE.set(Executors.newSingleThreadScheduledExecutor());
-        }
-
-        return EXECUTOR_SERVICE.get();
+    protected Timer getAnimationTimer() {
+        return _animationTimer;
     }
 
     // class properties
+    static private Image _splashImage;
+    /// Only touched on the EDT
+    static private SplashScreen _current;
+
     private JLabel _imageLabel;
     private JLabel _statusLabel;
+    private Timer _animationTimer;
 
     private int _dotCount = 1;
 }
@@ -3,6 +3,7 @@ package org.oplauncher.op;
 import org.apache.http.impl.nio.bootstrap.HttpServer;
 import org.apache.http.impl.nio.bootstrap.ServerBootstrap;
 import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.ListenerEndpoint;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.oplauncher.ConfigurationHelper;
@@ -35,6 +36,9 @@ public class HttpOPServer<P extends OPPayload> extends OPServer<P> {
     public OPServer<P> startOPServer() throws OPLauncherException {
         LOCK.lock();
         try {
+            ///  Shared by all the controllers, only the first start binds the port
+            if (isOPServerRunning()) return this;
+
             String ctxroot = String.format("/%s", ConfigurationHelper.getOPServerContextRoot());
             String hbroot = String.format("/%s", DEFAULT_HB_CTXROOT);
             LOGGER.info("About to start the OP server listening on {} => {}:{}", ctxroot, getHost(), getPort());
@@ -63,6 +67,12 @@ public class HttpOPServer<P extends OPPayload> extends OPServer<P> {
                     .create();
             // Start the server
             getServer().start();
+            // the port is bound by the reactor thread, waits for it so the server is really listening on return
+            ListenerEndpoint endpoint = getServer().getEndpoint();
+            endpoint.waitFor();
+            if (endpoint.getException() != null) {
+                throw endpoint.getException();
+            }
 
             LOGGER.info("OP server started successfully on {}:{}", getHost(), getPort());
             SERVER_RUNNING_CONTROL.set(true);
@@ -98,10 +108,12 @@ public class HttpOPServer<P extends OPPayload> extends OPServer<P> {
     }
 
     protected HttpOPServer<P> triggerSuccessCallbacks(OPMessage<P> message) {
+        routeSuccessMessage(message);
         _successCallbacks.forEach(callback -> callback.call(message));
         return this;
     }
     protected HttpOPServer<P> triggerErrorCallbacks(OPMessage<P> message) {
+        routeFailureMessage(message);
         _errorCallbacks.stream().parallel().forEach(callback -> callback.call(message));
         return this;
     }
@@ -0,0 +1,33 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Batch of OP payloads sent in a single request: <code>{"batch": [payload, payload, ...]}</code>. Each entry is
+ * the same JSON payload (plain or secure) accepted by the OP server for a single operation.</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OPBatchPayload {
+    static public final String FIELD_BATCH = "batch";
+
+    static public boolean isBatch(JsonNode root) {
+        return root != null && root.has(FIELD_BATCH);
+    }
+
+    public List<JsonNode> getOperations() {
+        return _operations != null ? _operations : new ArrayList<>();
+    }
+
+    public int size() {
+        return getOperations().size();
+    }
+
+    // class properties
+    @JsonProperty(FIELD_BATCH)
+    private List<JsonNode> _operations;
+}
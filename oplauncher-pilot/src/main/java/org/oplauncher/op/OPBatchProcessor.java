@@ -0,0 +1,231 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+import org.oplauncher.OPLauncherException;
+import org.oplauncher.op.reflection.AppletMethodProxy;
+import org.oplauncher.runtime.secur.PayloadParserSecurityHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.oplauncher.ErrorCode.*;
+import static org.oplauncher.IConstants.*;
+
+/**
+ * <p>Executes the operations of a batch. The operations are grouped by applet: the groups run in parallel, and the
+ * operations of a group run one after the other, in the order of the batch. Secure payloads are deciphered once,
+ * up front, and routed as plain payloads.</p>
+ */
+public class OPBatchProcessor<P extends OPPayload> {
+    static private final Logger LOGGER = LogManager.getLogger(OPBatchProcessor.class);
+    static private final ExecutorService EXECUTOR = newExecutor();
+
+    public OPBatchProcessor(OPServer<P> opserver) {
+        _opserver = opserver;
+    }
+
+    static private ExecutorService newExecutor() {
+        final AtomicInteger kCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread t = new Thread(r, "oplauncher-op-batch-" + kCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public OPBatchResponse process(String json) throws OPLauncherException {
+        try {
+            return process(OPJsonCodec.readBatchPayload(json));
+        }
+        catch (IOException e) {
+            throw new OPLauncherException("Invalid batch payload: " + e.getMessage(), INVALID_BATCH_PAYLOAD);
+        }
+    }
+
+    public OPBatchResponse process(JsonNode root) throws OPLauncherException {
+        try {
+            return process(OPJsonCodec.readBatchPayload(root));
+        }
+        catch (IOException e) {
+            throw new OPLauncherException("Invalid batch payload: " + e.getMessage(), INVALID_BATCH_PAYLOAD);
+        }
+    }
+
+    public OPBatchResponse process(OPBatchPayload batch) throws OPLauncherException {
+        final long kStartTime = System.nanoTime();
+
+        if (batch.size() == 0) {
+            throw new OPLauncherException("Empty batch payload", INVALID_BATCH_PAYLOAD);
+        }
+        if (batch.size() > ConfigurationHelper.getOPBatchMaxSize()) {
+            throw new OPLauncherException(String.format("Batch with %d operations exceeds the max size of %d", batch.size(),
+                                                        ConfigurationHelper.getOPBatchMaxSize()), INVALID_BATCH_PAYLOAD);
+        }
+
+        final OPResponse[] kResults = new OPResponse[batch.size()];
+        Map<String, List<BatchOperation>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            BatchOperation operation = prepare(i, batch.getOperations().get(i), kResults);
+            if (operation != null) {
+                groups.computeIfAbsent(operation._appletName, name -> new ArrayList<>()).add(operation);
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<>(groups.size());
+        boolean finished = true;
+        ///  A single applet does not need the hand off
+        if (groups.size() == 1) {
+            runGroup(groups.values().iterator().next(), kResults);
+        }
+        else if (!groups.isEmpty()) {
+            groups.values().forEach(group -> futures.add(EXECUTOR.submit(() -> runGroup(group, kResults))));
+            finished = awaitGroups(futures, kStartTime);
+        }
+
+        ///  The response is a copy taken before cancelling, a cancelled group writing its result late doesn't change it
+        OPResponse[] results = complete(kResults);
+        if (!finished) {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Batch of {} operation(s) for {} applet(s) processed in {} us", results.length, groups.size(),
+                        (System.nanoTime() - kStartTime) / 1_000L);
+        }
+        return new OPBatchResponse(results);
+    }
+
+    /**
+     * Waits for the applet groups, within the OP call timeout of the batch
+     * @return false if the groups did not finish in time (or the wait was interrupted), they must be cancelled
+     */
+    private boolean awaitGroups(List<Future<?>> futures, final long startTime) {
+        final long kTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(ConfigurationHelper.getOPCallTimeoutMillis());
+        for (Future<?> future : futures) {
+            try {
+                if (kTimeoutNanos > 0) {
+                    future.get(Math.max(0, kTimeoutNanos - (System.nanoTime() - startTime)), TimeUnit.NANOSECONDS);
+                }
+                else {
+                    future.get();
+                }
+            }
+            catch (TimeoutException e) {
+                LOGGER.warn("Batch operations not finished after {} ms, the remaining ones are cancelled", TimeUnit.NANOSECONDS.toMillis(kTimeoutNanos));
+                return false;
+            }
+            catch (InterruptedException e) {
+                LOGGER.warn("Interrupted while waiting for the batch operations, the remaining ones are cancelled");
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            catch (ExecutionException e) {
+                LOGGER.error("Failed waiting for the batch operations", e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Copy of the results with a failure in the slots of the operations that didn't finish, so the response always
+     * holds one result per operation, in the batch order
+     */
+    private OPResponse[] complete(OPResponse[] results) {
+        OPResponse[] completed = results.clone();
+        for (int i = 0; i < completed.length; i++) {
+            if (completed[i] == null) {
+                completed[i] = OPResponse.failure(new OPLauncherException("The batch operation did not finish and was cancelled",
+                                                                          METHOD_CALL_CANCELLED), METHOD_CALL_CANCELLED);
+            }
+        }
+
+        return completed;
+    }
+
+    /**
+     * Parses (and deciphers) one operation of the batch. Returns null when the operation already failed
+     */
+    @SuppressWarnings("unchecked")
+    private BatchOperation prepare(int index, JsonNode node, OPResponse[] results) {
+        OPPayload payload = null;
+        try {
+            BatchOperation operation = new BatchOperation();
+            operation._index = index;
+
+            if (ConfigurationHelper.isSecurePayloadActive()) {
+                payload = OPJsonCodec.readSecurePayload(node);
+                OPPlainPayload plain = PayloadParserSecurityHelper.decodeSecuredPayload(new OPMessage<>(payload));
+
+                operation._syncResponse = ((OPSecurePayload) payload).isSyncedResponse();
+                operation._payload = plain;
+            }
+            else {
+                payload = OPJsonCodec.readPlainPayload(node);
+                operation._payload = (OPPlainPayload) payload;
+            }
+            operation._appletName = String.valueOf(operation._payload.getAppletName());
+
+            return operation;
+        }
+        catch (Exception e) {
+            results[index] = fail(payload, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runGroup(List<BatchOperation> group, OPResponse[] results) {
+        for (BatchOperation operation : group) {
+            try {
+                OPMessage<OPPlainPayload> message = new OPMessage<>(operation._payload);
+                if (operation._syncResponse) {
+                    results[operation._index] = new AppletMethodProxy<>(message, null).invoke();
+                }
+                else {
+                    _opserver.triggerSuccessCallbacks((OPMessage<P>) message);
+                    results[operation._index] = new OPResponse(SUCCESS_RESPONSE, true, NO_PROP_CODE);
+                }
+            }
+            catch (Exception e) {
+                results[operation._index] = fail(operation._payload, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private OPResponse fail(OPPayload payload, Exception e) {
+        LOGGER.error("Failed while processing the batch operation", e);
+
+        OPMessage<OPPayload> message = new OPMessage<>(payload);
+        message.setError().setErrorDetails(e);
+        message.setErrorCode((e instanceof OPLauncherException) ? ((OPLauncherException) e).getErrorCode() : APPLET_EXECUTION_ERROR);
+        _opserver.triggerErrorCallbacks((OPMessage<P>) message);
+
+        return new OPResponse(e.getMessage(), false, message.getErrorType().code());
+    }
+
+    static private class BatchOperation {
+        // class properties
+        private int _index;
+        private String _appletName;
+        private OPPlainPayload _payload;
+        private boolean _syncResponse;
+    }
+
+    // class properties
+    private OPServer<P> _opserver;
+}
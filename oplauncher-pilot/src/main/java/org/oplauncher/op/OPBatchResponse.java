@@ -0,0 +1,33 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Results of a batch, in the same order of the operations in the request
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OPBatchResponse {
+
+    public OPBatchResponse(OPResponse[] results) {
+        _results = Arrays.asList(results);
+        _success = _results.stream().allMatch(OPResponse::isSuccess);
+    }
+
+    public boolean isSuccess() {
+        return _success;
+    }
+
+    public List<OPResponse> getResults() {
+        return _results;
+    }
+
+    // class properties
+    @JsonProperty("succeed")
+    private boolean _success;
+    @JsonProperty("results")
+    private List<OPResponse> _results;
+}
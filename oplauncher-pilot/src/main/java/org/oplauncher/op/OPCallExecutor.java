@@ -0,0 +1,159 @@
+package org.oplauncher.op;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+import org.oplauncher.OPLauncherException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.oplauncher.ErrorCode.APPLET_EXECUTION_ERROR;
+import static org.oplauncher.ErrorCode.METHOD_CALL_CANCELLED;
+
+/**
+ * <p>Runs the synchronous OP calls (applet method calls, batches) away from the OP server threads, so a slow applet
+ * method doesn't stall the I/O reactor and the other connections it serves. The pool and its queue are bounded: a
+ * call that doesn't fit in the queue is rejected, and a call not finished in time is cancelled. Either way the
+ * failure callback gets an {@link OPLauncherException} with the {@link org.oplauncher.ErrorCode#METHOD_CALL_CANCELLED}
+ * code.</p>
+ */
+public class OPCallExecutor {
+    static private final Logger LOGGER = LogManager.getLogger(OPCallExecutor.class);
+    static private final OPCallExecutor instance = new OPCallExecutor(ConfigurationHelper.getOPCallThreads(),
+                                                                      ConfigurationHelper.getOPCallQueueSize());
+
+    protected OPCallExecutor(int threads, int queueSize) {
+        final AtomicInteger kCount = new AtomicInteger();
+        _executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread t = new Thread(r, "oplauncher-op-call-" + kCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        _executor.allowCoreThreadTimeOut(true);
+
+        _timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "oplauncher-op-call-timer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        _submitted = new AtomicLong();
+        _completed = new AtomicLong();
+        _timedOut = new AtomicLong();
+        _rejected = new AtomicLong();
+        _maxQueueDepth = new AtomicInteger();
+    }
+
+    static public final OPCallExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Queues the call. Exactly one of the callbacks is called, from the thread that ran the call (or from the timer
+     * thread on timeouts, or right away when the call is rejected)
+     * @param call          the call to run
+     * @param timeoutMillis max time (queued plus running) for the call, zero means no timeout
+     * @param onSuccess     receives the result of the call
+     * @param onFailure     receives the failure, the cancellation or the rejection of the call
+     * @return the future of the call, to cancel it (i.e., the client went away)
+     */
+    public <T>Future<?> submit(final Callable<T> call, final long timeoutMillis,
+                               final Consumer<T> onSuccess, final Consumer<OPLauncherException> onFailure) {
+        final AtomicBoolean kDone = new AtomicBoolean(false);
+        ///  A timer finding the call done is a no-op, the cancel only saves the timer slot
+        final AtomicReference<ScheduledFuture<?>> kTimeout = new AtomicReference<>();
+
+        Future<?> future;
+        try {
+            future = _executor.submit(() -> {
+                T result;
+                try {
+                    result = call.call();
+                }
+                catch (Exception e) {
+                    if (kDone.compareAndSet(false, true)) {
+                        cancelTimeout(kTimeout);
+                        onFailure.accept((e instanceof OPLauncherException) ? (OPLauncherException) e : new OPLauncherException(e, APPLET_EXECUTION_ERROR));
+                    }
+                    return;
+                }
+                finally {
+                    _completed.incrementAndGet();
+                }
+
+                if (kDone.compareAndSet(false, true)) {
+                    cancelTimeout(kTimeout);
+                    onSuccess.accept(result);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            _rejected.incrementAndGet();
+            LOGGER.warn("OP call rejected, the queue is full. {}", getStatistics());
+            onFailure.accept(new OPLauncherException("Too many pending calls, the call was rejected", METHOD_CALL_CANCELLED));
+
+            return CompletableFuture.completedFuture(null);
+        }
+
+        _submitted.incrementAndGet();
+        _maxQueueDepth.accumulateAndGet(getQueueDepth(), Math::max);
+
+        if (timeoutMillis > 0) {
+            final Future<?> kFuture = future;
+            kTimeout.set(_timer.schedule(() -> {
+                if (kDone.compareAndSet(false, true)) {
+                    kFuture.cancel(true);
+                    _timedOut.incrementAndGet();
+                    LOGGER.warn("OP call cancelled, not finished after {} ms", timeoutMillis);
+                    onFailure.accept(new OPLauncherException(String.format("The call did not finish in %d ms and was cancelled", timeoutMillis),
+                                                             METHOD_CALL_CANCELLED));
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS));
+        }
+
+        return future;
+    }
+
+    static private void cancelTimeout(AtomicReference<ScheduledFuture<?>> timeout) {
+        ScheduledFuture<?> future = timeout.get();
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    public int getQueueDepth() {
+        return _executor.getQueue().size();
+    }
+    public int getMaxQueueDepth() {
+        return _maxQueueDepth.get();
+    }
+    public int getActiveCount() {
+        return _executor.getActiveCount();
+    }
+    public long getTimedOutCount() {
+        return _timedOut.get();
+    }
+    public long getRejectedCount() {
+        return _rejected.get();
+    }
+
+    public String getStatistics() {
+        return String.format("queue depth (now/max): %d/%d, active: %d, submitted/completed: %d/%d, timed out: %d, rejected: %d",
+                             getQueueDepth(), getMaxQueueDepth(), getActiveCount(), _submitted.get(), _completed.get(),
+                             getTimedOutCount(), getRejectedCount());
+    }
+
+    // class properties
+    private ThreadPoolExecutor _executor;
+    private ScheduledExecutorService _timer;
+    private AtomicLong _submitted;
+    private AtomicLong _completed;
+    private AtomicLong _timedOut;
+    private AtomicLong _rejected;
+    private AtomicInteger _maxQueueDepth;
+}
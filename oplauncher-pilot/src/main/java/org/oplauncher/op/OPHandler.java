@@ -2,7 +2,7 @@ package org.oplauncher.op;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.*;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.nio.NHttpServerConnection;
 import org.apache.http.nio.protocol.*;
 import org.apache.http.protocol.HttpContext;
@@ -25,7 +25,6 @@ public abstract class OPHandler<P extends OPPayload> implements HttpAsyncRequest
 
     public OPHandler(HttpOPServer<P> opserv) {
         _opserver = opserv;
-        _objectMapper = new ObjectMapper();
     }
 
     protected void _VALIDATE_REQUEST_(HttpRequest request) throws OPLauncherException {
@@ -60,20 +59,31 @@ public abstract class OPHandler<P extends OPPayload> implements HttpAsyncRequest
     }
 
     protected void processResponse(OPResponse opresp, HttpAsyncExchange httpExchange) throws OPLauncherException {
+        processResponse(opresp, opresp.isSuccess(), httpExchange);
+    }
+
+    /**
+     * The batch response always goes with HTTP 200, the outcome of each operation is in its own result
+     */
+    protected void processResponse(OPBatchResponse opresp, HttpAsyncExchange httpExchange) throws OPLauncherException {
+        processResponse(opresp, true, httpExchange);
+    }
+
+    private void processResponse(Object opresp, boolean success, HttpAsyncExchange httpExchange) throws OPLauncherException {
         HttpResponse response = httpExchange.getResponse();
 
         try {
-            String responseJson = getJSONObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(opresp);
+            ByteArrayEntity responseJson = new ByteArrayEntity(OPJsonCodec.writeValueAsBytes(opresp), APPLICATION_JSON);
 
             // Send a response based on the type (error or not)
-            if (opresp.isSuccess()) {
+            if (success) {
                 response.setStatusCode(HttpStatus.SC_OK);
-                response.setEntity(new StringEntity(responseJson, APPLICATION_JSON));
+                response.setEntity(responseJson);
             }
             // error processing
             else {
                 response.setStatusCode(HttpStatus.SC_BAD_REQUEST);
-                response.setEntity(new StringEntity(responseJson, APPLICATION_JSON));
+                response.setEntity(responseJson);
             }
 
             httpExchange.submitResponse(new BasicAsyncResponseProducer(response));
@@ -108,10 +118,9 @@ public abstract class OPHandler<P extends OPPayload> implements HttpAsyncRequest
     }
 
     public ObjectMapper getJSONObjectMapper() {
-        return _objectMapper;
+        return OPJsonCodec.getMapper();
     }
 
     // class properties
     private HttpOPServer<P> _opserver;
-    private ObjectMapper _objectMapper;
 }
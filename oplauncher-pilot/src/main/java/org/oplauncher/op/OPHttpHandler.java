@@ -11,6 +11,9 @@ import org.oplauncher.OPLauncherException;
 import org.oplauncher.op.reflection.AppletMethodProxy;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import static org.oplauncher.ErrorCode.*;
 import static org.oplauncher.IConstants.*;
@@ -24,6 +27,7 @@ public class OPHttpHandler<P extends OPPayload> extends OPHandler<P> {
     @Override
     @SuppressWarnings("unchecked")
     public void handle(HttpRequest request, HttpAsyncExchange httpExchange, HttpContext httpContext) throws IOException {
+        final long kStartTime = System.nanoTime();
         OPPayload payload = null;
 
         try {
@@ -44,8 +48,15 @@ public class OPHttpHandler<P extends OPPayload> extends OPHandler<P> {
                     LOGGER.info("Parsing the JSON message");
                 }
 
+                ///  N operations in one request, N ordered results back
+                if (OPJsonCodec.kindOf(json) == OPJsonCodec.PayloadKind.BATCH) {
+                    final OPBatchProcessor<P> kProcessor = new OPBatchProcessor<>(getOpServerRef());
+                    submitCall(() -> kProcessor.process(json), batchResponse -> processResponse(batchResponse, httpExchange), httpExchange, kStartTime);
+                    return;
+                }
+
                 if (ConfigurationHelper.isSecurePayloadActive()) {
-                    payload = getJSONObjectMapper().readValue(json, OPSecurePayload.class);
+                    payload = OPJsonCodec.readSecurePayload(json);
                     OPMessage<OPSecurePayload> message = new OPMessage<>((OPSecurePayload) payload);
 
                     ///  trigger the execution of all registered observables for new requests based on async/sync config
@@ -54,22 +65,14 @@ public class OPHttpHandler<P extends OPPayload> extends OPHandler<P> {
                     }
                     // Synchronous processing ... TODO: only supports remote method calls!
                     else {
-                        try {
-                            AppletMethodProxy<OPSecurePayload> proxy = new AppletMethodProxy<>(message, (OPHandler<OPSecurePayload>) this);
-                            response = proxy.invoke();
-                        }
-                        catch (Exception e) {
-                            LOGGER.error("Failed to invoke the Applet method", e);
-                            response.setUnsuccess()
-                                    .setMessage(e.getMessage())
-                                    .setErrorCode((e instanceof OPLauncherException) ?
-                                                    ((OPLauncherException) e).getErrorCode().code() :
-                                                    APPLET_EXECUTION_ERROR.code());
-                        }
+                        ///  The applet method runs on the call executor, the response is submitted when it returns
+                        final AppletMethodProxy<OPSecurePayload> kProxy = new AppletMethodProxy<>(message, (OPHandler<OPSecurePayload>) this);
+                        submitCall(kProxy::invoke, methodResponse -> processResponse(methodResponse, httpExchange), httpExchange, kStartTime);
+                        return;
                     }
                 }
                 else {
-                    payload = getJSONObjectMapper().readValue(json, OPPlainPayload.class);
+                    payload = OPJsonCodec.readPlainPayload(json);
                     OPMessage<OPPlainPayload> message = new OPMessage<>((OPPlainPayload) payload);
                     ///  trigger the execution of all registered observables for new requests
                     getOpServerRef().triggerSuccessCallbacks((OPMessage<P>) message);
@@ -77,6 +80,7 @@ public class OPHttpHandler<P extends OPPayload> extends OPHandler<P> {
 
                 // process the response
                 processResponse(response, httpExchange);
+                getOpServerRef().recordProcessingTime(System.nanoTime() - kStartTime);
             }
             ///  Problems on the Horizon...
             else {
@@ -101,6 +105,24 @@ public class OPHttpHandler<P extends OPPayload> extends OPHandler<P> {
             OPResponse response = new OPResponse(e.getMessage(), false, message.getErrorType().code());
             // Send the error response back to chrome
             processResponse(response, httpExchange);
+            getOpServerRef().recordProcessingTime(System.nanoTime() - kStartTime);
         }
     }
+
+    /**
+     * Runs the call off the reactor thread. The exchange stays open until the call returns, fails or times out, and
+     * a client going away cancels the call. The processing time of the message is accounted when the response is
+     * submitted
+     */
+    private <T>void submitCall(Callable<T> call, Consumer<T> onSuccess, HttpAsyncExchange httpExchange, final long startTime) {
+        final Future<?> kFuture = OPCallExecutor.getInstance().submit(call, ConfigurationHelper.getOPCallTimeoutMillis(), result -> {
+            onSuccess.accept(result);
+            getOpServerRef().recordProcessingTime(System.nanoTime() - startTime);
+        }, e -> {
+            LOGGER.error("Failed to run the synchronous OP call", e);
+            processResponse(OPResponse.failure(e, APPLET_EXECUTION_ERROR), httpExchange);
+            getOpServerRef().recordProcessingTime(System.nanoTime() - startTime);
+        });
+        httpExchange.setCallback(() -> kFuture.cancel(true));
+    }
 }
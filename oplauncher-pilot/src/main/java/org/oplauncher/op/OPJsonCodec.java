@@ -0,0 +1,104 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.*;
+import org.oplauncher.ConfigurationHelper;
+import org.oplauncher.OPLauncherException;
+
+import java.io.IOException;
+
+import static org.oplauncher.ErrorCode.JSON_PROTOCOL_ERROR;
+
+/**
+ * <p>Shared JSON readers and writers of the OP pipeline. The mapper is configured once and its readers/writers are
+ * immutable and thread-safe, so every message reuses them (and the serializers they keep) instead of building a
+ * mapper per message or per handler. Responses are compact unless
+ * {@link ConfigurationHelper#isOPJsonPrettyPrintActive()} is set.</p>
+ * <p>The payloads are bound straight from the message text. {@link #kindOf(String)} looks at the top level field
+ * names only, skipping their values without building them, to tell a single payload from a batch or a WebSocket
+ * envelope; only those two keep a JSON tree of their operations.</p>
+ */
+public class OPJsonCodec {
+    public enum PayloadKind {
+        SINGLE,
+        BATCH,
+        ENVELOPE
+    }
+
+    static public final String FIELD_ENVELOPE_MESSAGE = "message";
+
+    static private final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(SerializationFeature.INDENT_OUTPUT, false);
+    static private final JsonFactory FACTORY = MAPPER.getFactory();
+
+    static private final ObjectReader PLAIN_PAYLOAD_READER = MAPPER.readerFor(OPPlainPayload.class);
+    static private final ObjectReader SECURE_PAYLOAD_READER = MAPPER.readerFor(OPSecurePayload.class);
+    static private final ObjectReader BATCH_PAYLOAD_READER = MAPPER.readerFor(OPBatchPayload.class);
+    static private final ObjectReader ENVELOPE_READER = MAPPER.readerFor(OPWebSocketMessage.class);
+    static private final ObjectWriter WRITER = ConfigurationHelper.isOPJsonPrettyPrintActive() ?
+                                                    MAPPER.writerWithDefaultPrettyPrinter() :
+                                                    MAPPER.writer();
+
+    private OPJsonCodec() {}
+
+    /**
+     * Tells what the message is from its top level field names, without binding it
+     * @throws OPLauncherException if the message is not a JSON object
+     */
+    static public final PayloadKind kindOf(String json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new OPLauncherException("Invalid format. Expected JSON payload", JSON_PROTOCOL_ERROR);
+            }
+
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                if (OPBatchPayload.FIELD_BATCH.equals(field)) return PayloadKind.BATCH;
+                if (FIELD_ENVELOPE_MESSAGE.equals(field)) return PayloadKind.ENVELOPE;
+
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+
+        return PayloadKind.SINGLE;
+    }
+
+    static public final OPPlainPayload readPlainPayload(String json) throws IOException {
+        return PLAIN_PAYLOAD_READER.readValue(json);
+    }
+    static public final OPPlainPayload readPlainPayload(JsonNode node) throws IOException {
+        return PLAIN_PAYLOAD_READER.readValue(node);
+    }
+
+    static public final OPSecurePayload readSecurePayload(String json) throws IOException {
+        return SECURE_PAYLOAD_READER.readValue(json);
+    }
+    static public final OPSecurePayload readSecurePayload(JsonNode node) throws IOException {
+        return SECURE_PAYLOAD_READER.readValue(node);
+    }
+
+    static public final OPBatchPayload readBatchPayload(String json) throws IOException {
+        return BATCH_PAYLOAD_READER.readValue(json);
+    }
+    static public final OPBatchPayload readBatchPayload(JsonNode node) throws IOException {
+        return BATCH_PAYLOAD_READER.readValue(node);
+    }
+
+    static public final OPWebSocketMessage readEnvelope(String json) throws IOException {
+        return ENVELOPE_READER.readValue(json);
+    }
+
+    static public final String writeValueAsString(Object value) throws IOException {
+        return WRITER.writeValueAsString(value);
+    }
+    static public final byte[] writeValueAsBytes(Object value) throws IOException {
+        return WRITER.writeValueAsBytes(value);
+    }
+
+    static public final ObjectMapper getMapper() {
+        return MAPPER;
+    }
+}
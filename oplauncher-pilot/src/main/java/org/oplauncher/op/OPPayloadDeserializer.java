@@ -3,10 +3,8 @@ package org.oplauncher.op;
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -32,8 +30,21 @@ public class OPPayloadDeserializer extends JsonDeserializer<List<String>> {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("(deserialize) JSON parameter is an array, parsing it...");
             }
-            ObjectMapper mapper = (ObjectMapper) jsonParser.getCodec();
-            return mapper.readValue(jsonParser, new TypeReference<List<String>>() {});
+            ///  Straight from the tokens, no intermediate tree or type lookup
+            List<String> parameters = new ArrayList<>();
+            for (token = jsonParser.nextToken(); token != null && token != JsonToken.END_ARRAY; token = jsonParser.nextToken()) {
+                if (token == JsonToken.VALUE_NULL) {
+                    parameters.add(null);
+                }
+                else if (token.isScalarValue()) {
+                    parameters.add(jsonParser.getValueAsString());
+                }
+                // nested objects/arrays are passed as their JSON text
+                else {
+                    parameters.add(jsonParser.readValueAsTree().toString());
+                }
+            }
+            return parameters;
         }
 
         // If params is a single string, split it
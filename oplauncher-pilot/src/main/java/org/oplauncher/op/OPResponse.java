@@ -2,6 +2,8 @@ package org.oplauncher.op;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.oplauncher.ErrorCode;
+import org.oplauncher.OPLauncherException;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class OPResponse {
@@ -12,6 +14,15 @@ public class OPResponse {
         _errorCode = rc;
     }
 
+    /**
+     * Response of a failed call, with the error code of the exception when there is one
+     */
+    static public OPResponse failure(Exception e, ErrorCode defaultCode) {
+        return new OPResponse(e.getMessage(), false, (e instanceof OPLauncherException) ?
+                                                        ((OPLauncherException) e).getErrorCode().code() :
+                                                        defaultCode.code());
+    }
+
     public String getMessage() {
         return _message;
     }
@@ -1,12 +1,31 @@
 package org.oplauncher.op;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.oplauncher.OPLauncherException;
+import org.oplauncher.runtime.secur.PayloadParserSecurityHelper;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>OP server shared by all the applet controllers of the process. The controllers don't own a server, they
+ * register a route (success/failure callbacks) keyed by the applet name, and the server dispatches every message to
+ * the route of the applet named in the payload. Messages for an applet without a route (i.e., a new applet being
+ * loaded) go to the first registered route.</p>
+ */
 public abstract class OPServer<P extends OPPayload> {
+    static private final Logger LOGGER = LogManager.getLogger(OPServer.class);
 
     protected OPServer(String host, int port) {
         _host = host;
         _port = port;
+        _routes = Collections.synchronizedMap(new LinkedHashMap<>());
+        _messageCount = new AtomicLong();
+        _processingNanos = new AtomicLong();
+        _maxProcessingNanos = new AtomicLong();
     }
 
     public abstract OPServer<P> startOPServer() throws OPLauncherException;
@@ -16,6 +35,124 @@ public abstract class OPServer<P extends OPPayload> {
     public abstract OPServer<P> registerSuccessCallback(final OPCallback<P> callback);
     public abstract OPServer<P> registerFailureCallback(final OPCallback<P> callback);
 
+    protected abstract OPServer<P> triggerSuccessCallbacks(OPMessage<P> message);
+    protected abstract OPServer<P> triggerErrorCallbacks(OPMessage<P> message);
+
+    public OPServer<P> registerRoute(final String appletName, final OPCallback<P> successcb, final OPCallback<P> failcb) {
+        _routes.put(appletName, new OPRoute<>(successcb, failcb));
+
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("+++ OP route registered for the applet: {}. Total of routes: {}", appletName, _routes.size());
+        }
+        return this;
+    }
+
+    public OPServer<P> unregisterRoute(final String appletName) {
+        if (_routes.remove(appletName) != null && LOGGER.isInfoEnabled()) {
+            LOGGER.info("--- OP route unregistered for the applet: {}. Total of routes: {}", appletName, _routes.size());
+        }
+        return this;
+    }
+
+    /**
+     * Pushes an event to the connected clients. Only servers keeping a connection open can push, for the others
+     * this is a no-op
+     */
+    public OPServer<P> push(final String event, final OPResponse response) {
+        return this;
+    }
+
+    public boolean hasRoutes() {
+        return !_routes.isEmpty();
+    }
+
+    public int getRouteCount() {
+        return _routes.size();
+    }
+
+    protected OPRoute<P> resolveRoute(final String appletName) {
+        synchronized (_routes) {
+            OPRoute<P> route = appletName != null ? _routes.get(appletName) : null;
+            if (route == null && !_routes.isEmpty()) {
+                ///  No controller for this applet (yet), the default route handles it
+                route = _routes.values().iterator().next();
+            }
+
+            return route;
+        }
+    }
+
+    /**
+     * Dispatches the message to the route of its applet. Secure payloads are deciphered here, so the route receives
+     * the plain payload
+     */
+    @SuppressWarnings("unchecked")
+    protected OPServer<P> routeSuccessMessage(OPMessage<P> message) {
+        OPMessage<P> routed = message;
+        String appletName = null;
+
+        if (message.getPayload() instanceof OPSecurePayload) {
+            OPPlainPayload payload = PayloadParserSecurityHelper.decodeSecuredPayload(message);
+            routed = (OPMessage<P>) new OPMessage<>(payload);
+            appletName = payload.getAppletName();
+        }
+        else if (message.getPayload() instanceof OPPlainPayload) {
+            appletName = ((OPPlainPayload) message.getPayload()).getAppletName();
+        }
+
+        OPRoute<P> route = resolveRoute(appletName);
+        if (route != null && route.getSuccessCallback() != null) {
+            route.getSuccessCallback().call(routed);
+        }
+        else {
+            LOGGER.warn("No OP route available for the applet: {}. The message was ignored", appletName);
+        }
+
+        return this;
+    }
+
+    protected OPServer<P> routeFailureMessage(OPMessage<P> message) {
+        String appletName = message.getPayload() instanceof OPPlainPayload ? ((OPPlainPayload) message.getPayload()).getAppletName() : null;
+
+        OPRoute<P> route = resolveRoute(appletName);
+        if (route != null && route.getFailureCallback() != null) {
+            route.getFailureCallback().call(message);
+        }
+
+        return this;
+    }
+
+    /**
+     * Accounts one processed message, from its reception to the submission of its response
+     */
+    protected void recordProcessingTime(long nanos) {
+        _messageCount.incrementAndGet();
+        _processingNanos.addAndGet(nanos);
+        _maxProcessingNanos.accumulateAndGet(nanos, Math::max);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("(recordProcessingTime) {} message processed in {} us", getClass().getSimpleName(), nanos / 1_000L);
+        }
+    }
+
+    public long getMessageCount() {
+        return _messageCount.get();
+    }
+
+    public long getAverageProcessingMicros() {
+        long count = _messageCount.get();
+        return count > 0 ? (_processingNanos.get() / count) / 1_000L : 0L;
+    }
+
+    public long getMaxProcessingMicros() {
+        return _maxProcessingNanos.get() / 1_000L;
+    }
+
+    public String getStatistics() {
+        return String.format("%s messages: %d, processing time avg/max: %d/%d us", getClass().getSimpleName(),
+                getMessageCount(), getAverageProcessingMicros(), getMaxProcessingMicros());
+    }
+
     public int getPort() {
         return _port;
     }
@@ -23,7 +160,30 @@ public abstract class OPServer<P extends OPPayload> {
         return _host;
     }
 
+    static protected class OPRoute<P extends OPPayload> {
+        protected OPRoute(OPCallback<P> successcb, OPCallback<P> failcb) {
+            _successCallback = successcb;
+            _failureCallback = failcb;
+        }
+
+        public OPCallback<P> getSuccessCallback() {
+            return _successCallback;
+        }
+        public OPCallback<P> getFailureCallback() {
+            return _failureCallback;
+        }
+
+        // class properties
+        private OPCallback<P> _successCallback;
+        private OPCallback<P> _failureCallback;
+    }
+
     // class properties
     private String _host;
     private int _port;
+    private Map<String, OPRoute<P>> _routes;
+
+    private AtomicLong _messageCount;
+    private AtomicLong _processingNanos;
+    private AtomicLong _maxProcessingNanos;
 }
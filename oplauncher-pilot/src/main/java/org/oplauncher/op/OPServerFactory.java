@@ -14,27 +14,56 @@ public class OPServerFactory {
     static private final Logger LOGGER = LogManager.getLogger(OPServerFactory.class);
     static private final Lock LOCK = new ReentrantLock();
 
+    static private OPServer _sharedServer;
 
-    static public final OPServer newServer(OPCallback successcb, OPCallback failcb) {
+    /**
+     * Returns the OP server of the process, creating it on the first call. The applet controllers register their
+     * routes on it instead of creating their own server (and I/O reactor)
+     */
+    @SuppressWarnings("unchecked")
+    static public final <P extends OPPayload>OPServer<P> getSharedServer() {
         LOCK.lock();
         try {
-            OPServerType type = ConfigurationHelper.getOPServerType();
-            String ipAddress = ConfigurationHelper.getOPServerAddress();
-            int port = ConfigurationHelper.getOPServerPort();
-
-            switch (type) {
-                case HTTP: {
-                    return new HttpOPServer(ipAddress, port)
-                            .registerSuccessCallback(successcb)
-                            .registerFailureCallback(failcb);
-                }
-                default: {
-                    throw new OPLauncherException("Unknown or unsupported OP server type: " + type, OPSERVER_NOT_AVAILABLE);
-                }
+            if (_sharedServer == null) {
+                _sharedServer = newServer();
+                LOGGER.info("Shared OP server created for {}:{}", _sharedServer.getHost(), _sharedServer.getPort());
             }
+
+            return _sharedServer;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Statistics of the shared OP server, without creating it when no controller asked for it yet
+     */
+    static public final String getSharedServerStatistics() {
+        LOCK.lock();
+        try {
+            return _sharedServer != null ? _sharedServer.getStatistics() : "no OP server created";
         }
         finally {
             LOCK.unlock();
         }
     }
+
+    static private OPServer newServer() {
+        OPServerType type = ConfigurationHelper.getOPServerType();
+        String ipAddress = ConfigurationHelper.getOPServerAddress();
+        int port = ConfigurationHelper.getOPServerPort();
+
+        switch (type) {
+            case HTTP: {
+                return new HttpOPServer(ipAddress, port);
+            }
+            case WEBSOCKET: {
+                return new WebSocket2OPServer(ipAddress, port);
+            }
+            default: {
+                throw new OPLauncherException("Unknown or unsupported OP server type: " + type, OPSERVER_NOT_AVAILABLE);
+            }
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * <p>Envelope of the messages exchanged through the WebSocket OP channel. The client sends the same JSON payload
+ * of the HTTP OP server (plain or secure) in <code>message</code>, with a sequence number used to match the
+ * response. The server answers with a <code>response</code> envelope (same sequence number, with the ordered
+ * results in <code>batch</code> when the message is a batch of operations), or pushes
+ * <code>push</code> envelopes (status, return data) at any time.</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OPWebSocketMessage {
+    static public final String KIND_RESPONSE = "response";
+    static public final String KIND_PUSH = "push";
+
+    public OPWebSocketMessage() {}
+
+    static public OPWebSocketMessage response(long seq, OPResponse response) {
+        OPWebSocketMessage message = new OPWebSocketMessage();
+        message._seq = seq;
+        message._kind = KIND_RESPONSE;
+        message._response = response;
+
+        return message;
+    }
+
+    static public OPWebSocketMessage response(long seq, OPBatchResponse batch) {
+        OPWebSocketMessage message = new OPWebSocketMessage();
+        message._seq = seq;
+        message._kind = KIND_RESPONSE;
+        message._batch = batch;
+
+        return message;
+    }
+
+    static public OPWebSocketMessage push(String event, OPResponse response) {
+        OPWebSocketMessage message = new OPWebSocketMessage();
+        message._kind = KIND_PUSH;
+        message._event = event;
+        message._response = response;
+
+        return message;
+    }
+
+    public long getSeq() {
+        return _seq != null ? _seq : 0L;
+    }
+    public String getKind() {
+        return _kind;
+    }
+    public String getEvent() {
+        return _event;
+    }
+    public JsonNode getMessage() {
+        return _message;
+    }
+    public OPResponse getResponse() {
+        return _response;
+    }
+    public OPBatchResponse getBatch() {
+        return _batch;
+    }
+
+    // class properties
+    @JsonProperty("seq")
+    private Long _seq;
+    @JsonProperty("kind")
+    private String _kind;
+    @JsonProperty("event")
+    private String _event;
+    @JsonProperty("message")
+    private JsonNode _message;
+    @JsonProperty("response")
+    private OPResponse _response;
+    @JsonProperty("batch")
+    private OPBatchResponse _batch;
+}
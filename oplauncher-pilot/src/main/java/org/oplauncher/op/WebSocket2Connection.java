@@ -0,0 +1,198 @@
+package org.oplauncher.op;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.OPLauncherException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.oplauncher.ErrorCode.WEBSOCKET_PROTOCOL_ERROR;
+
+/**
+ * <p>Server side of a single WebSocket (RFC 6455) connection, after the handshake. Only what the OP channel needs
+ * is implemented: text messages (fragmented or not), ping/pong and the close handshake. Writes are serialized, so
+ * responses and server pushes can be sent from any thread.</p>
+ */
+public class WebSocket2Connection implements Closeable {
+    static private final Logger LOGGER = LogManager.getLogger(WebSocket2Connection.class);
+
+    static public final int OPCODE_CONTINUATION = 0x0;
+    static public final int OPCODE_TEXT = 0x1;
+    static public final int OPCODE_BINARY = 0x2;
+    static public final int OPCODE_CLOSE = 0x8;
+    static public final int OPCODE_PING = 0x9;
+    static public final int OPCODE_PONG = 0xA;
+
+    static public final int CLOSE_NORMAL = 1000;
+    static public final int CLOSE_PROTOCOL_ERROR = 1002;
+    static public final int CLOSE_TOO_BIG = 1009;
+
+    ///  OP payloads are small JSON documents
+    static public final int MAX_MESSAGE_SIZE = 1024 * 1024;
+
+    protected WebSocket2Connection(Socket socket, InputStream in, OutputStream out) {
+        _socket = socket;
+        _in = new DataInputStream(in);
+        _out = out;
+        _closed = new AtomicBoolean(false);
+    }
+
+    /**
+     * Reads the next text message, answering the control frames in the way. Returns null when the connection was
+     * closed by the peer
+     */
+    public String readMessage() throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        boolean inMessage = false;
+
+        while (true) {
+            int b0 = _in.read();
+            if (b0 < 0) return null;
+            int b1 = _in.readUnsignedByte();
+
+            boolean fin = (b0 & 0x80) != 0;
+            int opcode = b0 & 0x0F;
+            boolean masked = (b1 & 0x80) != 0;
+            long length = b1 & 0x7F;
+            if (length == 126) length = _in.readUnsignedShort();
+            else if (length == 127) length = _in.readLong();
+
+            if (!masked) {
+                close(CLOSE_PROTOCOL_ERROR, "Client frames must be masked");
+                throw new OPLauncherException("Unmasked frame received from the WebSocket client", WEBSOCKET_PROTOCOL_ERROR);
+            }
+            if (length < 0 || length + message.size() > MAX_MESSAGE_SIZE) {
+                close(CLOSE_TOO_BIG, "Message too big");
+                throw new OPLauncherException("WebSocket message exceeds the max size: " + length, WEBSOCKET_PROTOCOL_ERROR);
+            }
+
+            byte[] mask = new byte[4];
+            _in.readFully(mask);
+            byte[] data = new byte[(int) length];
+            _in.readFully(data);
+            for (int i = 0; i < data.length; i++) {
+                data[i] ^= mask[i & 0x3];
+            }
+
+            switch (opcode) {
+                case OPCODE_PING: {
+                    writeFrame(OPCODE_PONG, data);
+                    break;
+                }
+                case OPCODE_PONG: {
+                    break;
+                }
+                case OPCODE_CLOSE: {
+                    close(CLOSE_NORMAL, "");
+                    return null;
+                }
+                case OPCODE_TEXT:
+                case OPCODE_CONTINUATION: {
+                    if (opcode == OPCODE_CONTINUATION && !inMessage) {
+                        close(CLOSE_PROTOCOL_ERROR, "Unexpected continuation frame");
+                        throw new OPLauncherException("Unexpected WebSocket continuation frame", WEBSOCKET_PROTOCOL_ERROR);
+                    }
+                    inMessage = true;
+                    message.write(data);
+
+                    if (fin) {
+                        return new String(message.toByteArray(), StandardCharsets.UTF_8);
+                    }
+                    break;
+                }
+                default: {
+                    close(CLOSE_PROTOCOL_ERROR, "Unsupported frame type");
+                    throw new OPLauncherException("Unsupported WebSocket frame type: " + opcode, WEBSOCKET_PROTOCOL_ERROR);
+                }
+            }
+        }
+    }
+
+    public WebSocket2Connection sendText(String text) throws IOException {
+        writeFrame(OPCODE_TEXT, text.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    protected void writeFrame(int opcode, byte[] data) throws IOException {
+        if (_closed.get() && opcode != OPCODE_CLOSE) {
+            throw new EOFException("The WebSocket connection is closed");
+        }
+
+        byte[] header;
+        if (data.length < 126) {
+            header = new byte[]{(byte) (0x80 | opcode), (byte) data.length};
+        }
+        else if (data.length <= 0xFFFF) {
+            header = new byte[]{(byte) (0x80 | opcode), 126, (byte) (data.length >>> 8), (byte) data.length};
+        }
+        else {
+            header = new byte[10];
+            header[0] = (byte) (0x80 | opcode);
+            header[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                header[9 - i] = (byte) (((long) data.length) >>> (8 * i));
+            }
+        }
+
+        ///  Server frames are never masked
+        synchronized (_out) {
+            _out.write(header);
+            _out.write(data);
+            _out.flush();
+        }
+    }
+
+    public void close(int code, String reason) {
+        if (!_closed.compareAndSet(false, true)) return;
+
+        try {
+            byte[] reasonBytes = reason.getBytes(StandardCharsets.UTF_8);
+            byte[] data = new byte[2 + reasonBytes.length];
+            data[0] = (byte) (code >>> 8);
+            data[1] = (byte) code;
+            System.arraycopy(reasonBytes, 0, data, 2, reasonBytes.length);
+            writeFrame(OPCODE_CLOSE, data);
+        }
+        catch (IOException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("(close) Failed to send the close frame: {}", e.getMessage());
+            }
+        }
+        finally {
+            try {
+                _socket.close();
+            }
+            catch (IOException e) {
+                LOGGER.warn("Failed to close the WebSocket connection", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        close(CLOSE_NORMAL, "");
+    }
+
+    public boolean isOpen() {
+        return !_closed.get() && !_socket.isClosed();
+    }
+
+    public String getRemoteAddress() {
+        return _socket.getInetAddress() != null ? _socket.getInetAddress().getHostAddress() : "unknown";
+    }
+
+    // class properties
+    private Socket _socket;
+    private DataInputStream _in;
+    private OutputStream _out;
+    private AtomicBoolean _closed;
+}
@@ -1,39 +1,440 @@
 package org.oplauncher.op;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
 import org.oplauncher.OPLauncherException;
+import org.oplauncher.op.reflection.AppletMethodProxy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.oplauncher.ErrorCode.*;
+import static org.oplauncher.IConstants.*;
+
+/**
+ * <p>OP server over one long-lived WebSocket connection (RFC 6455) per client, instead of one HTTP POST per
+ * operation. The messages carry the same JSON payloads of the HTTP server ({@link OPPlainPayload} or
+ * {@link OPSecurePayload}) inside an {@link OPWebSocketMessage} envelope, and the server can push status and return
+ * data to the connected clients. The heartbeat context root is still answered as a plain HTTP GET, so the
+ * existing backend checks keep working.</p>
+ */
+public class WebSocket2OPServer<P extends OPPayload> extends OPServer<P> {
+    static private final Lock LOCK = new ReentrantLock();
+    static private final Logger LOGGER = LogManager.getLogger(WebSocket2OPServer.class);
+
+    static private final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    static private final String CHROME_EXT_ORIGIN = "chrome-extension://";
+    static private final String QUERY_PARAM_TOKEN = "tkn";
+    static private final int MAX_HANDSHAKE_SIZE = 8 * 1024;
+
+    private final AtomicBoolean SERVER_RUNNING_CONTROL = new AtomicBoolean(false);
 
-public class WebSocket2OPServer extends OPServer {
     protected WebSocket2OPServer(String host, int port) {
         super(host, port);
+
+        _successCallbacks = Collections.synchronizedList(new ArrayList<>());
+        _errorCallbacks   = Collections.synchronizedList(new ArrayList<>());
+        _connections      = new CopyOnWriteArraySet<>();
     }
 
-    // TODO: IMPLEMENT!
     @Override
-    public OPServer startOPServer() {
-        return null;
+    public OPServer<P> startOPServer() throws OPLauncherException {
+        LOCK.lock();
+        try {
+            ///  Shared by all the controllers, only the first start binds the port
+            if (isOPServerRunning()) return this;
+
+            _ctxroot = String.format("/%s", ConfigurationHelper.getOPServerContextRoot());
+            _hbroot = String.format("/%s", DEFAULT_HB_CTXROOT);
+            LOGGER.info("About to start the WebSocket OP server listening on {} => {}:{}", _ctxroot, getHost(), getPort());
+
+            _serverSocket = new ServerSocket();
+            _serverSocket.setReuseAddress(true);
+            _serverSocket.bind(new InetSocketAddress(InetAddress.getByName(getHost()), getPort()), DEFAULT_CONNECTION_BACKLOG);
+
+            final AtomicInteger threadCount = new AtomicInteger();
+            _connectionPool = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "oplauncher-ws2-conn-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            Thread acceptor = new Thread(this::acceptConnections, "oplauncher-ws2-acceptor");
+            acceptor.setDaemon(true);
+
+            SERVER_RUNNING_CONTROL.set(true);
+            acceptor.start();
+
+            LOGGER.info("WebSocket OP server started successfully on {}:{}", getHost(), getBoundPort());
+            return this;
+        }
+        catch (Exception e) {
+            throw new OPLauncherException(e, ERROR_LISTENING_OPSERVER);
+        }
+        finally {
+            LOCK.unlock();
+        }
     }
 
-    // TODO: IMPLEMENT!
     @Override
-    public OPServer stopOPServer() throws OPLauncherException {
-        return null;
+    public OPServer<P> stopOPServer() throws OPLauncherException {
+        LOCK.lock();
+        try {
+            LOGGER.warn("Stopping the WebSocket OP server listening on {}:{}", getHost(), getPort());
+            SERVER_RUNNING_CONTROL.set(false);
+
+            _connections.forEach(conn -> conn.close(WebSocket2Connection.CLOSE_NORMAL, "Server stopped"));
+            _connections.clear();
+            if (_serverSocket != null) {
+                _serverSocket.close();
+            }
+            if (_connectionPool != null) {
+                _connectionPool.shutdownNow();
+            }
+
+            LOGGER.warn("WebSocket OP server stopped successfully on {}:{}", getHost(), getPort());
+            return this;
+        }
+        catch (IOException e) {
+            throw new OPLauncherException(e, ERROR_LISTENING_OPSERVER);
+        }
+        finally {
+            LOCK.unlock();
+        }
     }
 
-    // TODO: IMPLEMENT!
     @Override
     public boolean isOPServerRunning() {
-        return false;
+        return SERVER_RUNNING_CONTROL.get();
+    }
+
+    private void acceptConnections() {
+        while (isOPServerRunning()) {
+            try {
+                Socket socket = _serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                socket.setKeepAlive(true);
+
+                _connectionPool.submit(() -> handleConnection(socket));
+            }
+            catch (SocketException e) {
+                if (isOPServerRunning()) LOGGER.error("The WebSocket OP server failed accepting connections", e);
+            }
+            catch (Exception e) {
+                LOGGER.error("The WebSocket OP server failed accepting a connection", e);
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        WebSocket2Connection conn = null;
+        try {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+            conn = handshake(socket, in, out);
+            if (conn == null) return;
+
+            _connections.add(conn);
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("WebSocket OP client connected /{}. Open connections: {}", conn.getRemoteAddress(), _connections.size());
+            }
+
+            String text;
+            while ((text = conn.readMessage()) != null) {
+                processMessage(conn, text);
+            }
+        }
+        catch (Exception e) {
+            if (isOPServerRunning()) {
+                LOGGER.warn("WebSocket OP connection terminated: {}", e.getMessage());
+            }
+        }
+        finally {
+            if (conn != null) {
+                _connections.remove(conn);
+                conn.close();
+            }
+            else {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    /**
+     * Reads the HTTP upgrade request. The heartbeat context root is answered right away as plain HTTP
+     */
+    private WebSocket2Connection handshake(Socket socket, InputStream in, OutputStream out) throws IOException {
+        List<String> lines = readHttpHeader(in);
+        if (lines.isEmpty()) return null;
+
+        String[] requestLine = lines.get(0).split(" ");
+        Map<String, String> headers = new HashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            int idx = line.indexOf(':');
+            if (idx > 0) headers.put(line.substring(0, idx).trim().toLowerCase(), line.substring(idx + 1).trim());
+        }
+
+        String target = requestLine.length > 1 ? requestLine[1] : "";
+        String path = target.contains("?") ? target.substring(0, target.indexOf('?')) : target;
+
+        if (path.equals(_hbroot)) {
+            writeHttpResponse(out, 200, "OK", new OPResponse(SUCCESS_RESPONSE, true, NO_PROP_CODE));
+            closeQuietly(socket);
+            return null;
+        }
+        if (!requestLine[0].equals("GET") || !path.equals(_ctxroot)
+                || !"websocket".equalsIgnoreCase(headers.get("upgrade")) || !headers.containsKey("sec-websocket-key")) {
+            writeHttpResponse(out, 400, "Bad Request", new OPResponse("Invalid WebSocket upgrade request", false, WEBSOCKET_PROTOCOL_ERROR.code()));
+            closeQuietly(socket);
+            return null;
+        }
+        if (ConfigurationHelper.isOPServerAppTokenActive() && !isValidClientToken(target, headers.get("origin"))) {
+            LOGGER.warn("Rejected WebSocket client with an invalid ext token: {}", headers.get("origin"));
+            writeHttpResponse(out, 403, "Forbidden", new OPResponse("Invalid or not supported request token", false, NO_VALID_CHROME_TOKEN_FOUND.code()));
+            closeQuietly(socket);
+            return null;
+        }
+
+        String accept = Base64.encodeBase64String(DigestUtils.sha1(headers.get("sec-websocket-key").concat(WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII)));
+        String response = "HTTP/1.1 101 Switching Protocols\r\n" +
+                          "Upgrade: websocket\r\n" +
+                          "Connection: Upgrade\r\n" +
+                          "Sec-WebSocket-Accept: " + accept + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+
+        return new WebSocket2Connection(socket, in, out);
+    }
+
+    /**
+     * Browsers can't set headers on a WebSocket, the extension is identified by its origin (or a token parameter)
+     */
+    private boolean isValidClientToken(String target, String origin) {
+        String configuredToken = ConfigurationHelper.getOPChromeToken().trim();
+        String requestToken = null;
+
+        if (origin != null && origin.startsWith(CHROME_EXT_ORIGIN)) {
+            requestToken = origin.substring(CHROME_EXT_ORIGIN.length()).replace("/", "");
+        }
+        else if (target.contains("?")) {
+            for (String param : target.substring(target.indexOf('?') + 1).split("&")) {
+                if (param.startsWith(QUERY_PARAM_TOKEN.concat("="))) {
+                    requestToken = param.substring(QUERY_PARAM_TOKEN.length() + 1);
+                }
+            }
+        }
+
+        return configuredToken.equals(requestToken);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void processMessage(WebSocket2Connection conn, String text) {
+        final long kStartTime = System.nanoTime();
+        OPPayload payload = null;
+        long seq = 0L;
+        OPResponse response = new OPResponse(SUCCESS_RESPONSE, true, NO_PROP_CODE);
+        JsonNode payloadNode = null;
+
+        try {
+            ///  Envelope with a sequence number, or the bare payload
+            OPJsonCodec.PayloadKind kind = OPJsonCodec.kindOf(text);
+            if (kind == OPJsonCodec.PayloadKind.ENVELOPE) {
+                OPWebSocketMessage envelope = OPJsonCodec.readEnvelope(text);
+                seq = envelope.getSeq();
+                payloadNode = envelope.getMessage();
+                if (payloadNode == null || !payloadNode.isObject()) {
+                    throw new OPLauncherException("Invalid format. Expected JSON payload", JSON_PROTOCOL_ERROR);
+                }
+            }
+
+            if (kind == OPJsonCodec.PayloadKind.BATCH || OPBatchPayload.isBatch(payloadNode)) {
+                OPBatchResponse batchResponse = (payloadNode != null) ? new OPBatchProcessor<>(this).process(payloadNode) :
+                                                                        new OPBatchProcessor<>(this).process(text);
+                send(conn, OPWebSocketMessage.response(seq, batchResponse));
+                recordProcessingTime(System.nanoTime() - kStartTime);
+                return;
+            }
+
+            if (ConfigurationHelper.isSecurePayloadActive()) {
+                payload = (payloadNode != null) ? OPJsonCodec.readSecurePayload(payloadNode) : OPJsonCodec.readSecurePayload(text);
+                OPMessage<OPSecurePayload> message = new OPMessage<>((OPSecurePayload) payload);
+
+                if ( !((OPSecurePayload) payload).isSyncedResponse() ) {
+                    triggerSuccessCallbacks((OPMessage<P>) message);
+                }
+                // Synchronous processing, the return data goes back in the response once the call returns. The
+                // connection keeps reading the next messages meanwhile
+                else {
+                    final long kSeq = seq;
+                    final AppletMethodProxy<OPSecurePayload> kProxy = new AppletMethodProxy<>(message, null);
+                    OPCallExecutor.getInstance().submit(kProxy::invoke, ConfigurationHelper.getOPCallTimeoutMillis(), methodResponse -> {
+                        send(conn, OPWebSocketMessage.response(kSeq, methodResponse));
+                        recordProcessingTime(System.nanoTime() - kStartTime);
+                    }, e -> {
+                        LOGGER.error("Failed to invoke the Applet method", e);
+                        send(conn, OPWebSocketMessage.response(kSeq, OPResponse.failure(e, APPLET_EXECUTION_ERROR)));
+                        recordProcessingTime(System.nanoTime() - kStartTime);
+                    });
+                    return;
+                }
+            }
+            else {
+                payload = (payloadNode != null) ? OPJsonCodec.readPlainPayload(payloadNode) : OPJsonCodec.readPlainPayload(text);
+                triggerSuccessCallbacks((OPMessage<P>) new OPMessage<>((OPPlainPayload) payload));
+            }
+        }
+        catch (Exception e) {
+            LOGGER.error("Failed while processing the WebSocket message from Chrome", e);
+
+            OPMessage<OPPayload> message = new OPMessage<>(payload);
+            message.setError().setErrorDetails(e);
+            message.setErrorCode((e instanceof OPLauncherException) ? ((OPLauncherException) e).getErrorCode() : FAILED_TO_LOAD_RESOURCE);
+            triggerErrorCallbacks((OPMessage<P>) message);
+
+            response = new OPResponse(e.getMessage(), false, message.getErrorType().code());
+        }
+
+        send(conn, OPWebSocketMessage.response(seq, response));
+        recordProcessingTime(System.nanoTime() - kStartTime);
+    }
+
+    private void send(WebSocket2Connection conn, OPWebSocketMessage message) {
+        try {
+            conn.sendText(OPJsonCodec.writeValueAsString(message));
+        }
+        catch (IOException e) {
+            LOGGER.warn("Failed to send the WebSocket message to /{}: {}", conn.getRemoteAddress(), e.getMessage());
+            _connections.remove(conn);
+            conn.close();
+        }
+    }
+
+    /**
+     * Pushes an event to all the connected clients
+     */
+    @Override
+    public OPServer<P> push(String event, OPResponse response) {
+        if (_connections.isEmpty()) return this;
+
+        OPWebSocketMessage message = OPWebSocketMessage.push(event, response);
+        _connections.forEach(conn -> send(conn, message));
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("(push) Event [{}] pushed to {} client(s)", event, _connections.size());
+        }
+        return this;
+    }
+
+    protected WebSocket2OPServer<P> triggerSuccessCallbacks(OPMessage<P> message) {
+        routeSuccessMessage(message);
+        _successCallbacks.forEach(callback -> callback.call(message));
+        return this;
+    }
+    protected WebSocket2OPServer<P> triggerErrorCallbacks(OPMessage<P> message) {
+        routeFailureMessage(message);
+        _errorCallbacks.forEach(callback -> callback.call(message));
+        return this;
     }
 
-    // TODO: IMPLEMENT!
     @Override
-    public OPServer registerSuccessCallback(OPCallback callback) {
-        return null;
+    public OPServer<P> registerSuccessCallback(OPCallback<P> callback) {
+        if (callback != null) {
+            _successCallbacks.add(callback);
+        }
+        return this;
     }
 
-    // TODO: IMPLEMENT!
     @Override
-    public OPServer registerFailureCallback(OPCallback callback) {
-        return null;
+    public OPServer<P> registerFailureCallback(OPCallback<P> callback) {
+        if (callback != null) {
+            _errorCallbacks.add(callback);
+        }
+        return this;
+    }
+
+    static private List<String> readHttpHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int matched = 0, b;
+        final byte[] kEnd = {'\r', '\n', '\r', '\n'};
+
+        while (matched < kEnd.length && (b = in.read()) >= 0) {
+            header.write(b);
+            matched = (b == kEnd[matched]) ? matched + 1 : (b == '\r' ? 1 : 0);
+            if (header.size() > MAX_HANDSHAKE_SIZE) {
+                throw new OPLauncherException("WebSocket handshake too big", WEBSOCKET_PROTOCOL_ERROR);
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String line : new String(header.toByteArray(), StandardCharsets.US_ASCII).split("\r\n")) {
+            if (!line.isEmpty()) lines.add(line);
+        }
+        return lines;
+    }
+
+    private void writeHttpResponse(OutputStream out, int status, String reason, OPResponse opresp) throws IOException {
+        byte[] body = OPJsonCodec.writeValueAsBytes(opresp);
+        String header = "HTTP/1.1 " + status + " " + reason + "\r\n" +
+                        "Content-Type: application/json\r\n" +
+                        "Access-Control-Allow-Origin: *\r\n" +
+                        "Content-Length: " + body.length + "\r\n" +
+                        "Connection: close\r\n\r\n";
+        out.write(header.getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        out.flush();
     }
+
+    static private void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        }
+        catch (IOException e) {
+            // nothing to do
+        }
+    }
+
+    public int getBoundPort() {
+        return _serverSocket != null ? _serverSocket.getLocalPort() : getPort();
+    }
+
+    public int getConnectionCount() {
+        return _connections.size();
+    }
+
+    // class properties
+    private ServerSocket _serverSocket;
+    private ExecutorService _connectionPool;
+    private Set<WebSocket2Connection> _connections;
+    private String _ctxroot;
+    private String _hbroot;
+
+    private List<OPCallback<P>> _successCallbacks;
+    private List<OPCallback<P>> _errorCallbacks;
 }
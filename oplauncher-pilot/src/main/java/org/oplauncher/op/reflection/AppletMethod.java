@@ -0,0 +1,126 @@
+package org.oplauncher.op.reflection;
+
+import org.oplauncher.OPLauncherException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.oplauncher.ErrorCode.REFLECTION_ERROR;
+
+/**
+ * <p>Applet method resolved for the remote calls: the method handle (adapted to take the arguments as an array) and
+ * the converters of the client parameters (always strings) to the types of the method parameters. Both are built
+ * once, when the method is resolved, and reused by every call.</p>
+ */
+public class AppletMethod {
+    static private final Map<Class<?>, ParameterConverter> CONVERTERS = new HashMap<>();
+    static {
+        CONVERTERS.put(String.class, value -> value);
+        CONVERTERS.put(int.class, trimmed(Integer::valueOf));
+        CONVERTERS.put(Integer.class, trimmed(Integer::valueOf));
+        CONVERTERS.put(long.class, trimmed(Long::valueOf));
+        CONVERTERS.put(Long.class, trimmed(Long::valueOf));
+        CONVERTERS.put(float.class, trimmed(Float::valueOf));
+        CONVERTERS.put(Float.class, trimmed(Float::valueOf));
+        CONVERTERS.put(double.class, trimmed(Double::valueOf));
+        CONVERTERS.put(Double.class, trimmed(Double::valueOf));
+        CONVERTERS.put(short.class, trimmed(Short::valueOf));
+        CONVERTERS.put(Short.class, trimmed(Short::valueOf));
+        CONVERTERS.put(byte.class, trimmed(Byte::valueOf));
+        CONVERTERS.put(Byte.class, trimmed(Byte::valueOf));
+        CONVERTERS.put(boolean.class, trimmed(Boolean::valueOf));
+        CONVERTERS.put(Boolean.class, trimmed(Boolean::valueOf));
+        CONVERTERS.put(char.class, value -> value.charAt(0));
+        CONVERTERS.put(Character.class, value -> value.charAt(0));
+    }
+
+    @FunctionalInterface
+    public interface ParameterConverter {
+        Object convert(String value);
+    }
+
+    /**
+     * The numbers and booleans are converted from the trimmed value, as they're classified by
+     * {@link AppletOverloadResolver#shapeOf(String)}. Strings and chars are passed as given
+     */
+    static private ParameterConverter trimmed(ParameterConverter converter) {
+        return value -> converter.convert(value.trim());
+    }
+
+    protected AppletMethod(Method method) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+
+        _method = method;
+        _paramTypes = paramTypes;
+        _converters = new ParameterConverter[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            _converters[i] = CONVERTERS.get(paramTypes[i]);
+            if (_converters[i] == null) {
+                throw new OPLauncherException(String.format("Unsupported parameter type (Method: %s): %s", method.getName(), paramTypes[i].getName()), REFLECTION_ERROR);
+            }
+        }
+
+        ///  (Object target, Object[] args)Object, so the calls can use invokeExact
+        _handle = unreflect(method).asSpreader(Object[].class, paramTypes.length)
+                                   .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    static private MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        }
+        catch (IllegalAccessException e) {
+            // public method declared by a non public class
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            }
+            catch (Exception ex) {
+                throw new OPLauncherException(String.format("The method %s is not accessible", method), ex, REFLECTION_ERROR);
+            }
+        }
+    }
+
+    static public boolean isSupportedType(Class<?> type) {
+        return CONVERTERS.containsKey(type);
+    }
+
+    public Object[] convertParameters(List<String> parameters) {
+        if (parameters.size() != _converters.length) {
+            throw new OPLauncherException(String.format("The number of parameters expected by the method (%s) doesn't match the number of given parameters: %d != %d", _method.getName(), _converters.length, parameters.size()), REFLECTION_ERROR);
+        }
+
+        Object[] args = new Object[_converters.length];
+        for (int i = 0; i < args.length; i++) {
+            String value = parameters.get(i);
+            if (value == null) {
+                if (_paramTypes[i].isPrimitive()) {
+                    throw new OPLauncherException(String.format("The parameter %d of the method %s can't be null (type: %s)", i, _method.getName(), _paramTypes[i].getName()), REFLECTION_ERROR);
+                }
+                continue;
+            }
+            args[i] = _converters[i].convert(value);
+        }
+
+        return args;
+    }
+
+    public Object invoke(Object target, List<String> parameters) throws Throwable {
+        return (Object) _handle.invokeExact(target, convertParameters(parameters));
+    }
+
+    public Method getMethod() {
+        return _method;
+    }
+
+    // class properties
+    private final Method _method;
+    private final MethodHandle _handle;
+    private final Class<?>[] _paramTypes;
+    private final ParameterConverter[] _converters;
+}
@@ -0,0 +1,63 @@
+package org.oplauncher.op.reflection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>Cache of the applet methods resolved for the remote calls, per applet class and resolution key (i.e., the method
+ * name and the shapes of the parameters, see {@link AppletOverloadResolver}). The entries of an applet are dropped
+ * when its class loader is disposed, so the cache never holds the classes of an unloaded applet.</p>
+ */
+public class AppletMethodCache {
+    static private final Logger LOGGER = LogManager.getLogger(AppletMethodCache.class);
+    static private final Map<Class<?>, Map<String, AppletMethod>> CACHE = new ConcurrentHashMap<>();
+    static private final AtomicLong HITS = new AtomicLong();
+    static private final AtomicLong MISSES = new AtomicLong();
+
+    private AppletMethodCache() {}
+
+    static public final AppletMethod resolve(Class<?> klass, final String kKey, Supplier<AppletMethod> resolver) {
+        Map<String, AppletMethod> methods = CACHE.computeIfAbsent(klass, k -> new ConcurrentHashMap<>());
+
+        AppletMethod method = methods.get(kKey);
+        if (method != null) {
+            HITS.incrementAndGet();
+            return method;
+        }
+
+        MISSES.incrementAndGet();
+        return methods.computeIfAbsent(kKey, key -> resolver.get());
+    }
+
+    /**
+     * Drops the methods of all the classes defined by the given class loader, or by its children (i.e., the
+     * URL class loader of the applet archive)
+     */
+    static public final void invalidate(ClassLoader loader) {
+        int before = CACHE.size();
+        CACHE.keySet().removeIf(klass -> isLoadedBy(klass, loader));
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("(invalidate) Applet method cache entries dropped for the class loader {}: {}", loader, before - CACHE.size());
+        }
+    }
+
+    static private boolean isLoadedBy(Class<?> klass, ClassLoader loader) {
+        for (ClassLoader cl = klass.getClassLoader(); cl != null; cl = cl.getParent()) {
+            if (cl == loader) return true;
+        }
+        return false;
+    }
+
+    static public final long getHits() {
+        return HITS.get();
+    }
+    static public final long getMisses() {
+        return MISSES.get();
+    }
+}
@@ -8,7 +8,6 @@ import org.oplauncher.runtime.AppletRegistry;
 import org.oplauncher.runtime.secur.PayloadParserSecurityHelper;
 
 import java.applet.Applet;
-import java.lang.reflect.Method;
 import java.util.List;
 
 import static org.oplauncher.ErrorCode.FAILED_TO_FIND_APPLET_INSTANCE;
@@ -37,7 +36,10 @@ public class AppletMethodProxy<P extends OPPayload> extends AppletReflection {
     }
 
     public OPResponse invoke() {
-        OPPlainPayload payload = PayloadParserSecurityHelper.decodeSecuredPayload(getMessage());
+        ///  Batched calls are deciphered up front
+        OPPlainPayload payload = (getMessage().getPayload() instanceof OPPlainPayload) ?
+                                        (OPPlainPayload) getMessage().getPayload() :
+                                        PayloadParserSecurityHelper.decodeSecuredPayload(getMessage());
         if ( payload != null ) {
             String appletName = payload.getAppletName();
             String methodName = payload.getMethodName();
@@ -52,29 +54,20 @@ public class AppletMethodProxy<P extends OPPayload> extends AppletReflection {
             }
 
             if ( !isInterpretMethod(methodName) ) {
-                Method method = getMethodFromNumOfParameters(applet, methodName, objGivenParams.size());
-                if (method == null) {
-                    throw new OPLauncherException(String.format("No method found in the Applet instance (%s --> %s) for the given name: %s", appletName, applet.getClass().getName(), methodName), REFLECTION_ERROR);
-                }
-                List<?> objParams = convertClientParametersToMethodParameters(objGivenParams, method);
+                AppletMethod method = resolveMethod(applet, methodName, objGivenParams);
 
                 ///  LETS INVOKE THE APPLET CLASS EXECUTION  ///
                 try {
-                    /*
-                     * TODO: Currently this invoke operation only supports native types as a return
-                     *       meaning Custom object types (!= from String) will throw an exception in the current
-                     *       version
-                     */
-                    Object result = method.invoke(applet, objParams.toArray(new Object[0]));
-                    /*if ( result != null && ( !result.getClass().isPrimitive() ) {
-                        throw new OPLauncherException(String.format("Currently the remote method invocation only support primitive return types. Provided type: %s", result.getClass().getName()));
-                    }*/
-
-                    return new OPResponse("Method execution succeeded!", true, NO_PROP_CODE).setReturnData(result);
+                    Object result = method.invoke(applet, objGivenParams);
+
+                    return new OPResponse("Method execution succeeded!", true, NO_PROP_CODE).setReturnData(ReturnValueMarshaller.marshal(result));
+                }
+                catch (OPLauncherException e) {
+                    throw e;
                 }
-                catch (Exception e) {
-                    LOGGER.error("Error while invoking the method: {}", methodName, e);
-                    throw new OPLauncherException(e, REFLECTION_ERROR);
+                catch (Throwable t) {
+                    LOGGER.error("Error while invoking the method: {}", methodName, t);
+                    throw new OPLauncherException(t, REFLECTION_ERROR);
                 }
             }
             // Interpreted methods ....
@@ -91,7 +84,7 @@ public class AppletMethodProxy<P extends OPPayload> extends AppletReflection {
                     LOGGER.info("Interpretation for the method '{}' completed successful. Result: {} (it could be null since it could 'void')", methodName, result);
                 }
 
-                return new OPResponse("Method execution succeeded!", true, NO_PROP_CODE).setReturnData(result);
+                return new OPResponse("Method execution succeeded!", true, NO_PROP_CODE).setReturnData(ReturnValueMarshaller.marshal(result));
             }
         }
         else {
@@ -0,0 +1,182 @@
+package org.oplauncher.op.reflection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.OPLauncherException;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.oplauncher.ErrorCode.REFLECTION_ERROR;
+
+/**
+ * <p>Picks the applet method to call among the overloads with the given name and number of parameters. The client
+ * parameters are always strings, so each one is classified by what it can be converted to (its shape: boolean,
+ * int, long, decimal, char, string or null). Every candidate is scored by how well its parameter types fit those
+ * shapes, and the best one wins. Parameter types that can't take a shape rule the candidate out.</p>
+ * <p>The decision only depends on the shapes, so it is cached per (class, method name, shapes).</p>
+ */
+public class AppletOverloadResolver {
+    static private final Logger LOGGER = LogManager.getLogger(AppletOverloadResolver.class);
+
+    static public final char SHAPE_NULL = 'n';
+    static public final char SHAPE_BOOLEAN = 'b';
+    static public final char SHAPE_INT = 'i';
+    static public final char SHAPE_LONG = 'l';
+    static public final char SHAPE_DECIMAL = 'd';
+    static public final char SHAPE_CHAR = 'c';
+    static public final char SHAPE_STRING = 's';
+
+    static private final int NO_MATCH = -1;
+
+    private AppletOverloadResolver() {}
+
+    static public final AppletMethod resolve(final Class<?> klass, final String methodName, final List<String> parameters) {
+        final String kShapes = shapesOf(parameters);
+        return AppletMethodCache.resolve(klass, methodName + '(' + kShapes + ')', () -> select(klass, methodName, kShapes));
+    }
+
+    static protected String shapesOf(List<String> parameters) {
+        StringBuilder shapes = new StringBuilder(parameters.size());
+        for (String value : parameters) {
+            shapes.append(shapeOf(value));
+        }
+
+        return shapes.toString();
+    }
+
+    static protected char shapeOf(String value) {
+        if (value == null) return SHAPE_NULL;
+
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) return SHAPE_BOOLEAN;
+
+        if (!trimmed.isEmpty()) {
+            try {
+                long number = Long.parseLong(trimmed);
+                return (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) ? SHAPE_INT : SHAPE_LONG;
+            }
+            catch (NumberFormatException e) {
+                // not an integer
+            }
+            if (isDecimal(trimmed)) return SHAPE_DECIMAL;
+        }
+
+        return value.length() == 1 ? SHAPE_CHAR : SHAPE_STRING;
+    }
+
+    static private boolean isDecimal(String value) {
+        // only plain numbers, Double.valueOf() also takes "NaN", "Infinity" and hex floats
+        char last = value.charAt(value.length() - 1);
+        if (!Character.isDigit(last) && last != '.') return false;
+
+        try {
+            Double.parseDouble(value);
+            return true;
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * How well the parameter type takes the shape, the higher the better. {@link #NO_MATCH} rules it out
+     */
+    static protected int score(Class<?> type, char shape) {
+        if (!AppletMethod.isSupportedType(type)) return NO_MATCH;
+        if (shape == SHAPE_NULL) return type.isPrimitive() ? NO_MATCH : 1;
+        if (type == String.class) return 1;
+
+        Class<?> kType = type.isPrimitive() ? type : unbox(type);
+        switch (shape) {
+            case SHAPE_BOOLEAN: return kType == boolean.class ? 5 : NO_MATCH;
+            case SHAPE_INT: {
+                if (kType == int.class) return 5;
+                if (kType == long.class) return 4;
+                if (kType == short.class || kType == byte.class) return 3;
+                if (kType == double.class || kType == float.class) return 2;
+                break;
+            }
+            case SHAPE_LONG: {
+                if (kType == long.class) return 5;
+                if (kType == double.class || kType == float.class) return 2;
+                break;
+            }
+            case SHAPE_DECIMAL: {
+                if (kType == double.class) return 5;
+                if (kType == float.class) return 4;
+                break;
+            }
+            case SHAPE_CHAR: {
+                if (kType == char.class) return 5;
+                break;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    static private Class<?> unbox(Class<?> type) {
+        if (type == Integer.class) return int.class;
+        if (type == Long.class) return long.class;
+        if (type == Double.class) return double.class;
+        if (type == Float.class) return float.class;
+        if (type == Short.class) return short.class;
+        if (type == Byte.class) return byte.class;
+        if (type == Boolean.class) return boolean.class;
+        if (type == Character.class) return char.class;
+        return type;
+    }
+
+    static private AppletMethod select(Class<?> klass, String methodName, String shapes) {
+        Method best = null;
+        int bestScore = NO_MATCH;
+        boolean ambiguous = false;
+
+        if (methodName != null) {
+            // getMethods() has no particular order, sorting keeps the pick stable on ties
+            Method[] candidates = Arrays.stream(klass.getMethods())
+                                        .filter(method -> method.getName().equals(methodName) && method.getParameterCount() == shapes.length())
+                                        .sorted(Comparator.comparing(Method::toGenericString))
+                                        .toArray(Method[]::new);
+
+            for (Method candidate : candidates) {
+                int score = score(candidate, shapes);
+                if (score > bestScore) {
+                    best = candidate;
+                    bestScore = score;
+                    ambiguous = false;
+                }
+                else if (score == bestScore && score != NO_MATCH) {
+                    ambiguous = true;
+                }
+            }
+        }
+
+        if (best == null) {
+            throw new OPLauncherException(String.format("Method %s taking the given %d parameter(s) (%s) was not found in %s", methodName, shapes.length(), shapes, klass.getName()), REFLECTION_ERROR);
+        }
+        if (ambiguous) {
+            LOGGER.warn("More than one overload of {} takes the parameters ({}). Using: {}", methodName, shapes, best);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("(select) Method resolved for {}({}): {} (score: {})", methodName, shapes, best, bestScore);
+        }
+
+        return new AppletMethod(best);
+    }
+
+    static private int score(Method method, String shapes) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        int total = 0;
+        for (int i = 0; i < paramTypes.length; i++) {
+            int score = score(paramTypes[i], shapes.charAt(i));
+            if (score == NO_MATCH) return NO_MATCH;
+            total += score;
+        }
+
+        return total;
+    }
+}
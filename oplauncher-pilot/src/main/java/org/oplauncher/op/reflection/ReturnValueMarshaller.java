@@ -0,0 +1,129 @@
+package org.oplauncher.op.reflection;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.awt.*;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.List;
+
+/**
+ * <p>Turns the value returned by an applet method into something the OP response can carry as JSON, so the page
+ * can pull bulk data with one call:</p>
+ * <ul>
+ *     <li>Strings, numbers and booleans are kept, chars become strings</li>
+ *     <li><code>byte[]</code> becomes a base64 string, <code>char[]</code> a string; the other primitive arrays
+ *     are kept (serialized as JSON arrays)</li>
+ *     <li>Object arrays and collections become lists, maps become objects (keys as strings)</li>
+ *     <li>Enums become their names</li>
+ *     <li>Simple beans (classes of the applet with readable properties) become objects of their properties</li>
+ *     <li>Anything else (AWT components, JDK classes, cycles, too deep structures) becomes its
+ *     <code>toString()</code></li>
+ * </ul>
+ */
+public class ReturnValueMarshaller {
+    static private final Logger LOGGER = LogManager.getLogger(ReturnValueMarshaller.class);
+
+    static public final int MAX_DEPTH = 8;
+
+    private ReturnValueMarshaller() {}
+
+    static public final Object marshal(Object value) {
+        return marshal(value, 0, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    static private Object marshal(Object value, int depth, Set<Object> visiting) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Character) return value.toString();
+        if (value instanceof Enum) return ((Enum<?>) value).name();
+
+        Class<?> klass = value.getClass();
+        if (klass.isArray()) {
+            if (klass == byte[].class) return Base64.encodeBase64String((byte[]) value);
+            if (klass == char[].class) return new String((char[]) value);
+            if (klass.getComponentType().isPrimitive()) return value;
+        }
+
+        if (depth >= MAX_DEPTH || !visiting.add(value)) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("(marshal) Value too deep or cyclic, returned as string: {}", klass.getName());
+            }
+            return value.toString();
+        }
+
+        try {
+            if (klass.isArray()) {
+                int length = Array.getLength(value);
+                List<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(marshal(Array.get(value, i), depth + 1, visiting));
+                }
+                return list;
+            }
+            if (value instanceof Collection) {
+                List<Object> list = new ArrayList<>(((Collection<?>) value).size());
+                for (Object item : (Collection<?>) value) {
+                    list.add(marshal(item, depth + 1, visiting));
+                }
+                return list;
+            }
+            if (value instanceof Map) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    map.put(String.valueOf(entry.getKey()), marshal(entry.getValue(), depth + 1, visiting));
+                }
+                return map;
+            }
+
+            Map<String, Object> bean = marshalBean(value, depth, visiting);
+            return bean != null ? bean : value.toString();
+        }
+        finally {
+            visiting.remove(value);
+        }
+    }
+
+    static private Map<String, Object> marshalBean(Object value, int depth, Set<Object> visiting) {
+        Class<?> klass = value.getClass();
+        if (!isBeanCandidate(klass)) return null;
+
+        PropertyDescriptor[] properties;
+        try {
+            // the introspector keeps its own cache of the bean infos
+            properties = Introspector.getBeanInfo(klass, Object.class).getPropertyDescriptors();
+        }
+        catch (IntrospectionException e) {
+            LOGGER.warn("Unable to introspect the returned object: {}", klass.getName(), e);
+            return null;
+        }
+
+        Map<String, Object> bean = new LinkedHashMap<>();
+        for (PropertyDescriptor property : properties) {
+            Method getter = property.getReadMethod();
+            if (getter == null) continue;
+
+            try {
+                bean.put(property.getName(), marshal(getter.invoke(value), depth + 1, visiting));
+            }
+            catch (Exception e) {
+                LOGGER.warn("Unable to read the property '{}' of the returned object: {}", property.getName(), klass.getName(), e);
+            }
+        }
+
+        return bean.isEmpty() ? null : bean;
+    }
+
+    static private boolean isBeanCandidate(Class<?> klass) {
+        String name = klass.getName();
+        return !name.startsWith("java.") && !name.startsWith("javax.") && !name.startsWith("sun.") &&
+               !Component.class.isAssignableFrom(klass);
+    }
+}
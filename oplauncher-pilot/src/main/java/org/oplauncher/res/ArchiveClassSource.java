@@ -0,0 +1,108 @@
+package org.oplauncher.res;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * <p>Class source backed by an open Jar archive. The archive entries are indexed once (name -> entry) when the
+ * source is created, and the bytes are only read when a class or resource is actually requested by the loader,
+ * meaning nothing is extracted to the temporary class path.</p>
+ */
+public class ArchiveClassSource implements Closeable {
+    static private final Logger LOGGER = LogManager.getLogger(ArchiveClassSource.class);
+
+    public ArchiveClassSource(File archive) throws IOException {
+        _archiveFile = archive;
+        _jarFile = new JarFile(archive);
+        _entryIndex = new HashMap<>();
+
+        Enumeration<JarEntry> entries = _jarFile.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (!entry.isDirectory()) {
+                _entryIndex.put(entry.getName(), entry);
+            }
+        }
+
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Indexed {} entries from the archive [{}]", _entryIndex.size(), archive.getAbsolutePath());
+        }
+    }
+
+    static public String toEntryName(final String className) {
+        return className.replace('.', '/').concat(".class");
+    }
+
+    public boolean containsEntry(final String entryName) {
+        return _entryIndex.containsKey(entryName);
+    }
+    public boolean containsClass(final String className) {
+        return containsEntry(toEntryName(className));
+    }
+
+    public byte[] readEntry(final String entryName) throws IOException {
+        JarEntry entry = _entryIndex.get(entryName);
+        if (entry == null) {
+            throw new IOException(String.format("Entry [%s] not found in the archive: %s", entryName, _archiveFile.getName()));
+        }
+
+        try (InputStream is = _jarFile.getInputStream(entry)) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("(readEntry) Reading entry [{}] from the archive [{}]", entryName, _archiveFile.getName());
+            }
+            return IOUtils.toByteArray(is);
+        }
+    }
+    public byte[] readClass(final String className) throws IOException {
+        return readEntry(toEntryName(className));
+    }
+
+    public URL getEntryURL(final String entryName) {
+        if (!containsEntry(entryName)) return null;
+
+        try {
+            return new URL("jar:".concat(_archiveFile.toURI().toString()).concat("!/").concat(entryName));
+        }
+        catch (MalformedURLException e) {
+            LOGGER.warn("Could not build the URL for the entry [{}] in the archive: {}", entryName, _archiveFile.getName(), e);
+            return null;
+        }
+    }
+
+    public Set<String> getEntryNames() {
+        return Collections.unmodifiableSet(_entryIndex.keySet());
+    }
+
+    public int size() {
+        return _entryIndex.size();
+    }
+
+    public File getArchiveFile() {
+        return _archiveFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _jarFile.close();
+    }
+
+    // class properties
+    private File _archiveFile;
+    private JarFile _jarFile;
+    private Map<String, JarEntry> _entryIndex;
+}
@@ -0,0 +1,185 @@
+package org.oplauncher.res;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Content-addressed storage of the downloaded resources. Every blob is stored once under its SHA-256 digest
+ * (<code>blobs/ab/abcdef...</code> in the cache home), and the per URL cache files are hard links to the blob
+ * (copies when the filesystem doesn't support links). The same archive served from several hosts or paths is then
+ * stored and verified only once.</p>
+ */
+public class BlobStore {
+    static private final Logger LOGGER = LogManager.getLogger(BlobStore.class);
+    static private final Lock LOCK = new ReentrantLock();
+
+    static public final String BLOBS_DIR_NAME = "blobs";
+    static private final String TMPFILE_EXT = ".tmp";
+
+    static private BlobStore _instance;
+
+    private BlobStore(File cacheHome) {
+        _blobsHome = new File(cacheHome, BLOBS_DIR_NAME);
+        _storedBlobs = new AtomicLong();
+        _sharedBlobs = new AtomicLong();
+    }
+
+    static public BlobStore getInstance() {
+        LOCK.lock();
+        try {
+            if (_instance == null) {
+                _instance = new BlobStore(ConfigurationHelper.getCacheHomeDirectory());
+            }
+
+            return _instance;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    static public String digest(File file) throws IOException {
+        try (InputStream is = new FileInputStream(file)) {
+            return DigestUtils.sha256Hex(is);
+        }
+    }
+
+    public File blobFile(String digest) {
+        return new File(new File(_blobsHome, digest.substring(0, 2)), digest);
+    }
+
+    public boolean contains(String digest) {
+        return blobFile(digest).isFile();
+    }
+
+    public boolean isBlobFile(File file) {
+        return file.getAbsolutePath().startsWith(_blobsHome.getAbsolutePath().concat(File.separator));
+    }
+
+    /**
+     * Moves the given file into the store and returns its digest. If the same content is already stored, the existing
+     * blob is verified and kept, and the given file is deleted
+     */
+    public String store(File file) throws IOException {
+        final String kDigest = digest(file);
+        File blob = blobFile(kDigest);
+
+        LOCK.lock();
+        try {
+            if (blob.isFile() && verify(kDigest)) {
+                _sharedBlobs.incrementAndGet();
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Content already stored, sharing the blob: {}", kDigest);
+                }
+                FileUtils.deleteQuietly(file);
+                blob.setLastModified(System.currentTimeMillis());
+            }
+            else {
+                FileUtils.forceMkdir(blob.getParentFile());
+                Files.move(file.toPath(), blob.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                _storedBlobs.incrementAndGet();
+            }
+
+            return kDigest;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Checks if the stored blob still matches its digest
+     */
+    public boolean verify(String digest) {
+        File blob = blobFile(digest);
+        try {
+            if (blob.isFile() && digest.equals(digest(blob))) return true;
+        }
+        catch (IOException e) {
+            LOGGER.warn("Failed to verify the blob: {}", blob.getAbsolutePath(), e);
+        }
+
+        LOGGER.warn("Stored blob is missing or corrupt: {}", digest);
+        return false;
+    }
+
+    /**
+     * Makes the target file point to the blob content: a hard link when possible, a copy otherwise. The target is
+     * replaced through a rename, so the files already linked to the previous content are not changed
+     */
+    public File link(String digest, File target) throws IOException {
+        File blob = blobFile(digest);
+        File tmpTarget = new File(target.getParentFile(), target.getName().concat(TMPFILE_EXT));
+
+        FileUtils.forceMkdir(target.getParentFile());
+        Files.deleteIfExists(tmpTarget.toPath());
+        try {
+            Files.createLink(tmpTarget.toPath(), blob.toPath());
+        }
+        catch (IOException | UnsupportedOperationException | SecurityException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("(link) Hard link not available ({}), copying the blob: {}", e.getMessage(), digest);
+            }
+            FileUtils.copyFile(blob, tmpTarget);
+        }
+        Files.move(tmpTarget.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        return target;
+    }
+
+    /**
+     * Removes the blobs not referenced by the given digests and older than the given time stamp
+     */
+    public int removeUnreferenced(Collection<String> referencedDigests, long olderThan) {
+        if (!_blobsHome.isDirectory()) return 0;
+
+        int removed = 0;
+        LOCK.lock();
+        try {
+            for (File blob : FileUtils.listFiles(_blobsHome, null, true)) {
+                if (referencedDigests.contains(blob.getName()) || blob.lastModified() > olderThan) continue;
+
+                if (FileUtils.deleteQuietly(blob)) {
+                    removed++;
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("(removeUnreferenced) Removed unreferenced blob: {}", blob.getName());
+                    }
+                }
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+
+        return removed;
+    }
+
+    public File getBlobsHome() {
+        return _blobsHome;
+    }
+    public long getStoredBlobs() {
+        return _storedBlobs.get();
+    }
+    public long getSharedBlobs() {
+        return _sharedBlobs.get();
+    }
+
+    // class properties
+    private File _blobsHome;
+    private AtomicLong _storedBlobs;
+    private AtomicLong _sharedBlobs;
+}
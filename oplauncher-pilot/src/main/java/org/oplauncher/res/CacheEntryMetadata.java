@@ -0,0 +1,256 @@
+package org.oplauncher.res;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpMessage;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Properties;
+
+import static java.util.regex.Pattern.quote;
+
+/**
+ * <p>HTTP validators of a cached resource (ETag, Last-Modified and Cache-Control max-age). They are saved in a
+ * sidecar properties file next to the masked cache file, and are used to decide if the cached copy is still fresh
+ * or if it needs to be revalidated by a conditional GET.</p>
+ * <p>The same object is the entry of the {@link CacheIndex}, which also keeps the cached file name, size and content
+ * hash. The sidecar file is what allows the index to be rebuilt from the cache directory.</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CacheEntryMetadata {
+    static private final Logger LOGGER = LogManager.getLogger(CacheEntryMetadata.class);
+
+    static public final String METADATA_FILE_EXT = ".meta";
+
+    static private final String PROP_URL = "url";
+    static private final String PROP_ETAG = "etag";
+    static private final String PROP_LASTMODIFIED = "last_modified";
+    static private final String PROP_MAXAGE = "max_age";
+    static private final String PROP_FETCHEDAT = "fetched_at";
+    static private final String PROP_FILENAME = "file_name";
+    static private final String PROP_SIZE = "size";
+    static private final String PROP_CONTENTHASH = "content_hash";
+    static private final String PROP_LASTACCESSED = "last_accessed";
+
+    static private final long NO_MAXAGE = -1L;
+
+    private CacheEntryMetadata() {
+        _maxAge = NO_MAXAGE;
+    }
+
+    static public CacheEntryMetadata of(URL url, HttpResponse response) {
+        CacheEntryMetadata metadata = new CacheEntryMetadata();
+        metadata._url = url.toString();
+
+        return metadata.refresh(response);
+    }
+
+    static public File metadataFile(File cachedFile) {
+        return new File(cachedFile.getParentFile(), cachedFile.getName().concat(METADATA_FILE_EXT));
+    }
+
+    static public boolean isMetadataFile(File file) {
+        return file.getName().endsWith(METADATA_FILE_EXT);
+    }
+
+    static public CacheEntryMetadata load(File cachedFile) {
+        File metaFile = metadataFile(cachedFile);
+        if (!metaFile.exists()) return null;
+
+        Properties props = new Properties();
+        try (InputStream is = new FileInputStream(metaFile)) {
+            props.load(is);
+        }
+        catch (IOException e) {
+            LOGGER.warn("Failed to read the cache metadata: {}", metaFile.getAbsolutePath(), e);
+            return null;
+        }
+
+        CacheEntryMetadata metadata = new CacheEntryMetadata();
+        metadata._url = props.getProperty(PROP_URL);
+        metadata._etag = props.getProperty(PROP_ETAG);
+        metadata._lastModified = props.getProperty(PROP_LASTMODIFIED);
+        metadata._fileName = props.getProperty(PROP_FILENAME);
+        metadata._contentHash = props.getProperty(PROP_CONTENTHASH);
+        try {
+            metadata._maxAge = Long.parseLong(props.getProperty(PROP_MAXAGE, String.valueOf(NO_MAXAGE)));
+            metadata._fetchedAt = Long.parseLong(props.getProperty(PROP_FETCHEDAT, "0"));
+            metadata._size = Long.parseLong(props.getProperty(PROP_SIZE, "-1"));
+        }
+        catch (NumberFormatException e) {
+            LOGGER.warn("Invalid cache metadata, the resource will be revalidated: {}", metaFile.getAbsolutePath());
+        }
+
+        return metadata;
+    }
+
+    /**
+     * Updates the validators from a 200 or 304 response. A 304 may omit the validators, in this case the previous
+     * ones are kept
+     */
+    public CacheEntryMetadata refresh(HttpResponse response) {
+        String etag = headerValue(response, "ETag");
+        String lastModified = headerValue(response, "Last-Modified");
+
+        if (etag != null) _etag = etag;
+        if (lastModified != null) _lastModified = lastModified;
+        _maxAge = parseMaxAge(headerValue(response, "Cache-Control"));
+        _fetchedAt = System.currentTimeMillis();
+
+        return this;
+    }
+
+    public CacheEntryMetadata save(File cachedFile) {
+        File metaFile = metadataFile(cachedFile);
+        Properties props = new Properties();
+        if (_url != null) props.setProperty(PROP_URL, _url);
+        if (_etag != null) props.setProperty(PROP_ETAG, _etag);
+        if (_lastModified != null) props.setProperty(PROP_LASTMODIFIED, _lastModified);
+        props.setProperty(PROP_MAXAGE, String.valueOf(_maxAge));
+        props.setProperty(PROP_FETCHEDAT, String.valueOf(_fetchedAt));
+        if (_fileName != null) props.setProperty(PROP_FILENAME, _fileName);
+        props.setProperty(PROP_SIZE, String.valueOf(_size));
+        if (_contentHash != null) props.setProperty(PROP_CONTENTHASH, _contentHash);
+
+        try (OutputStream os = new FileOutputStream(metaFile)) {
+            props.store(os, "OPLauncher cache metadata");
+        }
+        catch (IOException e) {
+            LOGGER.warn("Failed to save the cache metadata: {}", metaFile.getAbsolutePath(), e);
+        }
+
+        return this;
+    }
+
+    /**
+     * Records the name (relative to the cache home), size and SHA-256 of the downloaded file
+     */
+    public CacheEntryMetadata describe(File cacheHome, File cachedFile) throws IOException {
+        return describe(cacheHome, cachedFile, BlobStore.digest(cachedFile));
+    }
+    public CacheEntryMetadata describe(File cacheHome, File cachedFile, String contentHash) {
+        _fileName = cacheHome.toPath().relativize(cachedFile.toPath()).toString().replace(File.separatorChar, '/');
+        _size = cachedFile.length();
+        _contentHash = contentHash;
+
+        return this;
+    }
+
+    /**
+     * Cheap consistency check against the file on disk (existence and size, the content hash is not recomputed)
+     */
+    public boolean matches(File cachedFile) {
+        return cachedFile.isFile() && (_size < 0 || cachedFile.length() == _size);
+    }
+
+    /**
+     * Marks the entry as used, for the LRU eviction of the cache
+     */
+    public CacheEntryMetadata touch() {
+        _lastAccessed = System.currentTimeMillis();
+        return this;
+    }
+
+    /**
+     * Adds the conditional headers (If-None-Match/If-Modified-Since) to the given request
+     */
+    public <M extends HttpMessage>M applyValidators(M request) {
+        if (_etag != null) request.setHeader("If-None-Match", _etag);
+        if (_lastModified != null) request.setHeader("If-Modified-Since", _lastModified);
+
+        return request;
+    }
+
+    public boolean hasValidators() {
+        return _etag != null || _lastModified != null;
+    }
+
+    public boolean isFresh() {
+        return _maxAge > 0 && System.currentTimeMillis() < (_fetchedAt + (_maxAge * 1000L));
+    }
+
+    static private String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    static private long parseMaxAge(String cacheControl) {
+        if (cacheControl == null) return NO_MAXAGE;
+
+        long maxAge = NO_MAXAGE;
+        for (String directive : cacheControl.split(quote(","))) {
+            String d = directive.trim().toLowerCase();
+            if (d.equals("no-cache") || d.equals("no-store")) {
+                return 0L;
+            }
+            else if (d.startsWith("max-age=")) {
+                try {
+                    maxAge = Long.parseLong(d.substring("max-age=".length()).replace("\"", "").trim());
+                }
+                catch (NumberFormatException e) {
+                    LOGGER.warn("Invalid max-age directive: {}", directive);
+                }
+            }
+        }
+
+        return maxAge;
+    }
+
+    public String getURL() {
+        return _url;
+    }
+    public String getETag() {
+        return _etag;
+    }
+    public String getLastModified() {
+        return _lastModified;
+    }
+    public long getMaxAge() {
+        return _maxAge;
+    }
+    public long getFetchedAt() {
+        return _fetchedAt;
+    }
+    public String getFileName() {
+        return _fileName;
+    }
+    public long getSize() {
+        return _size;
+    }
+    public String getContentHash() {
+        return _contentHash;
+    }
+    public long getLastAccessed() {
+        return Math.max(_lastAccessed, _fetchedAt);
+    }
+
+    // class properties
+    @JsonProperty(PROP_URL)
+    private String _url;
+    @JsonProperty(PROP_ETAG)
+    private String _etag;
+    @JsonProperty(PROP_LASTMODIFIED)
+    private String _lastModified;
+    @JsonProperty(PROP_MAXAGE)
+    private long _maxAge;
+    @JsonProperty(PROP_FETCHEDAT)
+    private long _fetchedAt;
+    @JsonProperty(PROP_FILENAME)
+    private String _fileName;
+    @JsonProperty(PROP_SIZE)
+    private long _size = -1L;
+    @JsonProperty(PROP_CONTENTHASH)
+    private String _contentHash;
+    @JsonProperty(PROP_LASTACCESSED)
+    private volatile long _lastAccessed;
+}
@@ -0,0 +1,255 @@
+package org.oplauncher.res;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Persistent index of the cached resources, keyed by the resource URL. It replaces the scan of the cache
+ * directory on every lookup: the index file is loaded once, kept in memory, and rewritten atomically (temporary file
+ * + rename) whenever an entry changes. If the index file is missing or corrupt, it is rebuilt from the
+ * {@link CacheEntryMetadata} sidecar files found in the cache directory.</p>
+ */
+public class CacheIndex {
+    static private final Logger LOGGER = LogManager.getLogger(CacheIndex.class);
+    static private final Lock LOCK = new ReentrantLock();
+
+    static public final String INDEX_FILE_NAME = "cache.index";
+    static private final String INDEX_TMPFILE_EXT = ".tmp";
+
+    static private final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+    static private CacheIndex _instance;
+
+    private CacheIndex(File cacheHome) {
+        _cacheHome = cacheHome;
+        _indexFile = new File(cacheHome, INDEX_FILE_NAME);
+        _entries = new ConcurrentHashMap<>();
+    }
+
+    static public CacheIndex getInstance() {
+        LOCK.lock();
+        try {
+            if (_instance == null) {
+                _instance = new CacheIndex(ConfigurationHelper.getCacheHomeDirectory()).load();
+            }
+
+            return _instance;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    static public String toKey(URL url) {
+        return url.toString();
+    }
+
+    static public boolean isIndexFile(File file) {
+        return file.getName().startsWith(INDEX_FILE_NAME);
+    }
+
+    public CacheEntryMetadata lookup(URL url) {
+        return _entries.get(toKey(url));
+    }
+
+    /**
+     * Resolves the cached file of the given URL, dropping the entry if the file is gone or doesn't match the index
+     */
+    public File resolve(URL url) {
+        CacheEntryMetadata entry = lookup(url);
+        if (entry == null || entry.getFileName() == null) return null;
+
+        File cachedFile = new File(_cacheHome, entry.getFileName());
+        if (!entry.matches(cachedFile)) {
+            LOGGER.warn("Cached file [{}] is missing or doesn't match the cache index. Dropping the entry for: {}", cachedFile.getAbsolutePath(), url);
+            remove(url);
+            return null;
+        }
+        entry.touch();
+
+        return cachedFile;
+    }
+
+    public void put(URL url, CacheEntryMetadata entry) {
+        _entries.put(toKey(url), entry);
+        persist();
+    }
+
+    public CacheEntryMetadata remove(URL url) {
+        CacheEntryMetadata entry = _entries.remove(toKey(url));
+        if (entry != null) persist();
+
+        return entry;
+    }
+
+    /**
+     * Removes the entry only if it is still the given one, so an entry replaced by a new download is not evicted
+     */
+    public boolean evict(CacheEntryMetadata entry) {
+        if (entry.getURL() == null || !_entries.remove(entry.getURL(), entry)) return false;
+
+        persist();
+        return true;
+    }
+
+    public File getCachedFile(CacheEntryMetadata entry) {
+        return entry.getFileName() != null ? new File(_cacheHome, entry.getFileName()) : null;
+    }
+
+    public Collection<CacheEntryMetadata> getEntries() {
+        return _entries.values();
+    }
+
+    /**
+     * Bytes used by the cached content. Entries sharing the same content (same blob) are counted once
+     */
+    public long getTotalBytes() {
+        Map<String, Long> sizes = new HashMap<>();
+        for (CacheEntryMetadata entry : _entries.values()) {
+            String key = entry.getContentHash() != null ? entry.getContentHash() : entry.getURL();
+            sizes.put(key, Math.max(0, entry.getSize()));
+        }
+
+        return sizes.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Set<String> getContentHashes() {
+        return _entries.values().stream()
+                       .map(CacheEntryMetadata::getContentHash)
+                       .filter(Objects::nonNull)
+                       .collect(Collectors.toSet());
+    }
+
+    /**
+     * Saves the index, also storing the access times collected since the last update
+     */
+    public void flush() {
+        persist();
+    }
+
+    public int size() {
+        return _entries.size();
+    }
+
+    public File getCacheHome() {
+        return _cacheHome;
+    }
+
+    private CacheIndex load() {
+        final long kStartTime = System.nanoTime();
+
+        if (_indexFile.isFile()) {
+            try {
+                Map<String, CacheEntryMetadata> entries = MAPPER.readValue(_indexFile, new TypeReference<Map<String, CacheEntryMetadata>>() {});
+                if (entries != null) {
+                    _entries.putAll(entries);
+                }
+
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Cache index loaded with {} entries in {} ms: {}", _entries.size(), (System.nanoTime() - kStartTime) / 1_000_000L, _indexFile.getAbsolutePath());
+                }
+                return this;
+            }
+            catch (IOException e) {
+                LOGGER.warn("The cache index is corrupt, it will be rebuilt from the cache directory: {}", _indexFile.getAbsolutePath(), e);
+                _entries.clear();
+            }
+        }
+
+        return rebuild();
+    }
+
+    /**
+     * Rebuilds the index from the sidecar metadata files of the cache directory
+     */
+    public CacheIndex rebuild() {
+        LOCK.lock();
+        try {
+            _entries.clear();
+
+            if (_cacheHome.isDirectory()) {
+                for (File file : FileUtils.listFiles(_cacheHome, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE)) {
+                    if (!CacheEntryMetadata.isMetadataFile(file) || BlobStore.getInstance().isBlobFile(file)) continue;
+
+                    String cachedFileName = file.getName().substring(0, file.getName().length() - CacheEntryMetadata.METADATA_FILE_EXT.length());
+                    File cachedFile = new File(file.getParentFile(), cachedFileName);
+                    CacheEntryMetadata entry = CacheEntryMetadata.load(cachedFile);
+                    if (entry == null || entry.getURL() == null || !cachedFile.isFile()) continue;
+
+                    try {
+                        if (entry.getFileName() == null || entry.getContentHash() == null || !entry.matches(cachedFile)) {
+                            entry.describe(_cacheHome, cachedFile).save(cachedFile);
+                        }
+                        _entries.put(entry.getURL(), entry);
+                    }
+                    catch (IOException e) {
+                        LOGGER.warn("Failed to index the cached file: {}", cachedFile.getAbsolutePath(), e);
+                    }
+                }
+            }
+
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Cache index rebuilt with {} entries from: {}", _entries.size(), _cacheHome.getAbsolutePath());
+            }
+            persist();
+
+            return this;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    private void persist() {
+        LOCK.lock();
+        try {
+            FileUtils.forceMkdir(_cacheHome);
+
+            File tmpFile = new File(_cacheHome, INDEX_FILE_NAME.concat(INDEX_TMPFILE_EXT));
+            MAPPER.writeValue(tmpFile, new TreeMap<>(_entries));
+            try {
+                Files.move(tmpFile.toPath(), _indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile.toPath(), _indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e) {
+            LOGGER.warn("Failed to save the cache index: {}", _indexFile.getAbsolutePath(), e);
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    // class properties
+    private File _cacheHome;
+    private File _indexFile;
+    private Map<String, CacheEntryMetadata> _entries;
+}
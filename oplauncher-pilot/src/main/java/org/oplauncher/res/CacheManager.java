@@ -0,0 +1,254 @@
+package org.oplauncher.res;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.oplauncher.IConstants.DEFAULT_TMPCP_PREFIX;
+
+/**
+ * <p>Keeps the disk usage of the applet cache bounded. A background sweep evicts the cached (masked) files that were
+ * not used for longer than the configured max age, then the least recently used ones until the cache fits in the
+ * byte quota. The same sweep removes the files left in the cache directory without an index entry and the temporary
+ * class paths left behind by the launcher processes that are gone.</p>
+ */
+public class CacheManager {
+    static private final Logger LOGGER = LogManager.getLogger(CacheManager.class);
+    static private final Lock LOCK = new ReentrantLock();
+
+    ///  Files not indexed yet may belong to a download in progress
+    static private final long ORPHAN_GRACE_MS = TimeUnit.HOURS.toMillis(1);
+
+    static private CacheManager _instance;
+
+    private CacheManager() {
+        _evictions = new AtomicLong();
+        _evictedBytes = new AtomicLong();
+        _removedTempClassPaths = new AtomicLong();
+        _sweeps = new AtomicLong();
+        _removedBlobs = new AtomicLong();
+    }
+
+    static public CacheManager getInstance() {
+        LOCK.lock();
+        try {
+            if (_instance == null) {
+                _instance = new CacheManager();
+            }
+
+            return _instance;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Schedules the background sweep. Calling it more than once has no effect
+     */
+    public CacheManager start() {
+        LOCK.lock();
+        try {
+            if (_sweepService == null && ConfigurationHelper.isCacheActive()) {
+                final long kIntervalSec = ConfigurationHelper.getCacheSweepIntervalSeconds();
+
+                _sweepService = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "oplauncher-cache-sweep");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                });
+                _sweepService.scheduleWithFixedDelay(this::sweep, kIntervalSec, kIntervalSec, TimeUnit.SECONDS);
+
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Cache sweep scheduled every {} sec. Quota: {} bytes, max age: {} day(s)", kIntervalSec,
+                                ConfigurationHelper.getCacheQuotaBytes(), ConfigurationHelper.getCacheMaxAgeDays());
+                }
+            }
+
+            return this;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    public void stop() {
+        LOCK.lock();
+        try {
+            if (_sweepService != null) {
+                _sweepService.shutdownNow();
+                _sweepService = null;
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    public void sweep() {
+        try {
+            final long kStartTime = System.nanoTime();
+            CacheIndex index = CacheIndex.getInstance();
+
+            evictExpired(index);
+            evictOverQuota(index);
+            removeOrphanFiles(index);
+            removeTempClassPaths();
+            index.flush();
+
+            _sweeps.incrementAndGet();
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Cache sweep done in {} ms. {}", (System.nanoTime() - kStartTime) / 1_000_000L, getStatistics());
+            }
+        }
+        catch (Throwable t) {
+            LOGGER.warn("The cache sweep failed", t);
+        }
+    }
+
+    private void evictExpired(CacheIndex index) {
+        final int kMaxAgeDays = ConfigurationHelper.getCacheMaxAgeDays();
+        if (kMaxAgeDays == 0) return;
+
+        final long kOldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(kMaxAgeDays);
+        for (CacheEntryMetadata entry : new ArrayList<>(index.getEntries())) {
+            if (entry.getLastAccessed() < kOldest) {
+                evict(index, entry, "expired");
+            }
+        }
+    }
+
+    private void evictOverQuota(CacheIndex index) {
+        final long kQuota = ConfigurationHelper.getCacheQuotaBytes();
+        long totalBytes = index.getTotalBytes();
+        if (totalBytes <= kQuota) return;
+
+        List<CacheEntryMetadata> entries = new ArrayList<>(index.getEntries());
+        entries.sort(Comparator.comparingLong(CacheEntryMetadata::getLastAccessed));
+
+        for (CacheEntryMetadata entry : entries) {
+            if (totalBytes <= kQuota) break;
+            if (evict(index, entry, "over quota")) {
+                ///  Entries can share a content blob: the space is only freed with the last reference to it
+                totalBytes = index.getTotalBytes();
+            }
+        }
+    }
+
+    private boolean evict(CacheIndex index, CacheEntryMetadata entry, String reason) {
+        if (!index.evict(entry)) return false;
+
+        File cachedFile = index.getCachedFile(entry);
+        if (cachedFile != null) {
+            FileUtils.deleteQuietly(cachedFile);
+            FileUtils.deleteQuietly(CacheEntryMetadata.metadataFile(cachedFile));
+        }
+        _evictions.incrementAndGet();
+        _evictedBytes.addAndGet(Math.max(0, entry.getSize()));
+
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Evicted cache entry ({}): {} ({} bytes)", reason, entry.getURL(), entry.getSize());
+        }
+        return true;
+    }
+
+    private void removeOrphanFiles(CacheIndex index) {
+        File cacheHome = index.getCacheHome();
+        if (!cacheHome.isDirectory()) return;
+
+        Set<File> indexed = new HashSet<>();
+        for (CacheEntryMetadata entry : index.getEntries()) {
+            File cachedFile = index.getCachedFile(entry);
+            if (cachedFile != null) indexed.add(cachedFile.getAbsoluteFile());
+        }
+
+        final long kOldest = System.currentTimeMillis() - ORPHAN_GRACE_MS;
+        BlobStore blobStore = BlobStore.getInstance();
+        for (File file : FileUtils.listFiles(cacheHome, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE)) {
+            if (CacheIndex.isIndexFile(file) || CacheEntryMetadata.isMetadataFile(file) || blobStore.isBlobFile(file)) continue;
+            if (indexed.contains(file.getAbsoluteFile()) || file.lastModified() > kOldest) continue;
+
+            final long kSize = file.length();
+            if (FileUtils.deleteQuietly(file)) {
+                FileUtils.deleteQuietly(CacheEntryMetadata.metadataFile(file));
+                _evictions.incrementAndGet();
+                _evictedBytes.addAndGet(kSize);
+
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("(removeOrphanFiles) Removed cached file without index entry: {}", file.getAbsolutePath());
+                }
+            }
+        }
+
+        ///  Blobs are removed once no cache entry points to their content anymore
+        _removedBlobs.addAndGet(blobStore.removeUnreferenced(index.getContentHashes(), kOldest));
+    }
+
+    /**
+     * Removes the temporary class path homes of the launcher processes that are gone. The homes of the running
+     * processes (this one included) are kept whatever their age
+     */
+    private void removeTempClassPaths() {
+        File[] tempDirs = FileUtils.getTempDirectory().listFiles(file -> file.isDirectory() && file.getName().startsWith(DEFAULT_TMPCP_PREFIX));
+        if (tempDirs == null) return;
+
+        final long kOldest = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(ConfigurationHelper.getTempClassPathMaxAgeHours());
+
+        for (File tempDir : tempDirs) {
+            if (tempDir.lastModified() > kOldest || TempClassPathHome.isOwnerAlive(tempDir)) continue;
+
+            if (FileUtils.deleteQuietly(tempDir)) {
+                _removedTempClassPaths.incrementAndGet();
+
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("(removeTempClassPaths) Removed temporary class path: {}", tempDir.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    public String getStatistics() {
+        CacheIndex index = CacheIndex.getInstance();
+
+        BlobStore blobStore = BlobStore.getInstance();
+
+        return String.format("Bytes: %d/%d, entries: %d, evictions: %d (%d bytes), temp class paths removed: %d, blobs (stored/shared/removed): %d/%d/%d, sweeps: %d",
+                             index.getTotalBytes(), ConfigurationHelper.getCacheQuotaBytes(), index.size(),
+                             _evictions.get(), _evictedBytes.get(), _removedTempClassPaths.get(),
+                             blobStore.getStoredBlobs(), blobStore.getSharedBlobs(), _removedBlobs.get(), _sweeps.get());
+    }
+
+    public long getEvictions() {
+        return _evictions.get();
+    }
+    public long getEvictedBytes() {
+        return _evictedBytes.get();
+    }
+    public long getRemovedTempClassPaths() {
+        return _removedTempClassPaths.get();
+    }
+
+    // class properties
+    private ScheduledExecutorService _sweepService;
+    private AtomicLong _evictions;
+    private AtomicLong _evictedBytes;
+    private AtomicLong _removedTempClassPaths;
+    private AtomicLong _sweeps;
+    private AtomicLong _removedBlobs;
+}
@@ -21,6 +21,7 @@ import java.util.Enumeration;
 
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.regex.Pattern.quote;
+import static org.oplauncher.IConstants.DEFAULT_TMPCP_PREFIX;
 
 public class FileResource {
     static private final Logger LOGGER = LogManager.getLogger(FileResource.class);
@@ -36,22 +37,41 @@ public class FileResource {
     }
 
     public FileResource(File maskedFile) {
+        this(maskedFile, null);
+    }
+
+    /**
+     * @param contentHash SHA-256 of the cached content (if known), used to share the unmasked class path between
+     *                    the resources with the same content, even if downloaded from different URLs
+     */
+    public FileResource(File maskedFile, String contentHash) {
         String filename = maskedFile.getName();
 
         setMaskedFile(maskedFile)
             .setFileHash(filename)
-            .setTempClassPath(createTempDirectory())
-            // unmask the file
-            .unmaskFile();
+            .setContentHash(contentHash);
+
+        ///  The same cached file (or content) is materialized only once per process
+        if (!adoptUnmaskedResource(ConfigurationHelper.getSavedFileResource(getContentKey()))
+                && !adoptUnmaskedResource(ConfigurationHelper.getSavedFileResource(getFileHash()))) {
+            setTempClassPath(createTempDirectory())
+                // unmask the file
+                .unmaskFile();
+
+            if (getContentKey() != null) {
+                ConfigurationHelper.saveFileResource(getContentKey(), this);
+            }
+        }
     }
     private FileResource() {}
 ;
     private File createTempDirectory() {
         try {
-            File tempDir = FileUtils.getTempDirectory();
+            ///  Under the home of this process, so the other launcher processes don't sweep it
+            File tempDir = TempClassPathHome.getInstance().getDirectory();
 
             // Append a custom subdirectory to isolate your temporary files
-            File customTempDir = new File(tempDir, ConfigurationHelper.genRandomString(16));
+            File customTempDir = new File(tempDir, DEFAULT_TMPCP_PREFIX.concat(ConfigurationHelper.genRandomString(16)));
 
             // Ensure the directory exists
             if (customTempDir.exists()) {
@@ -90,7 +110,59 @@ public class FileResource {
         int idx = Math.max(className.lastIndexOf('/'), className.lastIndexOf('\\'));
         return idx > 0 ? className.substring(idx +1).concat(".class") : className.concat(".class");
     }
-    protected FileResource unmaskFile() {
+    /**
+     * Reuses the class path already materialized by another resource of the same (unchanged) masked file
+     */
+    private boolean adoptUnmaskedResource(FileResource other) {
+        if (other == null || other == this || !other._unmasked) return false;
+
+        ///  Same content and same name (the unmasked file name matters for the class files), or same unchanged file
+        boolean sameContent = _contentHash != null && _contentHash.equals(other._contentHash)
+                                && getMaskedFile().getName().equals(other.getMaskedFile().getName());
+        boolean sameFile = getMaskedFile().equals(other.getMaskedFile()) && getMaskedFile().lastModified() == other._maskedStamp;
+        if (!sameContent && !sameFile) return false;
+        File materialized = other.getUnmaskedFile() != null ? other.getUnmaskedFile() : other.getTempClassPath();
+        if (materialized == null || !materialized.exists()) return false;
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("(adoptUnmaskedResource) Reusing the unmasked resource: {}", materialized.getAbsolutePath());
+        }
+        _tmpClassPathPath = other.getTempClassPath();
+        _file = other.getUnmaskedFile();
+        _maskedStamp = other._maskedStamp;
+        _unmasked = true;
+
+        return true;
+    }
+
+    /**
+     * Hard links the masked file to the unmasked location when the filesystem allows it, copying it otherwise. The
+     * cache always replaces its files (new inode), so the linked copy is never changed underneath the applet
+     */
+    private void materialize(File source, File target) throws IOException {
+        if (target.exists()) {
+            if (Files.isSameFile(source.toPath(), target.toPath())) return;
+            Files.delete(target.toPath());
+        }
+
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+        }
+        catch (IOException | UnsupportedOperationException | SecurityException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("(materialize) Hard link not available ({}), copying the file: {}", e.getMessage(), source.getName());
+            }
+            FileUtils.copyFile(source, target);
+        }
+    }
+
+    /**
+     * Unmasks the cached file into the temporary class path. Idempotent: the file is materialized on the first call
+     * only, the next calls just return this resource
+     */
+    protected synchronized FileResource unmaskFile() {
+        if (_unmasked) return this;
+
         ResourceType type = getResourceType();
         String filePart;
 
@@ -113,7 +185,7 @@ public class FileResource {
                 }
                 case JAR_FILE: {
                     _file = new File(getTempClassPath(), filePartPattern);
-                    FileUtils.copyFile(getMaskedFile(), getUnmaskedFile());
+                    materialize(getMaskedFile(), getUnmaskedFile());
                     break;
                 }
                 case CLASS_FILE: {
@@ -127,7 +199,7 @@ public class FileResource {
                     _file = new File(klassPkgDir, klassName);
 
                     if (!klassPkgDir.exists()) FileUtils.forceMkdir(klassPkgDir);
-                    FileUtils.copyFile(getMaskedFile(), getUnmaskedFile());
+                    materialize(getMaskedFile(), getUnmaskedFile());
                     break;
                 }
                 default:
@@ -137,6 +209,8 @@ public class FileResource {
         catch (Exception e) {
             throw new RuntimeException("Failed to unmask file", e);
         }
+        _maskedStamp = getMaskedFile().lastModified();
+        _unmasked = true;
 
         return this;
     }
@@ -175,12 +249,17 @@ public class FileResource {
     }
     private FileResource setUnmaskedFile(File file) {
         _file = file;
+        _unmasked = true;
         return this;
     }
     private FileResource setFileHash(String filename) {
         _fileHash = URLUtils.generateMD5FromFileName(filename);
         return this;
     }
+    private FileResource setContentHash(String contentHash) {
+        _contentHash = contentHash;
+        return this;
+    }
     private FileResource setTempClassPath(File tempClassPath) {
         _tmpClassPathPath = tempClassPath;
         return this;
@@ -243,6 +322,17 @@ public class FileResource {
         return _fileHash;
     }
 
+    public String getContentHash() {
+        return _contentHash;
+    }
+
+    /**
+     * Key of the resources sharing the same content and name, null if the content hash is unknown
+     */
+    private String getContentKey() {
+        return _contentHash != null ? "sha256:".concat(_contentHash).concat("/").concat(getMaskedFile().getName()) : null;
+    }
+
     public File getTempClassPath() {
         return _tmpClassPathPath;
     }
@@ -261,7 +351,10 @@ public class FileResource {
 
     ///  class properties
     private String _fileHash;
+    private String _contentHash;
     private File _maskedFile;
     private File _file;
     private File _tmpClassPathPath;
+    private long _maskedStamp;
+    private volatile boolean _unmasked;
 }
@@ -1,6 +1,5 @@
 package org.oplauncher.res;
 
-import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.logging.log4j.LogManager;
@@ -8,12 +7,19 @@ import org.oplauncher.ConfigurationHelper;
 import org.oplauncher.OPLauncherException;
 
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -21,7 +27,6 @@ import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-import static java.util.regex.Pattern.quote;
 import static org.oplauncher.ErrorCode.*;
 
 public class HttpSessionResourceRequest implements IResourceRequest<FileResource> {
@@ -29,38 +34,41 @@ public class HttpSessionResourceRequest implements IResourceRequest<FileResource
     static private final Lock LOCK = new ReentrantLock();
 
     static private URL _lastRegisteredURL;
+    static private CloseableHttpClient _httpClient;
 
     protected HttpSessionResourceRequest() {}
 
     public FileResource verifyCache(URL url) throws OPLauncherException {
-        if (!ConfigurationHelper.isCacheActive()) return null; // Cache system needs to be active
+        File cachedFile = findCachedFile(url);
+        if (cachedFile == null) return null;
 
-        String cachePath = URLUtils.reverseUrlToPackageName(url);
-        File cacheHome = new File(ConfigurationHelper.getCacheHomeDirectory(), cachePath);
-        if ( LOGGER.isInfoEnabled() ) {
-            LOGGER.info(String.format("Verifying cache for resource [%s] path defined as : [%s]", URLUtils.getFileNameFromURL(url), cacheHome.getAbsolutePath()));
+        ///  Without revalidation the cached copy is always served
+        CacheEntryMetadata metadata = CacheIndex.getInstance().lookup(url);
+        String contentHash = metadata != null ? metadata.getContentHash() : null;
+        if (!ConfigurationHelper.isCacheRevalidationActive()) {
+            return new FileResource(cachedFile, contentHash);
         }
 
-        if (cacheHome.exists()) {
-            String resName = URLUtils.getFileNameFromURL(url);
-            String hashName = Hex.encodeHexString(resName.getBytes(Charset.defaultCharset()));
+        if (metadata != null && metadata.isFresh()) {
+            return new FileResource(cachedFile, contentHash);
+        }
 
-            if ( LOGGER.isDebugEnabled() ) {
-                LOGGER.debug("(verifyCache) Chache home exists: [{}]", cacheHome.getAbsolutePath());
-                LOGGER.debug("(verifyCache) File name: [{}]", resName);
-                LOGGER.debug("(verifyCache) Hash file name: [{}]", hashName);
-            }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Cached resource [{}] is stale, it needs to be revalidated", cachedFile.getName());
+        }
+        return null;
+    }
 
-            for (File file : cacheHome.listFiles()) {
-                String fileNameParts[] = file.getName().split(quote("_"));
-                if (fileNameParts.length >= 2 && fileNameParts[1].equals(hashName)) {
-                    return new FileResource(file);
-                }
-            }
+    protected File findCachedFile(URL url) throws OPLauncherException {
+        if (!ConfigurationHelper.isCacheActive()) return null; // Cache system needs to be active
+
+        File cachedFile = CacheIndex.getInstance().resolve(url);
+        if ( LOGGER.isInfoEnabled() ) {
+            LOGGER.info(String.format("Verifying cache for resource [%s]: %s", URLUtils.getFileNameFromURL(url),
+                                      cachedFile != null ? cachedFile.getAbsolutePath() : "not cached"));
         }
 
-        ///  Default behaviour
-        return null;
+        return cachedFile;
     }
 
     static public <T>T registerLastURL(URL url, T instance) {
@@ -75,6 +83,44 @@ public class HttpSessionResourceRequest implements IResourceRequest<FileResource
         }
     }
 
+    /**
+     * Long-lived pooled client shared by all the resource requests, so the archives and classes fetched from the
+     * same codebase reuse the kept-alive connections (and TLS sessions) instead of paying a handshake per file.
+     */
+    static protected CloseableHttpClient getHttpClient() {
+        LOCK.lock();
+        try {
+            if (_httpClient == null) {
+                final int kMaxTotal = ConfigurationHelper.getHttpPoolMaxTotal();
+                final int kMaxPerRoute = ConfigurationHelper.getHttpPoolMaxPerRoute();
+                final long kIdleEvictSec = ConfigurationHelper.getHttpPoolIdleEvictSeconds();
+
+                PoolingHttpClientConnectionManager connManager = PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(kMaxTotal)
+                        .setMaxConnPerRoute(kMaxPerRoute)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setTimeToLive(TimeValue.ofMinutes(5))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                .build())
+                        .build();
+                _httpClient = HttpClients.custom()
+                        .setConnectionManager(connManager)
+                        .evictExpiredConnections()
+                        .evictIdleConnections(TimeValue.ofSeconds(kIdleEvictSec))
+                        .build();
+
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Shared HTTP client created. Max connections (total/per route): {}/{}, idle eviction: {} sec", kMaxTotal, kMaxPerRoute, kIdleEvictSec);
+                }
+            }
+
+            return _httpClient;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
     static public URL getLastRegisteredURL() {
         LOCK.lock();
         try {
@@ -111,12 +157,23 @@ public class HttpSessionResourceRequest implements IResourceRequest<FileResource
             LOGGER.debug("(getResource) File cookie header: [{}]", cookieHeaderString);
         }
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        // Stale cached copy (if any) to be revalidated by a conditional GET
+        File staleFile = findCachedFile(url);
+        CacheEntryMetadata staleMetadata = staleFile != null ? CacheIndex.getInstance().lookup(url) : null;
+
+        try {
+            CloseableHttpClient httpClient = getHttpClient();
             HttpGet httpGet = new HttpGet(url.toString());
             // If there are any cookies available
             if (!cookieHeaderString.equals("")) {
                 httpGet.addHeader("Cookie", cookieHeaderString);
             }
+            if (staleMetadata != null && staleMetadata.hasValidators()) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("(getResource) Revalidating cached resource. ETag[{}], Last-Modified[{}]", staleMetadata.getETag(), staleMetadata.getLastModified());
+                }
+                staleMetadata.applyValidators(httpGet);
+            }
 
             try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
                 String cachePath = URLUtils.reverseUrlToPackageName(url);
@@ -139,21 +196,72 @@ public class HttpSessionResourceRequest implements IResourceRequest<FileResource
                     LOGGER.debug("(getResource) -> File hash name: [{}]", hashName);
                 }
 
-                if (response.getCode() <= 304 && response.getCode() >= 200) { /// between [200, 305[ OK
+                if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && staleFile != null && staleMetadata != null) {
+                    if (LOGGER.isInfoEnabled()) {
+                        LOGGER.info("Resource [{}] not modified (304). Serving the cached copy: {}", url, staleFile.getName());
+                    }
+                    CacheIndex.getInstance().put(url, staleMetadata.refresh(response).save(staleFile));
+
+                    return new FileResource(staleFile, staleMetadata.getContentHash());
+                }
+                else if (response.getCode() < 300 && response.getCode() >= 200) { /// between [200, 300[ OK
                     InputStream inputStream = response.getEntity().getContent();
 
+                    ///  Stored once by content, the cached file is linked to the blob (replaced by a rename, so the
+                    ///  files already linked from the previous content are never rewritten in place)
                     File cachedFile = new File(cacheHome, hashName);
-                    FileUtils.copyInputStreamToFile(inputStream, cachedFile);
+                    ///  Unique per download: two loaders can fetch the same archive at the same time
+                    FileUtils.forceMkdir(cacheHome);
+                    File partFile = File.createTempFile(hashName, ".part", cacheHome);
+                    BlobStore blobStore = BlobStore.getInstance();
+                    String digest;
+                    try {
+                        FileUtils.copyInputStreamToFile(inputStream, partFile);
+                        digest = blobStore.store(partFile);
+                    }
+                    finally {
+                        // moved to the blob (or shared) once stored, only left behind by a failure
+                        FileUtils.deleteQuietly(partFile);
+                    }
+                    blobStore.link(digest, cachedFile);
+                    CacheIndex.getInstance().put(url, CacheEntryMetadata.of(url, response)
+                                                                        .describe(ConfigurationHelper.getCacheHomeDirectory(), cachedFile, digest)
+                                                                        .save(cachedFile));
 
-                    return new FileResource(cachedFile);
+                    return new FileResource(cachedFile, digest);
+                }
+                else if (response.getCode() >= HttpStatus.SC_SERVER_ERROR && staleFile != null) {
+                    ///  Better a stale copy than no applet at all, while the server is failing
+                    EntityUtils.consume(response.getEntity());
+                    LOGGER.warn("Failed to revalidate the resource [{}], HTTP code {}. Serving the stale cached copy: {}", url, response.getCode(), staleFile.getName());
+
+                    return getStaleResource(staleFile, staleMetadata);
                 }
                 else {
+                    // Drain the body so the connection goes back to the pool
+                    EntityUtils.consume(response.getEntity());
                     throw new OPLauncherException(String.format("Failed to download resource(%s): HTTP code %d", resName, response.getCode()), FAILED_TO_DOWNLOAD_FILE);
                 }
             }
         }
+        catch (IOException e) {
+            ///  Better a stale copy than no applet at all, while the server can't be reached
+            if (staleFile != null) {
+                LOGGER.warn("Failed to revalidate the resource [{}]. Serving the stale cached copy: {}", url, staleFile.getName(), e);
+                return getStaleResource(staleFile, staleMetadata);
+            }
+            throw new OPLauncherException("Error downloading resource: " + e.getMessage(), e);
+        }
+        catch (OPLauncherException e) {
+            // i.e., 4xx: the resource is gone, the stale copy must not be served
+            throw e;
+        }
         catch (Exception e) {
             throw new OPLauncherException("Error downloading resource: " + e.getMessage(), e);
         }
     }
+
+    private FileResource getStaleResource(File staleFile, CacheEntryMetadata staleMetadata) {
+        return new FileResource(staleFile, staleMetadata != null ? staleMetadata.getContentHash() : null);
+    }
 }
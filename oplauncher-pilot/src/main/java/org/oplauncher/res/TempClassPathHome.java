@@ -0,0 +1,111 @@
+package org.oplauncher.res;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.oplauncher.IConstants.DEFAULT_TMPCP_PREFIX;
+
+/**
+ * <p>Parent directory of the temporary class paths of this process (<code>oplauncher_xxx</code> in the system temp
+ * directory). The process holds a lock on the owner file of the directory while it runs, so the cache sweep of
+ * another launcher process can tell a directory still in use from one left behind by a process that is gone: the OS
+ * releases the lock when its owner exits, even if it crashed.</p>
+ */
+public class TempClassPathHome {
+    static private final Logger LOGGER = LogManager.getLogger(TempClassPathHome.class);
+    static private final Lock LOCK = new ReentrantLock();
+
+    static public final String OWNER_FILE_NAME = ".owner.lock";
+
+    static private TempClassPathHome _instance;
+
+    private TempClassPathHome(File directory) throws IOException {
+        FileUtils.forceMkdir(directory);
+
+        _directory = directory;
+        _ownerChannel = new RandomAccessFile(new File(directory, OWNER_FILE_NAME), "rw").getChannel();
+        _ownerLock = _ownerChannel.tryLock();
+        if (_ownerLock == null) {
+            LOGGER.warn("Failed to lock the owner file of the temporary class paths: {}", directory.getAbsolutePath());
+        }
+    }
+
+    static public TempClassPathHome getInstance() {
+        LOCK.lock();
+        try {
+            if (_instance == null) {
+                File directory = new File(FileUtils.getTempDirectory(), DEFAULT_TMPCP_PREFIX.concat(ConfigurationHelper.genRandomString(16)));
+                _instance = new TempClassPathHome(directory);
+
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Temporary class paths of this process under: {}", directory.getAbsolutePath());
+                }
+            }
+
+            return _instance;
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to create the temporary class path home", e);
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return true if the directory is the home of this process, or its owner file is locked by a running process.
+     * Directories without an owner file (i.e., created by older launchers) have no known owner
+     */
+    static public boolean isOwnerAlive(File directory) {
+        LOCK.lock();
+        try {
+            if (_instance != null && _instance.getDirectory().getAbsoluteFile().equals(directory.getAbsoluteFile())) {
+                return true;
+            }
+        }
+        finally {
+            LOCK.unlock();
+        }
+
+        File ownerFile = new File(directory, OWNER_FILE_NAME);
+        if (!ownerFile.isFile()) return false;
+
+        try (RandomAccessFile raf = new RandomAccessFile(ownerFile, "rw");
+             FileChannel channel = raf.getChannel()) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) return true;
+
+            lock.release();
+            return false;
+        }
+        catch (OverlappingFileLockException e) {
+            ///  Locked by this JVM
+            return true;
+        }
+        catch (IOException e) {
+            ///  Can't tell, the directory is kept
+            LOGGER.debug("(isOwnerAlive) Failed to check the owner file: {}", ownerFile.getAbsolutePath(), e);
+            return true;
+        }
+    }
+
+    public File getDirectory() {
+        return _directory;
+    }
+
+    // class properties
+    private File _directory;
+    private FileChannel _ownerChannel;
+    private FileLock _ownerLock;
+}
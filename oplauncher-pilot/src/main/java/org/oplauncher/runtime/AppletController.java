@@ -4,8 +4,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.oplauncher.*;
 import org.oplauncher.load.SplashScreen;
+import org.oplauncher.op.OPResponse;
 import org.oplauncher.op.OPServer;
 import org.oplauncher.op.OPServerFactory;
+import org.oplauncher.op.reflection.AppletMethodCache;
 
 import javax.swing.*;
 import java.applet.Applet;
@@ -27,9 +29,10 @@ public abstract class AppletController {
         _classLoader = clzloader;
         _context = context;
 
-        AppletOPDispatcher opdisp = new AppletOPDispatcher(this);
-        /// Configure the OP server with all its observers
-        _opServer = OPServerFactory.newServer(opdisp::processSuccessRequest, opdisp::processFailureRequest);
+        /// The OP messages of this applet are routed through the shared OP server, once its name is known
+        /// (see registerOPRoute)
+        _opDispatcher = new AppletOPDispatcher(this);
+        _opServer = OPServerFactory.getSharedServer();
 
         OPLauncherConfig.instance.registerController(this);
 
@@ -72,10 +75,49 @@ public abstract class AppletController {
         }
     }
 
+    /**
+     * Routes the OP messages of the applet to this controller. Called once the applet name is resolved from the load
+     * request, a route previously registered under another name is moved to the new one
+     */
+    public AppletController registerOPRoute(String appletName) {
+        LOCK.lock();
+        try {
+            if (_routeName != null && !_routeName.equals(appletName)) {
+                getOPServer().unregisterRoute(_routeName);
+            }
+            getOPServer().registerRoute(appletName, _opDispatcher::processSuccessRequest, _opDispatcher::processFailureRequest);
+            _routeName = appletName;
+
+            return this;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    public AppletController unregisterOPRoute() {
+        LOCK.lock();
+        try {
+            if (_routeName != null) {
+                getOPServer().unregisterRoute(_routeName);
+                _routeName = null;
+            }
+
+            return this;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
     public AppletController disposeAllApplets() {
-        if ( getAppletFrame().isDisplayable() ) {
+        if ( getAppletFrame() != null && getAppletFrame().isDisplayable() ) {
             getAppletFrame().dispose();
         }
+        unregisterOPRoute().getOPServer()
+                           .push(OP_EVENT_APPLET_UNLOADED, new OPResponse(getAppletClassLoader().getAppletName(), true, NO_PROP_CODE));
+        AppletEventCoalescer.getInstance().discard(getAppletClassLoader().getAppletName());
+        AppletMethodCache.invalidate(getAppletClassLoader());
 
          return this;
     }
@@ -163,7 +205,10 @@ public abstract class AppletController {
             getAppletFrame().toFront();
 
             // Dispose the splash
-            SplashScreen.instance.closeSplash();
+            SplashScreen.closeSplash();
+            LOGGER.info("First applet frame shown {} ms after the load request (splash: {})",
+                        (System.nanoTime() - getAppletClassLoader().getLoadStartNanos()) / 1_000_000L,
+                        ConfigurationHelper.isSplashActive() ? "on" : "off");
 
             // TODO: Workaround for the toggle mechanism
             if ( isSWTConsole() ) {
@@ -177,6 +222,7 @@ public abstract class AppletController {
             }
 
             LOGGER.info("Applet successfully loaded !");
+            getOPServer().push(OP_EVENT_APPLET_LOADED, new OPResponse(getAppletClassLoader().getAppletName(), true, NO_PROP_CODE));
 
             return "";
         }
@@ -218,8 +264,9 @@ public abstract class AppletController {
 
                 getAppletFrame().dispose();
 
-                // closes the server
-                if (getOPServer().isOPServerRunning()) {
+                // closes the server, only when no other applet is routed through it
+                unregisterOPRoute();
+                if (getOPServer().isOPServerRunning() && !getOPServer().hasRoutes()) {
                     getOPServer().stopOPServer();
                 }
 
@@ -436,4 +483,6 @@ public abstract class AppletController {
     private JButton _javaConsoleButton;
 
     private OPServer _opServer;
+    private AppletOPDispatcher _opDispatcher;
+    private String _routeName;
 }
@@ -0,0 +1,137 @@
+package org.oplauncher.runtime;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+import org.oplauncher.op.OPPlainPayload;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * <p>Applies the window tracking events (move, focus and blur) of the applets. While the browser scrolls, the moves
+ * arrive much faster than the screen can show them, so only the latest pending position of each applet is applied,
+ * at most once per screen frame. Focus and blur are never dropped, they run in the order they were received, after
+ * the position pending at that time.</p>
+ * <p>All the events run on a single thread, off the OP server threads.</p>
+ */
+public class AppletEventCoalescer {
+    static private final Logger LOGGER = LogManager.getLogger(AppletEventCoalescer.class);
+    static private final AppletEventCoalescer instance = new AppletEventCoalescer(ConfigurationHelper.getWindowTrackingRefreshRate());
+
+    protected AppletEventCoalescer(int refreshRate) {
+        _framePeriodNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, refreshRate);
+        _lanes = new ConcurrentHashMap<>();
+        _receivedMoves = new AtomicLong();
+        _appliedMoves = new AtomicLong();
+        _executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "oplauncher-applet-events");
+            t.setDaemon(true);
+            return t;
+        });
+
+        LOGGER.info("Applet window tracking paced at {}Hz", Math.max(1, refreshRate));
+    }
+
+    static public final AppletEventCoalescer getInstance() {
+        return instance;
+    }
+
+    /**
+     * Queues the move of the applet. A move still pending for the same applet is replaced by this one
+     */
+    public AppletEventCoalescer move(final OPPlainPayload payload, final Consumer<OPPlainPayload> handler) {
+        final AppletLane kLane = getLane(payload.getAppletName());
+        _receivedMoves.incrementAndGet();
+
+        kLane._moveHandler = handler;
+        if (kLane._pendingMove.getAndSet(payload) == null) {
+            ///  First move since the last frame, applies it on the next one
+            long delay = Math.max(0L, kLane._lastMoveNanos + _framePeriodNanos - System.nanoTime());
+            _executor.schedule(() -> flushMove(kLane), delay, TimeUnit.NANOSECONDS);
+        }
+
+        return this;
+    }
+
+    /**
+     * Queues an event that must not be dropped nor reordered (focus, blur)
+     */
+    public AppletEventCoalescer ordered(final OPPlainPayload payload, final Consumer<OPPlainPayload> handler) {
+        final AppletLane kLane = getLane(payload.getAppletName());
+
+        _executor.execute(() -> {
+            // the position received before this event goes first
+            flushMove(kLane);
+            apply(payload, handler);
+        });
+
+        return this;
+    }
+
+    /**
+     * Drops the pending events of an applet being disposed
+     */
+    public AppletEventCoalescer discard(final String appletName) {
+        AppletLane lane = appletName != null ? _lanes.remove(appletName) : null;
+        if (lane != null) {
+            lane._pendingMove.set(null);
+        }
+
+        return this;
+    }
+
+    private AppletLane getLane(String appletName) {
+        return _lanes.computeIfAbsent(appletName != null ? appletName : "", name -> new AppletLane());
+    }
+
+    private void flushMove(AppletLane lane) {
+        OPPlainPayload payload = lane._pendingMove.getAndSet(null);
+        if (payload != null) {
+            lane._lastMoveNanos = System.nanoTime();
+            _appliedMoves.incrementAndGet();
+            apply(payload, lane._moveHandler);
+        }
+    }
+
+    private void apply(OPPlainPayload payload, Consumer<OPPlainPayload> handler) {
+        try {
+            handler.accept(payload);
+        }
+        catch (Exception e) {
+            LOGGER.error("Failed to apply the Applet OP [{}] for the applet: {}", payload.getOpCode().opcode(), payload.getAppletName(), e);
+        }
+    }
+
+    public long getReceivedMoves() {
+        return _receivedMoves.get();
+    }
+
+    public long getAppliedMoves() {
+        return _appliedMoves.get();
+    }
+
+    public String getStatistics() {
+        return String.format("moves received/applied: %d/%d", getReceivedMoves(), getAppliedMoves());
+    }
+
+    static private class AppletLane {
+        // class properties
+        private final AtomicReference<OPPlainPayload> _pendingMove = new AtomicReference<>();
+        private volatile Consumer<OPPlainPayload> _moveHandler;
+        private volatile long _lastMoveNanos = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // class properties
+    private final long _framePeriodNanos;
+    private Map<String, AppletLane> _lanes;
+    private AtomicLong _receivedMoves;
+    private AtomicLong _appliedMoves;
+    private ScheduledExecutorService _executor;
+}
@@ -8,6 +8,7 @@ import org.oplauncher.op.OPMessage;
 import org.oplauncher.op.OPPayload;
 import org.oplauncher.op.OPPlainPayload;
 import org.oplauncher.runtime.secur.PayloadParserSecurityHelper;
+import org.oplauncher.runtime.secur.SecurityManager;
 
 import static org.oplauncher.ErrorCode.*;
 import static org.oplauncher.OpCode.*;
@@ -63,6 +64,12 @@ public class AppletOPDispatcher {
         return this;
     }
 
+    private void executeOP(OPPlainPayload payload) {
+        prepareExecutionIfNecessary(payload)
+                .getAppletController(payload)
+                .executeOP(payload.getOpCode(), payload.getParameters().toArray(new String[0]));
+    }
+
     private void processPlainMessage(OPMessage<OPPlainPayload> message) throws DecoderException {
         if (authRequest(message)) {
             OPPlainPayload payload = message.getPayload();
@@ -73,6 +80,11 @@ public class AppletOPDispatcher {
             LOGGER.info("Processing Applet OP [{}]", payload.getOpCode().opcode());
 
             OpCode opcode = payload.getOpCode();
+            ///  The applet is not loaded yet: its archives are only fetched in the background
+            if ( opcode == PREFETCH_APPLET ) {
+                OPLauncherDispatcherPool.getActiveControllerInstance().processPrefetchAppletOp(payload.getParameters());
+                return;
+            }
             /*
              * We need to switch between the OP_LOAD op, and all other OPs, OP_LOAD requires special attention
              * because it needs to reinitialize the applet loader
@@ -84,9 +96,19 @@ public class AppletOPDispatcher {
                     return;
                 }
 
-                prepareExecutionIfNecessary(payload)
-                        .getAppletController(payload)
-                        .executeOP(payload.getOpCode(), payload.getParameters().toArray(new String[0]));
+                /*
+                 * Window tracking events come in bursts while the browser scrolls, only the latest position is
+                 * applied (paced to the screen refresh), focus and blur keep their order
+                 */
+                if ( opcode == CHANGE_POSTION ) {
+                    AppletEventCoalescer.getInstance().move(payload, this::executeOP);
+                }
+                else if ( opcode == FOCUS_APPLET || opcode == BLUR_APPLET ) {
+                    AppletEventCoalescer.getInstance().ordered(payload, this::executeOP);
+                }
+                else {
+                    executeOP(payload);
+                }
             }
             else {
                 OPLauncherController controller = OPLauncherDispatcherPool.getActiveControllerInstance();
@@ -100,6 +122,11 @@ public class AppletOPDispatcher {
         }
     }
     private boolean verifyMagicNumber(OPPlainPayload payload) {
+        ///  An authenticated cipher already rejected any forged payload
+        if (ConfigurationHelper.isSecurePayloadActive() && SecurityManager.getCipherProcessor().isAuthenticated()) {
+            return true;
+        }
+
         long mgtkn  = payload.getMagicToken();
         long cfntkn = ConfigurationHelper.getMagicNumberMask();
 
@@ -108,7 +135,11 @@ public class AppletOPDispatcher {
     public <P extends OPPayload>void processSuccessRequest(OPMessage<P> message) {
         try {
             OPPlainPayload payload;
-            if (ConfigurationHelper.isSecurePayloadActive()) {
+            ///  Already deciphered by the OP server when routing the message
+            if (message.getPayload() instanceof OPPlainPayload) {
+                payload = (OPPlainPayload) message.getPayload();
+            }
+            else if (ConfigurationHelper.isSecurePayloadActive()) {
                 payload = PayloadParserSecurityHelper.decodeSecuredPayload(message);
             }
             else {
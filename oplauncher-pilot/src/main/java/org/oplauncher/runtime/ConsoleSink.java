@@ -0,0 +1,214 @@
+package org.oplauncher.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Collects the output redirected to the Java console (System.out and System.err) without touching the UI. The
+ * lines written go into a bounded, lock-free ring buffer, and the console drains it from its UI thread at a fixed cadence
+ * (see {@link org.oplauncher.ConfigurationHelper#getJavaConsoleFlushMillis()}), appending each batch at once. An
+ * applet printing in a loop can no longer flood the UI event queue: when the console can't keep up, the ring fills
+ * up and the new output is dropped and counted, so the console can show how many lines were lost.</p>
+ */
+public class ConsoleSink {
+    static private final int MAX_PENDING_BYTES = 8192;
+
+    @FunctionalInterface
+    public interface ChunkHandler {
+        void append(String text, boolean error);
+    }
+
+    public ConsoleSink(int maxLines) {
+        int capacity = Integer.highestOneBit(Math.max(16, maxLines - 1)) << 1;
+
+        _maxLines = maxLines;
+        _slots = new AtomicReferenceArray<>(capacity);
+        _mask = capacity - 1;
+        _tail = new AtomicLong();
+        _droppedLines = new AtomicLong();
+        _totalDroppedLines = new AtomicLong();
+        _streams = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Queues the text, from any thread. Returns false if the ring is full and the text was dropped
+     */
+    public boolean offer(String text, boolean error) {
+        if (text == null || text.isEmpty()) return true;
+
+        final Chunk kChunk = new Chunk(text, error);
+        for (;;) {
+            long tail = _tail.get();
+            if (tail - _head >= _slots.length()) {
+                long lines = Math.max(1, countLines(text));
+                _droppedLines.addAndGet(lines);
+                _totalDroppedLines.addAndGet(lines);
+                return false;
+            }
+            if (_tail.compareAndSet(tail, tail + 1)) {
+                _slots.lazySet((int) (tail & _mask), kChunk);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands the queued chunks over, in order. Must be called from a single thread (the UI thread of the console)
+     * @return the number of chunks drained
+     */
+    public int drain(ChunkHandler handler) {
+        for (SinkOutputStream stream : _streams) {
+            stream.flushPending();
+        }
+
+        int count = 0;
+        long head = _head;
+        while (head < _tail.get()) {
+            int index = (int) (head & _mask);
+            Chunk chunk = _slots.get(index);
+            // claimed by a writer, not published yet: next time
+            if (chunk == null) break;
+
+            _slots.lazySet(index, null);
+            _head = ++head;
+            handler.append(chunk._text, chunk._error);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Number of lines dropped since the last call
+     */
+    public long takeDroppedLines() {
+        return _droppedLines.getAndSet(0);
+    }
+    public long getTotalDroppedLines() {
+        return _totalDroppedLines.get();
+    }
+    public int getMaxLines() {
+        return _maxLines;
+    }
+
+    public OutputStream newOutputStream(boolean error) {
+        SinkOutputStream stream = new SinkOutputStream(error);
+        _streams.add(stream);
+
+        return stream;
+    }
+
+    static private int countLines(String text) {
+        int lines = 0;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            lines++;
+        }
+        return lines;
+    }
+
+    static private class Chunk {
+        private Chunk(String text, boolean error) {
+            _text = text;
+            _error = error;
+        }
+
+        // class properties
+        private final String _text;
+        private final boolean _error;
+    }
+
+    /**
+     * Line buffered: the output is queued when a write ends a line (println is two writes, the text and the line
+     * separator), when the pending text gets too big, or on flush. The text of an unfinished line (i.e., a progress
+     * printed with print()) is queued by the next drain, see {@link #flushPending()}
+     */
+    private class SinkOutputStream extends OutputStream {
+        private SinkOutputStream(boolean error) {
+            _error = error;
+            _pending = new ByteArrayOutputStream(128);
+            _lock = new ReentrantLock();
+        }
+
+        @Override
+        public void write(int b) {
+            _lock.lock();
+            try {
+                _pending.write(b);
+                if (b == '\n' || _pending.size() >= MAX_PENDING_BYTES) {
+                    queuePending();
+                }
+            }
+            finally {
+                _lock.unlock();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            _lock.lock();
+            try {
+                _pending.write(b, off, len);
+                if ((len > 0 && b[off + len - 1] == '\n') || _pending.size() >= MAX_PENDING_BYTES) {
+                    queuePending();
+                }
+            }
+            finally {
+                _lock.unlock();
+            }
+        }
+
+        @Override
+        public void flush() {
+            _lock.lock();
+            try {
+                queuePending();
+            }
+            finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Called by the drainer, it never waits for a writer: if one holds the stream, its text comes next time
+         */
+        private void flushPending() {
+            if (_lock.tryLock()) {
+                try {
+                    queuePending();
+                }
+                finally {
+                    _lock.unlock();
+                }
+            }
+        }
+
+        private void queuePending() {
+            if (_pending.size() > 0) {
+                offer(new String(_pending.toByteArray(), Charset.defaultCharset()), _error);
+                _pending.reset();
+            }
+        }
+
+        // class properties
+        private final boolean _error;
+        private final ByteArrayOutputStream _pending;
+        private final Lock _lock;
+    }
+
+    // class properties
+    private final int _maxLines;
+    private final AtomicReferenceArray<Chunk> _slots;
+    private final int _mask;
+    private final AtomicLong _tail;
+    private volatile long _head;
+    private final AtomicLong _droppedLines;
+    private final AtomicLong _totalDroppedLines;
+    private final List<SinkOutputStream> _streams;
+}
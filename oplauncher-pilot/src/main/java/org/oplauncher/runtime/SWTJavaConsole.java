@@ -7,14 +7,16 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.layout.*;
 import org.eclipse.swt.widgets.*;
+import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.custom.StyledText;
 import org.oplauncher.ConfigurationHelper;
 
 import java.io.ByteArrayInputStream;
-import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static org.oplauncher.IConstants.*;
 
@@ -25,11 +27,14 @@ public class SWTJavaConsole implements JavaConsole {
         _display = new Display();
         _shell = new Shell(getDisplay());
         _controller = ctrl;
+        _consoleSink = new ConsoleSink(ConfigurationHelper.getJavaConsoleMaxLines());
+        _flushMillis = ConfigurationHelper.getJavaConsoleFlushMillis();
         getShell().setText("OPLauncher Java Console");
         getShell().setSize(800, 600);
         getShell().setLayout(new GridLayout(1, false));
 
         initializeUI().redirectOutput().printHelloString();
+        getDisplay().timerExec(_flushMillis, this::flushOutput);
     }
 
     @Override
@@ -163,45 +168,58 @@ public class SWTJavaConsole implements JavaConsole {
     @Override
     public JavaConsole redirectOutput() {
         // Redirect System.out
-        PrintStream outStream = new PrintStream(new CustomOutputStream(getDisplay(), getStyledText(), SWT.COLOR_BLACK));
+        PrintStream outStream = new PrintStream(getConsoleSink().newOutputStream(false));
         System.setOut(outStream);
 
         // Redirect System.err
-        PrintStream errStream = new PrintStream(new CustomOutputStream(getDisplay(), getStyledText(), SWT.COLOR_RED));
+        PrintStream errStream = new PrintStream(getConsoleSink().newOutputStream(true));
         System.setErr(errStream);
 
         return this;
     }
 
-    private static class CustomOutputStream extends OutputStream {
-        public CustomOutputStream(Display display, StyledText styledText, int color) {
-            this.display = display;
-            this.styledText = styledText;
-            this.color = color;
+    /**
+     * Appends the output collected since the last flush, as a single append, with the System.err ranges in red.
+     * It runs on the SWT thread and schedules the next flush itself
+     */
+    protected void flushOutput() {
+        if (getStyledText().isDisposed()) return;
+
+        final StringBuilder kText = new StringBuilder();
+        final List<int[]> kErrRanges = new ArrayList<>();
+        getConsoleSink().drain((text, error) -> {
+            if (error) kErrRanges.add(new int[] { kText.length(), text.length() });
+            kText.append(text);
+        });
+
+        long dropped = getConsoleSink().takeDroppedLines();
+        if (dropped > 0) {
+            String notice = String.format("%n[... %d line(s) dropped, %d in total ...]%n", dropped, getConsoleSink().getTotalDroppedLines());
+            kErrRanges.add(new int[] { kText.length(), notice.length() });
+            kText.append(notice);
         }
 
-        @Override
-        public void write(int b) {
-            asyncAppend(String.valueOf((char) b));
-        }
+        if (kText.length() > 0) {
+            int offset = getStyledText().getCharCount();
+            getStyledText().append(kText.toString());
 
-        @Override
-        public void write(byte[] b, int off, int len) {
-            asyncAppend(new String(b, off, len));
-        }
+            Color red = getDisplay().getSystemColor(SWT.COLOR_RED);
+            for (int[] range : kErrRanges) {
+                getStyledText().setStyleRange(new StyleRange(offset + range[0], range[1], red, null));
+            }
 
-        private void asyncAppend(String text) {
-            display.asyncExec(() -> {
-                styledText.append(text);
-                styledText.setForeground(display.getSystemColor(color));
-                styledText.setSelection(styledText.getText().length());
-            });
+            trimToMaxLines();
+            getStyledText().setSelection(getStyledText().getCharCount()); // Auto-scroll to the bottom
         }
 
-        // class properties
-        private final Display display;
-        private final StyledText styledText;
-        private final int color;
+        getDisplay().timerExec(_flushMillis, this::flushOutput);
+    }
+
+    private void trimToMaxLines() {
+        int excess = getStyledText().getLineCount() - getConsoleSink().getMaxLines();
+        if (excess > 0) {
+            getStyledText().replaceTextRange(0, getStyledText().getOffsetAtLine(excess), "");
+        }
     }
 
     protected Shell getShell() {
@@ -213,6 +231,9 @@ public class SWTJavaConsole implements JavaConsole {
     protected StyledText getStyledText() {
         return _outputText;
     }
+    protected ConsoleSink getConsoleSink() {
+        return _consoleSink;
+    }
     protected Composite getButtonPanel() {
         return _buttonPanel;
     }
@@ -239,6 +260,8 @@ public class SWTJavaConsole implements JavaConsole {
     private Button _clearButton;
     private Button _saveButton;
     private Button _infoButton;
+    private ConsoleSink _consoleSink;
+    private int _flushMillis;
 
     private AppletController _controller;
 }
@@ -7,12 +7,12 @@ import org.oplauncher.ConfigurationHelper;
 
 import javax.swing.*;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyledDocument;
 import java.awt.*;
 import java.io.ByteArrayInputStream;
-import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.util.Date;
@@ -34,9 +34,13 @@ public class SwingJavaConsole extends JFrame implements JavaConsole {
         _styleErr = _outputText.addStyle("SystemErr", null);
         StyleConstants.setForeground(_styleErr, Color.RED);  // Red for System.err
         StyleConstants.setBold(_styleErr, true);
+        _consoleSink = new ConsoleSink(ConfigurationHelper.getJavaConsoleMaxLines());
+        _flushTimer = new Timer(ConfigurationHelper.getJavaConsoleFlushMillis(), e -> flushOutput());
+        _flushTimer.setCoalesce(true);
 
         // Process initialization
         initializeUI().redirectOutput().printHelloString();
+        _flushTimer.start();
     }
 
     @Override
@@ -134,11 +138,11 @@ public class SwingJavaConsole extends JFrame implements JavaConsole {
     @Override
     public JavaConsole redirectOutput() {
         // Redirect System.out
-        PrintStream outStream = new PrintStream(new CustomOutputStream(getStyleOut()));
+        PrintStream outStream = new PrintStream(getConsoleSink().newOutputStream(false));
         System.setOut(outStream);
 
         // Redirect System.err
-        PrintStream errStream = new PrintStream(new CustomOutputStream(getStyleErr()));
+        PrintStream errStream = new PrintStream(getConsoleSink().newOutputStream(true));
         System.setErr(errStream);
 
         return this;
@@ -157,27 +161,52 @@ public class SwingJavaConsole extends JFrame implements JavaConsole {
         return isVisible();
     }
 
-    private class CustomOutputStream extends OutputStream {
-        private final Style style;
+    /**
+     * Appends the output collected since the last flush (on the EDT, from the flush timer), one insert per run of
+     * text with the same style, then trims the document to the max number of lines
+     */
+    protected void flushOutput() {
+        final StringBuilder kRun = new StringBuilder();
+        final boolean[] kRunError = new boolean[1];
+
+        int chunks = getConsoleSink().drain((text, error) -> {
+            if (kRun.length() > 0 && kRunError[0] != error) {
+                appendText(kRun.toString(), kRunError[0] ? getStyleErr() : getStyleOut());
+                kRun.setLength(0);
+            }
+            kRunError[0] = error;
+            kRun.append(text);
+        });
+        if (kRun.length() > 0) {
+            appendText(kRun.toString(), kRunError[0] ? getStyleErr() : getStyleOut());
+        }
 
-        public CustomOutputStream(Style style) {
-            this.style = style;
+        long dropped = getConsoleSink().takeDroppedLines();
+        if (dropped > 0) {
+            appendText(String.format("%n[... %d line(s) dropped, %d in total ...]%n", dropped, getConsoleSink().getTotalDroppedLines()), getStyleErr());
         }
 
-        @Override
-        public void write(int b) {
-            appendText(String.valueOf((char) b));
+        if (chunks > 0 || dropped > 0) {
+            trimToMaxLines();
+            getOutputTextPane().setCaretPosition(getStyledDocument().getLength()); // Auto-scroll to the bottom
         }
+    }
 
-        @Override
-        public void write(byte[] b, int off, int len) {
-            appendText(new String(b, off, len));
+    private void appendText(String text, Style style) {
+        try {
+            getStyledDocument().insertString(getStyledDocument().getLength(), text, style); // Append text with style
         }
+        catch (BadLocationException e) {
+            LOGGER.error(e);
+        }
+    }
 
-        private void appendText(String text) {
+    private void trimToMaxLines() {
+        Element root = getStyledDocument().getDefaultRootElement();
+        int excess = root.getElementCount() - getConsoleSink().getMaxLines();
+        if (excess > 0) {
             try {
-                getStyledDocument().insertString(getStyledDocument().getLength(), text, style); // Append text with style
-                getOutputTextPane().setCaretPosition(getStyledDocument().getLength());          // Auto-scroll to the bottom
+                getStyledDocument().remove(0, root.getElement(excess - 1).getEndOffset());
             }
             catch (BadLocationException e) {
                 LOGGER.error(e);
@@ -202,6 +231,9 @@ public class SwingJavaConsole extends JFrame implements JavaConsole {
     protected StyledDocument getStyledDocument() {
         return _styleDoc;
     }
+    protected ConsoleSink getConsoleSink() {
+        return _consoleSink;
+    }
     protected JPanel getButtonPanel() {
         return _buttonPanel;
     }
@@ -222,6 +254,8 @@ public class SwingJavaConsole extends JFrame implements JavaConsole {
     private StyledDocument _styleDoc;
     private Style _styleOut;
     private Style _styleErr;
+    private ConsoleSink _consoleSink;
+    private Timer _flushTimer;
 
     private JButton _clearButton;
     private JButton _saveButton;
@@ -0,0 +1,113 @@
+package org.oplauncher.runtime.secur;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.ConfigurationHelper;
+import org.oplauncher.OPLauncherException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.oplauncher.ErrorCode.ERROR_SECURITY_ERROR;
+
+/**
+ * <p>Loads the cipher key once and keeps it decoded in memory. The key comes from the key file when one is
+ * configured ({@link ConfigurationHelper#getCipherKeyFile()}), otherwise from the Windows registry or the
+ * configuration ({@link ConfigurationHelper#getCipherKey()}).</p>
+ * <p>The key file is watched: a new key written in it is loaded right away (key rotation). {@link #reload()} does
+ * the same on demand.</p>
+ */
+public class CachedCipherKeyProvider implements OPCipherKeyProvider {
+    static private final Logger LOGGER = LogManager.getLogger(CachedCipherKeyProvider.class);
+    static private final Lock LOCK = new ReentrantLock();
+
+    @Override
+    public OPCipherKey getKey() throws OPLauncherException {
+        OPCipherKey key = _key;
+        return key != null ? key : reload();
+    }
+
+    @Override
+    public OPCipherKey reload() throws OPLauncherException {
+        LOCK.lock();
+        try {
+            File keyFile = ConfigurationHelper.getCipherKeyFile();
+            long version = (_key != null) ? _key.getVersion() + 1 : 1L;
+
+            OPCipherKey key;
+            if (keyFile != null) {
+                try {
+                    key = OPCipherKey.fromBase64(FileUtils.readFileToString(keyFile, UTF_8), keyFile.getAbsolutePath(), version);
+                }
+                catch (IOException e) {
+                    throw new OPLauncherException("Failed to read the cipher key file: " + keyFile, e, ERROR_SECURITY_ERROR);
+                }
+                watch(keyFile);
+            }
+            else {
+                key = OPCipherKey.fromBase64(ConfigurationHelper.getCipherKey(), "configuration", version);
+            }
+
+            _key = key;
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Cipher key loaded: {}", key);
+            }
+
+            return key;
+        }
+        finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Starts watching the key file, once
+     */
+    private void watch(final File keyFile) {
+        if (_watcher != null) return;
+
+        final Path kDirectory = keyFile.getAbsoluteFile().getParentFile().toPath();
+        final Path kFileName = keyFile.toPath().getFileName();
+        try {
+            final WatchService kWatchService = kDirectory.getFileSystem().newWatchService();
+            kDirectory.register(kWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            _watcher = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        WatchKey watchKey = kWatchService.take();
+                        boolean changed = watchKey.pollEvents().stream()
+                                                  .anyMatch(event -> kFileName.equals(event.context()));
+                        watchKey.reset();
+
+                        if (changed) {
+                            LOGGER.info("The cipher key file changed, reloading the key: {}", keyFile);
+                            reload();
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    catch (Exception e) {
+                        // i.e., the file is being written, the next event loads it
+                        LOGGER.warn("Failed to reload the cipher key, keeping the current one: {}", e.getMessage());
+                    }
+                }
+            }, "oplauncher-cipher-key-watcher");
+            _watcher.setDaemon(true);
+            _watcher.start();
+        }
+        catch (IOException e) {
+            LOGGER.warn("Unable to watch the cipher key file, the key will only change on reload: {}", keyFile, e);
+        }
+    }
+
+    // class properties
+    private volatile OPCipherKey _key;
+    private Thread _watcher;
+}
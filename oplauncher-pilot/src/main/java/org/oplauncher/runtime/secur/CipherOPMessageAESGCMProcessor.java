@@ -0,0 +1,50 @@
+package org.oplauncher.runtime.secur;
+
+import org.oplauncher.OPLauncherException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+import static org.oplauncher.ErrorCode.ERROR_SECURITY_ERROR;
+
+/**
+ * <p>AES-GCM payloads: <code>base64(IV (12 bytes) || ciphertext || tag (16 bytes))</code>, with a 128, 192 or 256
+ * bits key. GCM authenticates the payload, a tampered or forged payload fails to decrypt, so the magic number check
+ * is not needed. AES runs on the AES-NI/ARMv8 instructions of the CPU when available.</p>
+ */
+public class CipherOPMessageAESGCMProcessor extends CipherOPMessageProcessor {
+    static public final String ALGORITHM = "AES/GCM/NoPadding";
+    static public final int IV_LENGTH = 12;
+    static public final int TAG_LENGTH_BITS = 128;
+
+    protected CipherOPMessageAESGCMProcessor() {
+        super(ALGORITHM);
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    protected SecretKeySpec createKeySpec(byte[] keyBytes) throws OPLauncherException {
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new OPLauncherException("Invalid AES key length. Expected 16, 24 or 32 bytes.", ERROR_SECURITY_ERROR);
+        }
+
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+
+    @Override
+    protected byte[] decrypt(Cipher cipher, boolean initialized, SecretKeySpec keySpec, byte[] encryptedBytes) throws GeneralSecurityException {
+        if (encryptedBytes.length < IV_LENGTH + TAG_LENGTH_BITS / 8) {
+            throw new GeneralSecurityException("AES-GCM payload too short: " + encryptedBytes.length + " bytes");
+        }
+
+        ///  Every payload has its own IV, so the cipher is always initialized
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH_BITS, encryptedBytes, 0, IV_LENGTH));
+        return cipher.doFinal(encryptedBytes, IV_LENGTH, encryptedBytes.length - IV_LENGTH);
+    }
+}
@@ -0,0 +1,107 @@
+package org.oplauncher.runtime.secur;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.oplauncher.OPLauncherException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.oplauncher.ErrorCode.ERROR_SECURITY_ERROR;
+
+/**
+ * <p>Base of the payload cipher processors. The key spec is built once per key (and rebuilt only when the key
+ * provider hands out a new key), and each thread keeps its own {@link Cipher} instance, since they are not thread-safe and are expensive
+ * to look up. Neither the key nor the payloads are ever logged.</p>
+ */
+public abstract class CipherOPMessageProcessor implements OPCipherProcessor {
+    static private final Logger LOGGER = LogManager.getLogger(CipherOPMessageProcessor.class);
+
+    protected CipherOPMessageProcessor(final String transformation) {
+        _transformation = transformation;
+        _threadCipher = ThreadLocal.withInitial(() -> {
+            try {
+                return new ThreadCipher(Cipher.getInstance(transformation));
+            }
+            catch (GeneralSecurityException e) {
+                throw new OPLauncherException("Cipher not available: " + transformation, e, ERROR_SECURITY_ERROR);
+            }
+        });
+    }
+
+    /**
+     * Builds the key spec from the decoded key, after checking its length
+     */
+    abstract protected SecretKeySpec createKeySpec(byte[] keyBytes) throws OPLauncherException;
+
+    /**
+     * Deciphers the payload with the cipher of the calling thread
+     * @param cipher      the cipher of the calling thread
+     * @param initialized true if the cipher is already initialized for decryption with the given key
+     */
+    abstract protected byte[] decrypt(Cipher cipher, boolean initialized, SecretKeySpec keySpec, byte[] encryptedBytes) throws GeneralSecurityException;
+
+    @Override
+    public String decryptPayload(String encryptedBase64Json, OPCipherKey key) throws OPLauncherException {
+        SecretKeySpec keySpec = getKeySpec(key);
+        byte[] encryptedBytes = Base64.decodeBase64(encryptedBase64Json);
+
+        ThreadCipher threadCipher = _threadCipher.get();
+        try {
+            byte[] decryptedBytes = decrypt(threadCipher._cipher, threadCipher._keySpec == keySpec, keySpec, encryptedBytes);
+            threadCipher._keySpec = keySpec;
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("({}) Cipher encoded size: {} bytes, decoded size: {} bytes", _transformation, encryptedBytes.length, decryptedBytes.length);
+            }
+
+            return new String(decryptedBytes, UTF_8);
+        }
+        catch (Exception e) {
+            // the cipher state is unknown after a failure
+            threadCipher._keySpec = null;
+            throw new OPLauncherException(String.format("Decryption process failed for the payload (%d bytes)", encryptedBytes.length), e, ERROR_SECURITY_ERROR);
+        }
+    }
+
+    protected SecretKeySpec getKeySpec(OPCipherKey key) throws OPLauncherException {
+        CachedKey cachedKey = _cachedKey;
+        if (cachedKey != null && cachedKey._key == key) {
+            return cachedKey._keySpec;
+        }
+
+        SecretKeySpec keySpec = createKeySpec(key.getKeyBytes());
+        _cachedKey = new CachedKey(key, keySpec);
+
+        return keySpec;
+    }
+
+    static private class CachedKey {
+        private CachedKey(OPCipherKey key, SecretKeySpec keySpec) {
+            _key = key;
+            _keySpec = keySpec;
+        }
+
+        // class properties
+        private final OPCipherKey _key;
+        private final SecretKeySpec _keySpec;
+    }
+
+    static private class ThreadCipher {
+        private ThreadCipher(Cipher cipher) {
+            _cipher = cipher;
+        }
+
+        // class properties
+        private final Cipher _cipher;
+        private SecretKeySpec _keySpec;
+    }
+
+    // class properties
+    private final String _transformation;
+    private final ThreadLocal<ThreadCipher> _threadCipher;
+    private volatile CachedKey _cachedKey;
+}
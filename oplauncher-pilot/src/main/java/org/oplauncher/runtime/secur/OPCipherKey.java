@@ -0,0 +1,53 @@
+package org.oplauncher.runtime.secur;
+
+import org.apache.commons.codec.binary.Base64;
+import org.oplauncher.OPLauncherException;
+
+import static org.oplauncher.ErrorCode.ERROR_SECURITY_ERROR;
+
+/**
+ * <p>Decoded cipher key, as loaded by an {@link OPCipherKeyProvider}. A rotation creates a new instance, so the
+ * cipher processors can keep their key spec until the instance they get changes. The key material never shows in
+ * {@link #toString()}.</p>
+ */
+public class OPCipherKey {
+
+    public OPCipherKey(byte[] keyBytes, String source, long version) {
+        _keyBytes = keyBytes.clone();
+        _source = source;
+        _version = version;
+    }
+
+    static public OPCipherKey fromBase64(String base64Key, String source, long version) throws OPLauncherException {
+        if (base64Key == null || base64Key.trim().isEmpty()) {
+            throw new OPLauncherException("Empty cipher key from: " + source, ERROR_SECURITY_ERROR);
+        }
+
+        return new OPCipherKey(Base64.decodeBase64(base64Key.trim()), source, version);
+    }
+
+    /**
+     * The key bytes, the array must not be changed
+     */
+    protected byte[] getKeyBytes() {
+        return _keyBytes;
+    }
+    public int getLength() {
+        return _keyBytes.length;
+    }
+    public String getSource() {
+        return _source;
+    }
+    public long getVersion() {
+        return _version;
+    }
+
+    public String toString() {
+        return String.format("OPCipherKey{source=%s, version=%d, length=%d bytes}", getSource(), getVersion(), getLength());
+    }
+
+    // class properties
+    private final byte[] _keyBytes;
+    private final String _source;
+    private final long _version;
+}
@@ -0,0 +1,15 @@
+package org.oplauncher.runtime.secur;
+
+import org.oplauncher.OPLauncherException;
+
+public interface OPCipherKeyProvider {
+    /**
+     * The current key. No lookup (registry, configuration, file) happens here once the key is loaded
+     */
+    public OPCipherKey getKey() throws OPLauncherException;
+
+    /**
+     * Looks the key up again, i.e. after a key rotation
+     */
+    public OPCipherKey reload() throws OPLauncherException;
+}
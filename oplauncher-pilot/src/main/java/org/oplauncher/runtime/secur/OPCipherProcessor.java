@@ -3,5 +3,16 @@ package org.oplauncher.runtime.secur;
 import org.oplauncher.OPLauncherException;
 
 public interface OPCipherProcessor {
-    public String decryptPayload(String encryptedBase64Json, String base64Key) throws OPLauncherException;
+    public String decryptPayload(String encryptedBase64Json, OPCipherKey key) throws OPLauncherException;
+
+    default public String decryptPayload(String encryptedBase64Json, String base64Key) throws OPLauncherException {
+        return decryptPayload(encryptedBase64Json, OPCipherKey.fromBase64(base64Key, "parameter", 0L));
+    }
+
+    /**
+     * True if the cipher authenticates the payloads (i.e., AEAD), which makes the magic number check redundant
+     */
+    default public boolean isAuthenticated() {
+        return false;
+    }
 }
@@ -1,15 +1,15 @@
 package org.oplauncher.runtime.secur;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.oplauncher.ConfigurationHelper;
 import org.oplauncher.OPLauncherException;
+import org.oplauncher.op.OPJsonCodec;
 import org.oplauncher.op.OPMessage;
 import org.oplauncher.op.OPPlainPayload;
 import org.oplauncher.op.OPSecurePayload;
 
+import java.io.IOException;
+
 import static org.oplauncher.ErrorCode.SECURE_PAYLOAD_PARSE_ERROR;
 
 public class PayloadParserSecurityHelper {
@@ -18,19 +18,17 @@ public class PayloadParserSecurityHelper {
     static public final OPPlainPayload decodeSecuredPayload(OPMessage message) {
         OPSecurePayload securePayload = (OPSecurePayload) message.getPayload();
         String encPayload = securePayload.getPayload();
-        String encKey = ConfigurationHelper.getCipherKey();
-        String decPayload = SecurityManager.getCipherProcessor().decryptPayload(encPayload, encKey);
-        if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("Processing secure payload...");
-            LOGGER.info("Secure payload received from the Chrome extension: {}", encPayload);
-            LOGGER.info("Secure payload deciphered from the Chrome extension: {}", decPayload);
+        ///  Cached key, no registry/configuration lookup per message
+        OPCipherKey key = SecurityManager.getCipherKeyProvider().getKey();
+        String decPayload = SecurityManager.getCipherProcessor().decryptPayload(encPayload, key);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("(decodeSecuredPayload) Secure payload deciphered: {} -> {} chars", encPayload.length(), decPayload.length());
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            return objectMapper.readValue(decPayload, OPPlainPayload.class);
+            return OPJsonCodec.readPlainPayload(decPayload);
         }
-        catch (JsonProcessingException e) {
+        catch (IOException e) {
             throw new OPLauncherException("Failed to parse secure payload", e, SECURE_PAYLOAD_PARSE_ERROR);
         }
     }
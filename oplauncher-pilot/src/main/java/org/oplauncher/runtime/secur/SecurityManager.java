@@ -6,13 +6,39 @@ import org.oplauncher.OPLauncherException;
 import static org.oplauncher.ErrorCode.UNSUPPORTED_CIPHER_TYPE;
 
 public class SecurityManager {
+    ///  The processors cache their key spec and per-thread ciphers, so they are shared
+    static private final OPCipherProcessor DES3_PROCESSOR = new CipherOPMessage3DESProcessor();
+    static private final OPCipherProcessor AES_PROCESSOR = new CipherOPMessageAESGCMProcessor();
+    static private final OPCipherKeyProvider KEY_PROVIDER = new CachedCipherKeyProvider();
+    static private volatile OPCipherProcessor _cipherProcessor;
 
     static public final OPCipherProcessor getCipherProcessor() {
-        OPCipherType type = ConfigurationHelper.getDefaultCipherType();
+        OPCipherProcessor processor = _cipherProcessor;
+        if (processor == null) {
+            _cipherProcessor = processor = getCipherProcessor(ConfigurationHelper.getDefaultCipherType());
+        }
+
+        return processor;
+    }
+
+    static public final OPCipherProcessor getCipherProcessor(OPCipherType type) {
         switch (type) {
-            case DES3: return new CipherOPMessage3DESProcessor();
+            case DES3: return DES3_PROCESSOR;
+            case AES: return AES_PROCESSOR;
             default:
                 throw new OPLauncherException("Unsupported cipher type: " + type, UNSUPPORTED_CIPHER_TYPE);
         }
     }
+
+    static public final OPCipherKeyProvider getCipherKeyProvider() {
+        return KEY_PROVIDER;
+    }
+
+    /**
+     * Picks the configured cipher and loads the key again, i.e. after a key rotation
+     */
+    static public final OPCipherKey reload() throws OPLauncherException {
+        _cipherProcessor = null;
+        return KEY_PROVIDER.reload();
+    }
 }
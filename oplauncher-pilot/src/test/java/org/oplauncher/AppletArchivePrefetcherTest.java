@@ -0,0 +1,179 @@
+package org.oplauncher;
+
+import org.oplauncher.res.ArchiveClassSource;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.testng.Assert.*;
+
+public class AppletArchivePrefetcherTest {
+    File _jarFile;
+
+    @BeforeTest
+    public void setUp() throws Exception {
+        _jarFile = File.createTempFile("oplauncher-prefetch", ".jar");
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(_jarFile))) {
+            jos.putNextEntry(new JarEntry("com/xpto/Applet.class"));
+            jos.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+            jos.closeEntry();
+        }
+    }
+
+    @AfterTest
+    public void tearDown() {
+        _jarFile.delete();
+    }
+
+    @Test
+    public void test_prefetchedArchiveIsAHit() throws Exception {
+        final Map<URL, AtomicInteger> kFetches = new ConcurrentHashMap<>();
+        final CountDownLatch kFetched = new CountDownLatch(2);
+        AppletArchivePrefetcher prefetcher = new AppletArchivePrefetcher(8, (url, cookies) -> {
+            kFetches.computeIfAbsent(url, k -> new AtomicInteger()).incrementAndGet();
+            kFetched.countDown();
+            return null;
+        });
+        URL jar1 = new URL("http://localhost/applet/a.jar"), jar2 = new URL("http://localhost/applet/b.jar");
+
+        assertEquals(prefetcher.prefetch(Arrays.asList(jar1, jar2), Collections.emptyMap()), 2);
+        // already queued
+        assertEquals(prefetcher.prefetch(Collections.singletonList(jar1), Collections.emptyMap()), 0);
+        assertTrue(kFetched.await(5, TimeUnit.SECONDS));
+
+        assertTrue(prefetcher.awaitPrefetch(jar1));
+        assertTrue(prefetcher.awaitPrefetch(jar2));
+        assertFalse(prefetcher.awaitPrefetch(new URL("http://localhost/applet/c.jar")));
+        assertEquals(kFetches.get(jar1).get(), 1);
+        assertEquals(prefetcher.getLoadHits(), 2, prefetcher.getStatistics());
+        assertEquals(prefetcher.getLoadMisses(), 1);
+    }
+
+    @Test
+    public void test_loadJoinsRunningPrefetch() throws Exception {
+        final CountDownLatch kStarted = new CountDownLatch(1), kRelease = new CountDownLatch(1);
+        final AtomicInteger kFetches = new AtomicInteger();
+        AppletArchivePrefetcher prefetcher = new AppletArchivePrefetcher(8, (url, cookies) -> {
+            kFetches.incrementAndGet();
+            kStarted.countDown();
+            kRelease.await();
+            return null;
+        });
+        URL jar = new URL("http://localhost/applet/slow.jar");
+
+        prefetcher.prefetch(Collections.singletonList(jar), Collections.emptyMap());
+        assertTrue(kStarted.await(5, TimeUnit.SECONDS));
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e) {
+                // released anyway
+            }
+            kRelease.countDown();
+        }).start();
+
+        assertTrue(prefetcher.awaitPrefetch(jar));
+        assertEquals(kFetches.get(), 1);
+        assertTrue(prefetcher.getStatistics().contains("(warm/joined/missed): 0/1/0"));
+    }
+
+    @Test
+    public void test_queuedPrefetchCancelledByLoad() throws Exception {
+        final CountDownLatch kStarted = new CountDownLatch(1), kRelease = new CountDownLatch(1);
+        final Map<URL, AtomicInteger> kFetches = new ConcurrentHashMap<>();
+        AppletArchivePrefetcher prefetcher = new AppletArchivePrefetcher(8, (url, cookies) -> {
+            kFetches.computeIfAbsent(url, k -> new AtomicInteger()).incrementAndGet();
+            kStarted.countDown();
+            kRelease.await();
+            return null;
+        });
+        URL busy = new URL("http://localhost/applet/busy.jar"), queued = new URL("http://localhost/applet/queued.jar");
+
+        prefetcher.prefetch(Arrays.asList(busy, queued), Collections.emptyMap());
+        assertTrue(kStarted.await(5, TimeUnit.SECONDS));
+
+        // the single prefetch thread is busy: the load fetches the queued archive itself
+        assertFalse(prefetcher.awaitPrefetch(queued));
+        kRelease.countDown();
+        assertTrue(prefetcher.awaitPrefetch(busy));
+        assertNull(kFetches.get(queued));
+    }
+
+    @Test
+    public void test_fullQueueDropsPrefetches() throws Exception {
+        final CountDownLatch kRelease = new CountDownLatch(1);
+        AppletArchivePrefetcher prefetcher = new AppletArchivePrefetcher(1, (url, cookies) -> {
+            kRelease.await();
+            return null;
+        });
+
+        int queued = prefetcher.prefetch(Arrays.asList(new URL("http://localhost/1.jar"), new URL("http://localhost/2.jar"),
+                                                       new URL("http://localhost/3.jar"), new URL("http://localhost/4.jar")), Collections.emptyMap());
+        kRelease.countDown();
+
+        // one running, one queued
+        assertEquals(queued, 2);
+        assertTrue(prefetcher.getStatistics().endsWith("indexes adopted: 0"));
+        assertTrue(prefetcher.getStatistics().startsWith("Archives (queued/fetched/failed/dropped): 2/"), prefetcher.getStatistics());
+        assertTrue(prefetcher.getStatistics().contains("/0/2, loads"), prefetcher.getStatistics());
+    }
+
+    @Test
+    public void test_prefetchedIndexAdoptedOnce() throws Exception {
+        final CountDownLatch kFetched = new CountDownLatch(1);
+        AppletArchivePrefetcher prefetcher = new AppletArchivePrefetcher(8, (url, cookies) -> {
+            kFetched.countDown();
+            return _jarFile;
+        });
+        URL jar = new URL("http://localhost/applet/indexed.jar");
+
+        prefetcher.prefetch(Collections.singletonList(jar), Collections.emptyMap());
+        assertTrue(kFetched.await(5, TimeUnit.SECONDS));
+        // running or done: the load waits for it
+        assertTrue(prefetcher.awaitPrefetch(jar));
+
+        ArchiveClassSource source = prefetcher.takeIndexedSource(_jarFile);
+        assertNotNull(source);
+        try {
+            assertTrue(source.containsClass("com.xpto.Applet"));
+            assertNull(prefetcher.takeIndexedSource(_jarFile));
+        }
+        finally {
+            source.close();
+        }
+    }
+
+    @Test
+    public void test_prefetchParametersResolveArchiveURLs() throws Exception {
+        final Map<URL, AtomicInteger> kFetches = new ConcurrentHashMap<>();
+        final CountDownLatch kFetched = new CountDownLatch(2);
+        AppletArchivePrefetcher prefetcher = new AppletArchivePrefetcher(8, (url, cookies) -> {
+            kFetches.computeIfAbsent(url, k -> new AtomicInteger()).incrementAndGet();
+            kFetched.countDown();
+            return null;
+        });
+
+        int queued = prefetcher.prefetch(Arrays.asList("prefetch_applet", "https://www.xpto.com/applets", "codebase=lib",
+                                                       "one.jar, https://cdn.xpto.com/two.jar", "Applet", "", "com.xpto.Applet"));
+        assertEquals(queued, 2);
+        assertTrue(kFetched.await(5, TimeUnit.SECONDS));
+
+        assertTrue(kFetches.containsKey(new URL("https://www.xpto.com/applets/lib/one.jar")), kFetches.toString());
+        assertTrue(kFetches.containsKey(new URL("https://cdn.xpto.com/two.jar")), kFetches.toString());
+    }
+}
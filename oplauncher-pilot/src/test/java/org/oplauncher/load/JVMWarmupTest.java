@@ -0,0 +1,38 @@
+package org.oplauncher.load;
+
+import org.oplauncher.ConfigurationHelper;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.oplauncher.IConstants.CONFIG_PROP_JVM_WARMUP_ACTIVE;
+import static org.testng.Assert.*;
+
+public class JVMWarmupTest {
+
+    @AfterMethod
+    public void restoreConfig() {
+        ConfigurationHelper.CONFIG.remove(CONFIG_PROP_JVM_WARMUP_ACTIVE);
+    }
+
+    @Test
+    public void test_warmupClassesExist() throws Exception {
+        // a renamed class would silently fall out of the warm-up (and of the CDS archive)
+        for (String className : JVMWarmup.getWarmupClasses()) {
+            assertNotNull(Class.forName(className, false, getClass().getClassLoader()), className);
+        }
+    }
+
+    @Test
+    public void test_disabledWarmupIsNoOp() {
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_JVM_WARMUP_ACTIVE, "off");
+        assertFalse(ConfigurationHelper.isJVMWarmupActive());
+        assertFalse(JVMWarmup.startWarmup());
+    }
+
+    @Test
+    public void test_warmupIsRepeatable() {
+        // the second run finds the classes already loaded
+        assertTrue(JVMWarmup.warmup() >= 0);
+        assertTrue(JVMWarmup.warmup() >= 0);
+    }
+}
@@ -0,0 +1,60 @@
+package org.oplauncher.load;
+
+import org.oplauncher.ConfigurationHelper;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.oplauncher.IConstants.CONFIG_PROP_SPLASH_ACTIVE;
+import static org.testng.Assert.*;
+
+public class SplashScreenTest {
+
+    @AfterMethod
+    public void restoreConfig() {
+        ConfigurationHelper.CONFIG.remove(CONFIG_PROP_SPLASH_ACTIVE);
+    }
+
+    @Test
+    public void test_disabledSplashIsNoOp() {
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_SPLASH_ACTIVE, "off");
+        assertFalse(ConfigurationHelper.isSplashActive());
+
+        assertFalse(SplashScreen.showSplash());
+        SplashScreen.closeSplash();
+    }
+
+    @Test
+    public void test_headlessDisablesSplash() {
+        if (!GraphicsEnvironment.isHeadless()) return;
+
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_SPLASH_ACTIVE, "on");
+        assertFalse(ConfigurationHelper.isSplashActive());
+    }
+
+    @Test
+    public void test_splashImageScaledOnce() {
+        Image image = SplashScreen.getSplashImage();
+        assertEquals(image.getWidth(null), SplashScreen.WSIZE);
+        assertEquals(image.getHeight(null), SplashScreen.HSIZE);
+        assertSame(SplashScreen.getSplashImage(), image);
+    }
+
+    @Test
+    public void test_scaleKeepsImageOfTheSameSize() {
+        Image image = new BufferedImage(SplashScreen.WSIZE, SplashScreen.HSIZE, BufferedImage.TYPE_INT_ARGB);
+        assertSame(SplashScreen.scale(image, SplashScreen.WSIZE, SplashScreen.HSIZE), image);
+    }
+
+    @Test
+    public void test_scaleToTheRequestedSize() {
+        Image source = ConfigurationHelper.getSplashIcon().getImage();
+        int width = SplashScreen.WSIZE / 2, height = SplashScreen.HSIZE / 2;
+
+        Image scaled = SplashScreen.scale(source, width, height);
+        assertEquals(scaled.getWidth(null), width);
+        assertEquals(scaled.getHeight(null), height);
+    }
+}
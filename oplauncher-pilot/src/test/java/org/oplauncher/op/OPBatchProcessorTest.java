@@ -0,0 +1,155 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.oplauncher.ConfigurationHelper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.oplauncher.ErrorCode.INVALID_BATCH_PAYLOAD;
+import static org.oplauncher.ErrorCode.METHOD_CALL_CANCELLED;
+import static org.oplauncher.IConstants.*;
+import static org.testng.Assert.*;
+
+public class OPBatchProcessorTest {
+    static final String[] APPLETS = {"batch_applet1", "batch_applet2", "batch_applet3"};
+
+    HttpOPServer<OPPayload> _server;
+    int _port;
+    Map<String, List<Integer>> _received = new ConcurrentHashMap<>();
+    Set<String> _threads = ConcurrentHashMap.newKeySet();
+    ObjectMapper _mapper = new ObjectMapper();
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_SECUR_ACTIVE, "false");
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_OP_SERVER_APPTKN_ACTIVE, "false");
+
+        try (ServerSocket probe = new ServerSocket(0)) {
+            _port = probe.getLocalPort();
+        }
+        _server = new HttpOPServer<>("127.0.0.1", _port);
+        for (String applet : APPLETS) {
+            _received.put(applet, new CopyOnWriteArrayList<>());
+            _server.registerRoute(applet, message -> {
+                OPPlainPayload payload = (OPPlainPayload) message.getPayload();
+                _threads.add(Thread.currentThread().getName());
+                _received.get(payload.getAppletName()).add(payload.getPosX());
+            }, null);
+        }
+        _server.startOPServer();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        _server.stopOPServer();
+    }
+
+    JsonNode post(String body, int expectedStatus) throws Exception {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            HttpPost post = new HttpPost(String.format("http://127.0.0.1:%d/%s", _port, DEFAULT_OPSERVER_CTXROOT));
+            post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+            try (CloseableHttpResponse response = client.execute(post)) {
+                assertEquals(response.getCode(), expectedStatus);
+                return _mapper.readTree(EntityUtils.toString(response.getEntity()));
+            }
+        }
+    }
+
+    @Test
+    public void test_batchKeepsOrderPerApplet() throws Exception {
+        final int kOps = 30;
+        StringBuilder batch = new StringBuilder("{\"batch\":[");
+        for (int i = 0; i < kOps; i++) {
+            if (i > 0) batch.append(',');
+            batch.append(String.format("{\"op\":\"move_applet\",\"applet_name\":\"%s\",\"px\":%d,\"py\":%d}", APPLETS[i % APPLETS.length], i, i));
+        }
+        // invalid entry, must fail alone
+        batch.append(",\"not_a_payload\"]}");
+
+        JsonNode response = post(batch.toString(), 200);
+        JsonNode results = response.get("results");
+
+        assertEquals(results.size(), kOps + 1);
+        for (int i = 0; i < kOps; i++) {
+            assertTrue(results.get(i).get("succeed").asBoolean(), "Operation failed: " + i);
+        }
+        assertFalse(results.get(kOps).get("succeed").asBoolean());
+        assertFalse(response.get("succeed").asBoolean());
+
+        for (int a = 0; a < APPLETS.length; a++) {
+            List<Integer> positions = _received.get(APPLETS[a]);
+            assertEquals(positions.size(), kOps / APPLETS.length);
+            for (int i = 0; i < positions.size(); i++) {
+                assertEquals(positions.get(i).intValue(), a + i * APPLETS.length);
+            }
+        }
+        // the applets ran on the batch threads
+        assertTrue(_threads.stream().anyMatch(name -> name.startsWith("oplauncher-op-batch")), _threads.toString());
+    }
+
+    @Test
+    public void test_batchTooBig() throws Exception {
+        StringBuilder batch = new StringBuilder("{\"batch\":[");
+        for (int i = 0; i <= ConfigurationHelper.getOPBatchMaxSize(); i++) {
+            if (i > 0) batch.append(',');
+            batch.append("{\"op\":\"move_applet\",\"applet_name\":\"batch_applet1\",\"px\":1,\"py\":1}");
+        }
+        batch.append("]}");
+
+        JsonNode response = post(batch.toString(), 400);
+        assertEquals(response.get("errorcode").asInt(), INVALID_BATCH_PAYLOAD.code());
+    }
+
+    @Test
+    public void test_batchTimeoutFillsEveryResult() throws Exception {
+        final CountDownLatch kRelease = new CountDownLatch(1);
+        HttpOPServer<OPPayload> server = new HttpOPServer<>("127.0.0.1", 0);
+        server.registerRoute("fast_applet", message -> {}, null);
+        server.registerRoute("slow_applet", message -> {
+            try {
+                kRelease.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, null);
+
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_OP_CALL_TIMEOUT, "200");
+        try {
+            OPBatchResponse response = new OPBatchProcessor<>(server).process("{\"batch\":[" +
+                    "{\"op\":\"move_applet\",\"applet_name\":\"fast_applet\",\"px\":1,\"py\":1}," +
+                    "{\"op\":\"move_applet\",\"applet_name\":\"slow_applet\",\"px\":1,\"py\":1}," +
+                    "{\"op\":\"move_applet\",\"applet_name\":\"slow_applet\",\"px\":2,\"py\":2}]}");
+            JsonNode results = _mapper.valueToTree(response).get("results");
+
+            assertEquals(results.size(), 3);
+            assertTrue(results.get(0).get("succeed").asBoolean());
+            for (int i = 1; i < 3; i++) {
+                assertFalse(results.get(i).get("succeed").asBoolean());
+                assertEquals(results.get(i).get("errorcode").asInt(), METHOD_CALL_CANCELLED.code());
+            }
+        }
+        finally {
+            ConfigurationHelper.CONFIG.remove(CONFIG_PROP_OP_CALL_TIMEOUT);
+            kRelease.countDown();
+        }
+    }
+}
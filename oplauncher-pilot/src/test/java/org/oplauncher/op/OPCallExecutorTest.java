@@ -0,0 +1,75 @@
+package org.oplauncher.op;
+
+import org.oplauncher.OPLauncherException;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.oplauncher.ErrorCode.METHOD_CALL_CANCELLED;
+import static org.testng.Assert.*;
+
+public class OPCallExecutorTest {
+
+    @Test
+    public void test_callResultDelivered() throws Exception {
+        OPCallExecutor executor = new OPCallExecutor(2, 4);
+        AtomicReference<String> result = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit(() -> "applet-result", 1000, r -> { result.set(r); done.countDown(); }, e -> fail("Unexpected failure", e));
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(result.get(), "applet-result");
+    }
+
+    @Test
+    public void test_slowCallCancelled() throws Exception {
+        OPCallExecutor executor = new OPCallExecutor(1, 4);
+        AtomicReference<OPLauncherException> failure = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit(() -> {
+            try {
+                Thread.sleep(5000);
+            }
+            catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return "late";
+        }, 100, r -> fail("The call should have timed out"), e -> { failure.set(e); done.countDown(); });
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(failure.get().getErrorCode(), METHOD_CALL_CANCELLED);
+        assertEquals(executor.getTimedOutCount(), 1);
+
+        // the worker was interrupted and is free for the next call
+        CountDownLatch next = new CountDownLatch(1);
+        executor.submit(() -> 1, 1000, r -> next.countDown(), e -> fail("Unexpected failure", e));
+        assertTrue(next.await(2, TimeUnit.SECONDS));
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    public void test_fullQueueRejects() throws Exception {
+        OPCallExecutor executor = new OPCallExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<OPLauncherException> failure = new AtomicReference<>();
+
+        // one running, one queued, the third one doesn't fit
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> release.await(5, TimeUnit.SECONDS), 0, r -> { }, e -> { });
+        }
+        executor.submit(() -> true, 0, r -> fail("The call should have been rejected"), failure::set);
+
+        assertNotNull(failure.get());
+        assertEquals(failure.get().getErrorCode(), METHOD_CALL_CANCELLED);
+        assertEquals(executor.getRejectedCount(), 1);
+        assertEquals(executor.getMaxQueueDepth(), 1);
+
+        release.countDown();
+    }
+}
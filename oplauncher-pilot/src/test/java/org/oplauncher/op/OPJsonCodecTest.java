@@ -0,0 +1,85 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.oplauncher.OPLauncherException;
+import org.oplauncher.op.reflection.AppletMethod;
+import org.oplauncher.op.reflection.AppletOverloadResolver;
+import org.oplauncher.op.reflection.ReturnValueMarshaller;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.oplauncher.IConstants.NO_PROP_CODE;
+import static org.testng.Assert.*;
+
+public class OPJsonCodecTest {
+    static final String PAYLOAD = "{\"_tkn_\":\"tkn\",\"op\":\"applet_method\",\"applet_name\":\"calc\",\"m\":\"add\"," +
+                                  "\"extra\":{\"nested\":[1,2,{\"deep\":true}],\"text\":\"ignored\"},\"params\":[\"40\",\"2\"]}";
+
+    static public class Calculator {
+        public int[] add(int a, int b) { return new int[] { a + b, a - b }; }
+    }
+
+    @Test
+    public void test_kindOf() throws Exception {
+        assertEquals(OPJsonCodec.kindOf(PAYLOAD), OPJsonCodec.PayloadKind.SINGLE);
+        assertEquals(OPJsonCodec.kindOf("{\"x\":{\"batch\":1},\"batch\":[]}"), OPJsonCodec.PayloadKind.BATCH);
+        assertEquals(OPJsonCodec.kindOf("{\"seq\":3,\"message\":{\"batch\":[]}}"), OPJsonCodec.PayloadKind.ENVELOPE);
+    }
+
+    @Test(expectedExceptions = OPLauncherException.class)
+    public void test_kindOfNotAnObject() throws Exception {
+        OPJsonCodec.kindOf("[1,2]");
+    }
+
+    @Test
+    public void test_readPayloadSkipsUnknownFields() throws Exception {
+        OPPlainPayload payload = OPJsonCodec.readPlainPayload(PAYLOAD);
+        assertEquals(payload.getAppletName(), "calc");
+        assertEquals(payload.getMethodName(), "add");
+        assertEquals(payload.getParameters(), Arrays.asList("40", "2"));
+
+        payload = OPJsonCodec.readPlainPayload("{\"params\":[\"a\",7,true,null,{\"k\":1}]}");
+        assertEquals(payload.getParameters(), Arrays.asList("a", "7", "true", null, "{\"k\":1}"));
+        payload = OPJsonCodec.readPlainPayload(new ObjectMapper().readTree("{\"params\":\"a;b\"}"));
+        assertEquals(payload.getParameters(), Arrays.asList("a", "b"));
+    }
+
+    @Test
+    public void test_compactOutput() throws Exception {
+        String json = OPJsonCodec.writeValueAsString(new OPResponse("ok", true, NO_PROP_CODE));
+        assertFalse(json.contains("\n") || json.contains(": "), json);
+    }
+
+    /**
+     * Previous path: a mapper per message, JSON tree then binding, pretty printed response
+     */
+    static String legacyCycle(Calculator target) throws Throwable {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode root = mapper.readTree(PAYLOAD);
+        OPPlainPayload payload = mapper.treeToValue(root, OPPlainPayload.class);
+        return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(dispatch(target, payload));
+    }
+
+    static String codecCycle(Calculator target) throws Throwable {
+        OPJsonCodec.kindOf(PAYLOAD);
+        OPPlainPayload payload = OPJsonCodec.readPlainPayload(PAYLOAD);
+        return OPJsonCodec.writeValueAsString(dispatch(target, payload));
+    }
+
+    static OPResponse dispatch(Calculator target, OPPlainPayload payload) throws Throwable {
+        AppletMethod method = AppletOverloadResolver.resolve(Calculator.class, payload.getMethodName(), payload.getParameters());
+        Object result = method.invoke(target, payload.getParameters());
+        return new OPResponse("Method execution succeeded!", true, NO_PROP_CODE).setReturnData(ReturnValueMarshaller.marshal(result));
+    }
+
+    @Test
+    public void test_sameResponseAsTheLegacyPath() throws Throwable {
+        Calculator target = new Calculator();
+        String json = codecCycle(target);
+
+        assertTrue(json.contains("\"methodResp\":[42,38]"), json);
+        assertEquals(new ObjectMapper().readTree(json), new ObjectMapper().readTree(legacyCycle(target)));
+    }
+}
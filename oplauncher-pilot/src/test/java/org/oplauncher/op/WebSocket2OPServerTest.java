@@ -0,0 +1,156 @@
+package org.oplauncher.op;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.oplauncher.ConfigurationHelper;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.oplauncher.IConstants.*;
+import static org.testng.Assert.*;
+
+public class WebSocket2OPServerTest {
+    static final String APPLET_NAME = "ws2_test_applet";
+    static final int MESSAGES = 200;
+
+    static final String[] CONFIG_PROPS = {CONFIG_PROP_SECUR_ACTIVE, CONFIG_PROP_OP_SERVER_APPTKN_ACTIVE};
+
+    WebSocket2OPServer<OPPayload> _server;
+    List<OPPlainPayload> _received = new CopyOnWriteArrayList<>();
+    Map<String, String> _savedConfig = new HashMap<>();
+    ObjectMapper _mapper = new ObjectMapper();
+
+    @BeforeTest
+    public void setUp() {
+        for (String prop : CONFIG_PROPS) {
+            _savedConfig.put(prop, ConfigurationHelper.CONFIG.getProperty(prop));
+            ConfigurationHelper.CONFIG.setProperty(prop, "false");
+        }
+
+        _server = new WebSocket2OPServer<>("127.0.0.1", 0);
+        _server.registerRoute(APPLET_NAME, message -> _received.add((OPPlainPayload) message.getPayload()), null);
+        _server.startOPServer();
+    }
+
+    @AfterTest
+    public void tearDown() {
+        _server.stopOPServer();
+    }
+
+    @AfterTest
+    public void restoreConfig() {
+        _savedConfig.forEach((prop, value) -> {
+            if (value != null) ConfigurationHelper.CONFIG.setProperty(prop, value);
+            else ConfigurationHelper.CONFIG.remove(prop);
+        });
+    }
+
+    static String movePayload(int i) {
+        return String.format("{\"op\":\"move_applet\",\"applet_name\":\"%s\",\"px\":%d,\"py\":%d,\"params\":[]}", APPLET_NAME, i, i);
+    }
+
+    @Test
+    public void test_roundTripInOrder() throws Exception {
+        _received.clear();
+        long processed = _server.getMessageCount();
+
+        try (WebSocket2TestClient client = new WebSocket2TestClient("127.0.0.1", _server.getBoundPort(), "/" + DEFAULT_OPSERVER_CTXROOT)) {
+            assertTrue(client.getHandshakeStatus().contains("101"), client.getHandshakeStatus());
+
+            for (int i = 1; i <= MESSAGES; i++) {
+                client.send(String.format("{\"seq\":%d,\"message\":%s}", i, movePayload(i)));
+                JsonNode resp = _mapper.readTree(client.receive());
+
+                assertEquals(resp.get("kind").asText(), OPWebSocketMessage.KIND_RESPONSE);
+                assertEquals(resp.get("seq").asLong(), i);
+                assertTrue(resp.get("response").get("succeed").asBoolean());
+            }
+        }
+
+        assertEquals(_received.size(), MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            assertEquals(_received.get(i).getPosX().intValue(), i + 1);
+        }
+        // the message is accounted once its response is sent
+        for (int i = 0; i < 50 && _server.getMessageCount() - processed < MESSAGES; i++) Thread.sleep(10);
+        assertEquals(_server.getMessageCount() - processed, MESSAGES);
+    }
+
+    @Test
+    public void test_serverPush() throws Exception {
+        try (WebSocket2TestClient client = new WebSocket2TestClient("127.0.0.1", _server.getBoundPort(), "/" + DEFAULT_OPSERVER_CTXROOT)) {
+            // the connection is registered by the server after the handshake
+            for (int i = 0; i < 50 && _server.getConnectionCount() == 0; i++) Thread.sleep(10);
+
+            _server.push(OP_EVENT_APPLET_LOADED, new OPResponse(APPLET_NAME, true, NO_PROP_CODE));
+            JsonNode push = _mapper.readTree(client.receive());
+
+            assertEquals(push.get("kind").asText(), OPWebSocketMessage.KIND_PUSH);
+            assertEquals(push.get("event").asText(), OP_EVENT_APPLET_LOADED);
+            assertEquals(push.get("response").get("message").asText(), APPLET_NAME);
+        }
+    }
+
+    @Test
+    public void test_heartbeatOverHttp() throws Exception {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            HttpGet get = new HttpGet(String.format("http://127.0.0.1:%d/%s", _server.getBoundPort(), DEFAULT_HB_CTXROOT));
+            try (CloseableHttpResponse response = client.execute(get)) {
+                assertEquals(response.getCode(), 200);
+                EntityUtils.consume(response.getEntity());
+            }
+        }
+    }
+
+    /**
+     * Same messages through the HTTP OP server (one POST per message, kept-alive connection)
+     */
+    @Test
+    public void test_roundTripOverHttp() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        HttpOPServer<OPPayload> httpServer = new HttpOPServer<>("127.0.0.1", port);
+        List<OPPlainPayload> received = new CopyOnWriteArrayList<>();
+        httpServer.registerRoute(APPLET_NAME, message -> received.add((OPPlainPayload) message.getPayload()), null);
+        httpServer.startOPServer();
+
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            for (int i = 1; i <= MESSAGES; i++) {
+                HttpPost post = new HttpPost(String.format("http://127.0.0.1:%d/%s", port, DEFAULT_OPSERVER_CTXROOT));
+                post.setEntity(new StringEntity(movePayload(i), ContentType.APPLICATION_JSON));
+
+                try (CloseableHttpResponse response = client.execute(post)) {
+                    EntityUtils.consume(response.getEntity());
+                    assertEquals(response.getCode(), 200);
+                }
+            }
+        }
+        finally {
+            httpServer.stopOPServer();
+        }
+
+        assertEquals(received.size(), MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            assertEquals(received.get(i).getPosX().intValue(), i + 1);
+        }
+        for (int i = 0; i < 50 && httpServer.getMessageCount() < MESSAGES; i++) Thread.sleep(10);
+        assertEquals(httpServer.getMessageCount(), MESSAGES);
+    }
+}
@@ -0,0 +1,104 @@
+package org.oplauncher.op;
+
+import org.apache.commons.codec.binary.Base64;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * Minimal WebSocket client (text frames only) used to exercise the WebSocket OP server locally
+ */
+public class WebSocket2TestClient implements Closeable {
+    static private final SecureRandom RANDOM = new SecureRandom();
+
+    public WebSocket2TestClient(String host, int port, String path) throws IOException {
+        _socket = new Socket(host, port);
+        _socket.setTcpNoDelay(true);
+        _in = new DataInputStream(new BufferedInputStream(_socket.getInputStream()));
+        _out = _socket.getOutputStream();
+
+        byte[] key = new byte[16];
+        RANDOM.nextBytes(key);
+        String request = "GET " + path + " HTTP/1.1\r\n" +
+                         "Host: " + host + ":" + port + "\r\n" +
+                         "Upgrade: websocket\r\n" +
+                         "Connection: Upgrade\r\n" +
+                         "Sec-WebSocket-Key: " + Base64.encodeBase64String(key) + "\r\n" +
+                         "Sec-WebSocket-Version: 13\r\n\r\n";
+        _out.write(request.getBytes(StandardCharsets.US_ASCII));
+        _out.flush();
+
+        _handshakeStatus = readHandshakeStatus();
+    }
+
+    private String readHandshakeStatus() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int matched = 0, b;
+        final byte[] kEnd = {'\r', '\n', '\r', '\n'};
+        while (matched < kEnd.length && (b = _in.read()) >= 0) {
+            header.write(b);
+            matched = (b == kEnd[matched]) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+
+        return new String(header.toByteArray(), StandardCharsets.US_ASCII).split("\r\n")[0];
+    }
+
+    public String getHandshakeStatus() {
+        return _handshakeStatus;
+    }
+
+    public void send(String text) throws IOException {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        byte[] mask = new byte[4];
+        RANDOM.nextBytes(mask);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x81);
+        if (data.length < 126) {
+            frame.write(0x80 | data.length);
+        }
+        else {
+            frame.write(0x80 | 126);
+            frame.write(data.length >>> 8);
+            frame.write(data.length);
+        }
+        frame.write(mask);
+        for (int i = 0; i < data.length; i++) {
+            frame.write(data[i] ^ mask[i & 0x3]);
+        }
+
+        _out.write(frame.toByteArray());
+        _out.flush();
+    }
+
+    public String receive() throws IOException {
+        int b0 = _in.readUnsignedByte();
+        int b1 = _in.readUnsignedByte();
+        long length = b1 & 0x7F;
+        if (length == 126) length = _in.readUnsignedShort();
+        else if (length == 127) length = _in.readLong();
+
+        byte[] data = new byte[(int) length];
+        _in.readFully(data);
+
+        return (b0 & 0x0F) == WebSocket2Connection.OPCODE_TEXT ? new String(data, StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _socket.close();
+    }
+
+    // class properties
+    private Socket _socket;
+    private DataInputStream _in;
+    private OutputStream _out;
+    private String _handshakeStatus;
+}
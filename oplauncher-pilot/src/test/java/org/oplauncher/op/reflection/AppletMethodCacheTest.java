@@ -0,0 +1,60 @@
+package org.oplauncher.op.reflection;
+
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class AppletMethodCacheTest {
+
+    static public class RemoteTarget {
+        public int add(int a, int b) { return a + b; }
+        public double scale(double value, double factor) { return value * factor; }
+        public String echo(String value) { return value; }
+        public boolean negate(boolean value) { return !value; }
+        public char first(char value) { return value; }
+    }
+
+    static AppletMethod resolve(String methodName, int numOfParameters, AtomicInteger resolutions) {
+        return AppletMethodCache.resolve(RemoteTarget.class, methodName + '/' + numOfParameters, () -> {
+            resolutions.incrementAndGet();
+            for (Method method : RemoteTarget.class.getMethods()) {
+                if (method.getName().equals(methodName) && method.getParameterCount() == numOfParameters) {
+                    return new AppletMethod(method);
+                }
+            }
+            throw new IllegalStateException("Not found: " + methodName);
+        });
+    }
+
+    @Test
+    public void test_convertAndInvoke() throws Throwable {
+        RemoteTarget target = new RemoteTarget();
+        AtomicInteger resolutions = new AtomicInteger();
+
+        assertEquals(resolve("add", 2, resolutions).invoke(target, Arrays.asList("40", "2")), 42);
+        assertEquals(resolve("scale", 2, resolutions).invoke(target, Arrays.asList("0.1", "3")), 0.1d * 3d);
+        assertEquals(resolve("echo", 1, resolutions).invoke(target, Arrays.asList("hello")), "hello");
+        assertEquals(resolve("negate", 1, resolutions).invoke(target, Arrays.asList("true")), false);
+        assertEquals(resolve("first", 1, resolutions).invoke(target, Arrays.asList("xyz")), 'x');
+    }
+
+    @Test
+    public void test_resolvedOnceAndInvalidated() {
+        AtomicInteger resolutions = new AtomicInteger();
+        AppletMethodCache.invalidate(RemoteTarget.class.getClassLoader());
+
+        AppletMethod method = resolve("add", 2, resolutions);
+        for (int i = 0; i < 10; i++) {
+            assertSame(resolve("add", 2, resolutions), method);
+        }
+        assertEquals(resolutions.get(), 1);
+
+        AppletMethodCache.invalidate(RemoteTarget.class.getClassLoader());
+        assertNotSame(resolve("add", 2, resolutions), method);
+        assertEquals(resolutions.get(), 2);
+    }
+}
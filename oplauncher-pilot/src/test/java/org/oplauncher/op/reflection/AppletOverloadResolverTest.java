@@ -0,0 +1,78 @@
+package org.oplauncher.op.reflection;
+
+import org.oplauncher.OPLauncherException;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class AppletOverloadResolverTest {
+
+    static public class OverloadedTarget {
+        public String set(String value) { return "string:" + value; }
+        public String set(int value) { return "int:" + value; }
+        public String set(long value) { return "long:" + value; }
+        public String set(double value) { return "double:" + value; }
+        public String set(boolean value) { return "boolean:" + value; }
+        public String set(char value) { return "char:" + value; }
+
+        public String move(int x, int y) { return "int,int"; }
+        public String move(double x, double y) { return "double,double"; }
+        public String move(String label, Integer offset) { return "string,Integer:" + offset; }
+
+        public String only(java.awt.Point point) { return "point"; }
+    }
+
+    static Object call(String methodName, String... params) throws Throwable {
+        List<String> kParams = Arrays.asList(params);
+        return AppletOverloadResolver.resolve(OverloadedTarget.class, methodName, kParams).invoke(new OverloadedTarget(), kParams);
+    }
+
+    @Test
+    public void test_shapes() {
+        assertEquals(AppletOverloadResolver.shapesOf(Arrays.asList("42", "-7", "9999999999", "1.5", "1e3", "TRUE", "x", "abc", null, "", "NaN")),
+                     "iilddbcsnss");
+    }
+
+    @Test
+    public void test_resolvesByArgumentType() throws Throwable {
+        assertEquals(call("set", "42"), "int:42");
+        assertEquals(call("set", "9999999999"), "long:9999999999");
+        assertEquals(call("set", "0.25"), "double:0.25");
+        assertEquals(call("set", "false"), "boolean:false");
+        assertEquals(call("set", "x"), "char:x");
+        assertEquals(call("set", "hello"), "string:hello");
+        assertEquals(call("set", (String) null), "string:null");
+
+        assertEquals(call("move", "10", "20"), "int,int");
+        assertEquals(call("move", "10", "20.5"), "double,double");
+        assertEquals(call("move", "label", "3"), "string,Integer:3");
+        assertEquals(call("move", "label", null), "string,Integer:null");
+    }
+
+    @Test
+    public void test_paddedValuesConvertedAsClassified() throws Throwable {
+        // classified on the trimmed value, so converted from it too
+        assertEquals(call("set", " 5"), "int:5");
+        assertEquals(call("set", "true "), "boolean:true");
+        assertEquals(call("set", " 0.25 "), "double:0.25");
+        assertEquals(call("move", " 10", "20 "), "int,int");
+        // text is passed as given
+        assertEquals(call("set", " hello "), "string: hello ");
+    }
+
+    @Test
+    public void test_decisionCachedPerShape() {
+        AppletMethod first = AppletOverloadResolver.resolve(OverloadedTarget.class, "set", Collections.singletonList("1"));
+        assertSame(AppletOverloadResolver.resolve(OverloadedTarget.class, "set", Collections.singletonList("99")), first);
+        assertNotSame(AppletOverloadResolver.resolve(OverloadedTarget.class, "set", Collections.singletonList("1.0")), first);
+    }
+
+    @Test(expectedExceptions = OPLauncherException.class)
+    public void test_noMatchingOverload() {
+        AppletOverloadResolver.resolve(OverloadedTarget.class, "only", Collections.singletonList("1"));
+    }
+}
@@ -0,0 +1,61 @@
+package org.oplauncher.op.reflection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.oplauncher.op.OPResponse;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.testng.Assert.*;
+
+public class ReturnValueMarshallerTest {
+
+    public enum Status { READY, BUSY }
+
+    static public class Sample {
+        public String getName() { return _name; }
+        public int[] getValues() { return new int[] { 1, 2, 3 }; }
+        public Status getStatus() { return Status.READY; }
+        public Sample getNext() { return _next; }
+
+        private String _name = "sample";
+        private Sample _next;
+    }
+
+    @Test
+    public void test_scalarsAndArrays() {
+        assertNull(ReturnValueMarshaller.marshal(null));
+        assertEquals(ReturnValueMarshaller.marshal(42), 42);
+        assertEquals(ReturnValueMarshaller.marshal('c'), "c");
+        assertEquals(ReturnValueMarshaller.marshal(Status.BUSY), "BUSY");
+        assertEquals(ReturnValueMarshaller.marshal(new byte[] { 1, 2, 3 }), "AQID");
+        assertEquals(ReturnValueMarshaller.marshal(new char[] { 'o', 'k' }), "ok");
+
+        int[] ints = new int[] { 1, 2 };
+        assertSame(ReturnValueMarshaller.marshal(ints), ints);
+        assertEquals(ReturnValueMarshaller.marshal(new Object[] { "a", 'b', Status.READY }), Arrays.asList("a", "b", "READY"));
+    }
+
+    @Test
+    public void test_collectionsAndBeans() throws Exception {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put(1, new HashSet<>(Collections.singletonList("x")));
+        map.put("bean", new Sample());
+
+        String json = new ObjectMapper().writeValueAsString(new OPResponse("ok", true, 0).setReturnData(ReturnValueMarshaller.marshal(map)));
+        assertTrue(json.contains("\"methodResp\":{\"1\":[\"x\"],\"bean\":{\"name\":\"sample\",\"next\":null,\"status\":\"READY\",\"values\":[1,2,3]}}"), json);
+    }
+
+    @Test
+    public void test_cyclesAndComponents() {
+        Sample sample = new Sample();
+        sample._next = sample;
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> bean = (Map<String, Object>) ReturnValueMarshaller.marshal(sample);
+        assertEquals(bean.get("next"), sample.toString());
+
+        java.awt.Canvas canvas = new java.awt.Canvas();
+        assertEquals(ReturnValueMarshaller.marshal(canvas), canvas.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package org.oplauncher.res;
+
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.testng.Assert.*;
+
+public class ArchiveClassSourceTest {
+    File _jarFile;
+
+    @BeforeTest
+    public void setUp() throws Exception {
+        _jarFile = File.createTempFile("oplauncher-archive", ".jar");
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(_jarFile))) {
+            jos.putNextEntry(new JarEntry("com/xpto/"));
+            jos.closeEntry();
+            jos.putNextEntry(new JarEntry("com/xpto/Applet.class"));
+            jos.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+            jos.closeEntry();
+            jos.putNextEntry(new JarEntry("com/xpto/messages.properties"));
+            jos.write("hello=world".getBytes(StandardCharsets.UTF_8));
+            jos.closeEntry();
+        }
+    }
+
+    @AfterTest
+    public void tearDown() {
+        _jarFile.delete();
+    }
+
+    @Test
+    public void test_indexAndReadEntries() throws Exception {
+        try (ArchiveClassSource source = new ArchiveClassSource(_jarFile)) {
+            assertEquals(source.size(), 2, "Directories should not be indexed");
+            assertTrue(source.containsClass("com.xpto.Applet"));
+            assertFalse(source.containsClass("com.xpto.Missing"));
+
+            byte[] klassBytes = source.readClass("com.xpto.Applet");
+            assertEquals(klassBytes.length, 4);
+            assertEquals(klassBytes[0], (byte) 0xCA);
+
+            assertEquals(new String(source.readEntry("com/xpto/messages.properties"), StandardCharsets.UTF_8), "hello=world");
+            assertNotNull(source.getEntryURL("com/xpto/messages.properties"));
+            assertNull(source.getEntryURL("com/xpto/none.properties"));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.oplauncher.res;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+
+import static org.testng.Assert.*;
+
+public class TempClassPathHomeTest {
+    File _otherHome;
+
+    @BeforeTest
+    public void setUp() throws Exception {
+        _otherHome = Files.createTempDirectory("oplauncher-other-home").toFile();
+    }
+
+    @AfterTest
+    public void tearDown() {
+        FileUtils.deleteQuietly(_otherHome);
+    }
+
+    @Test
+    public void test_ownHomeIsAlive() {
+        File home = TempClassPathHome.getInstance().getDirectory();
+
+        assertTrue(home.isDirectory());
+        assertTrue(new File(home, TempClassPathHome.OWNER_FILE_NAME).isFile());
+        assertTrue(TempClassPathHome.isOwnerAlive(home));
+    }
+
+    @Test
+    public void test_ownerAliveWhileLocked() throws Exception {
+        assertFalse(TempClassPathHome.isOwnerAlive(_otherHome), "A home without owner file has no known owner");
+
+        try (RandomAccessFile raf = new RandomAccessFile(new File(_otherHome, TempClassPathHome.OWNER_FILE_NAME), "rw");
+             FileChannel channel = raf.getChannel()) {
+            FileLock lock = channel.lock();
+            assertTrue(TempClassPathHome.isOwnerAlive(_otherHome));
+            lock.release();
+        }
+
+        assertFalse(TempClassPathHome.isOwnerAlive(_otherHome), "The owner released its lock");
+    }
+}
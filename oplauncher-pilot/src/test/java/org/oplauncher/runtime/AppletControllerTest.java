@@ -0,0 +1,33 @@
+package org.oplauncher.runtime;
+
+import org.oplauncher.AppletClassLoader;
+import org.oplauncher.op.OPServer;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class AppletControllerTest {
+
+    @Test
+    public void test_routesFollowTheAppletName() throws Exception {
+        AppletController first = new AppletClassLoader(null).getAppletController();
+        AppletController second = new AppletClassLoader(null).getAppletController();
+        OPServer server = first.getOPServer();
+        assertSame(second.getOPServer(), server);
+
+        // no route until the applets are named by their load requests
+        final int kRoutes = server.getRouteCount();
+        first.registerOPRoute("applet1");
+        second.registerOPRoute("applet2");
+        assertEquals(server.getRouteCount(), kRoutes + 2);
+
+        // renamed: the route moves, it isn't duplicated
+        second.registerOPRoute("applet2-renamed");
+        assertEquals(server.getRouteCount(), kRoutes + 2);
+
+        first.disposeAllApplets();
+        second.disposeAllApplets();
+        assertEquals(server.getRouteCount(), 0);
+        assertFalse(server.hasRoutes());
+    }
+}
@@ -0,0 +1,80 @@
+package org.oplauncher.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.oplauncher.OpCode;
+import org.oplauncher.op.OPPlainPayload;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class AppletEventCoalescerTest {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static OPPlainPayload payload(OpCode opcode, String appletName, int pos) throws Exception {
+        return MAPPER.readValue(String.format("{\"op\":\"%s\",\"applet_name\":\"%s\",\"px\":%d,\"py\":%d}",
+                                              opcode.opcode(), appletName, pos, pos), OPPlainPayload.class);
+    }
+
+    @Test
+    public void test_burstOfMovesAppliesLatest() throws Exception {
+        AppletEventCoalescer coalescer = new AppletEventCoalescer(60);
+        List<Integer> applied = new CopyOnWriteArrayList<>();
+
+        final int kMoves = 2000;
+        for (int i = 1; i <= kMoves; i++) {
+            coalescer.move(payload(OpCode.CHANGE_POSTION, "applet1", i), p -> applied.add(p.getPosX()));
+        }
+        // an ordered event runs after the pending move
+        CountDownLatch done = new CountDownLatch(1);
+        coalescer.ordered(payload(OpCode.FOCUS_APPLET, "applet1", 0), p -> done.countDown());
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(coalescer.getReceivedMoves(), kMoves);
+        assertTrue(applied.size() < kMoves / 10, "Too many moves applied: " + applied.size());
+        assertEquals(applied.get(applied.size() - 1).intValue(), kMoves);
+        for (int i = 1; i < applied.size(); i++) {
+            assertTrue(applied.get(i) > applied.get(i - 1), "Stale move applied after a newer one");
+        }
+    }
+
+    @Test
+    public void test_focusAndBlurKeepOrder() throws Exception {
+        AppletEventCoalescer coalescer = new AppletEventCoalescer(60);
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            OpCode opcode = i % 2 == 0 ? OpCode.FOCUS_APPLET : OpCode.BLUR_APPLET;
+            coalescer.ordered(payload(opcode, "applet2", i), p -> events.add(p.getOpCode().name() + p.getPosX()));
+            coalescer.move(payload(OpCode.CHANGE_POSTION, "applet2", i), p -> { });
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        coalescer.ordered(payload(OpCode.FOCUS_APPLET, "applet2", 0), p -> done.countDown());
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(events.size(), 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(events.get(i), (i % 2 == 0 ? "FOCUS_APPLET" : "BLUR_APPLET") + i);
+        }
+    }
+
+    @Test
+    public void test_discardDropsPendingMove() throws Exception {
+        AppletEventCoalescer coalescer = new AppletEventCoalescer(1);
+        List<Integer> applied = new CopyOnWriteArrayList<>();
+
+        // the first move goes on the first frame, the second one waits for the next frame (1 second)
+        coalescer.move(payload(OpCode.CHANGE_POSTION, "applet3", 1), p -> applied.add(p.getPosX()));
+        Thread.sleep(100);
+        coalescer.move(payload(OpCode.CHANGE_POSTION, "applet3", 2), p -> applied.add(p.getPosX()));
+        coalescer.discard("applet3");
+        Thread.sleep(1200);
+
+        assertEquals(applied.size(), 1);
+        assertEquals(applied.get(0).intValue(), 1);
+    }
+}
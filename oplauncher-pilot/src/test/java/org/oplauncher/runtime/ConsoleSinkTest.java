@@ -0,0 +1,113 @@
+package org.oplauncher.runtime;
+
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.*;
+
+public class ConsoleSinkTest {
+
+    static String drainAll(ConsoleSink sink) {
+        StringBuilder sb = new StringBuilder();
+        sink.drain((text, error) -> sb.append(error ? text.toUpperCase() : text));
+        return sb.toString();
+    }
+
+    @Test
+    public void test_orderedAndStyled() {
+        ConsoleSink sink = new ConsoleSink(100);
+        PrintStream out = new PrintStream(sink.newOutputStream(false));
+        PrintStream err = new PrintStream(sink.newOutputStream(true));
+        String nl = System.lineSeparator();
+
+        out.println("one");
+        err.println("two");
+        out.println("three");
+        assertEquals(drainAll(sink), "one" + nl + "TWO" + nl + "three" + nl);
+        assertEquals(drainAll(sink), "");
+    }
+
+    @Test
+    public void test_unfinishedLineQueuedByDrain() throws Exception {
+        ConsoleSink sink = new ConsoleSink(100);
+        OutputStream out = sink.newOutputStream(false);
+
+        out.write('a');
+        out.write('b');
+        assertEquals(drainAll(sink), "ab");
+
+        out.write('c');
+        out.write('\n');
+        assertEquals(drainAll(sink), "c\n");
+        assertEquals(drainAll(sink), "");
+    }
+
+    @Test
+    public void test_fullRingDropsAndCounts() {
+        // 100 lines: room for 128 chunks, one per line
+        ConsoleSink sink = new ConsoleSink(100);
+        PrintStream out = new PrintStream(sink.newOutputStream(false));
+
+        for (int i = 0; i < 1000; i++) out.println("line " + i);
+
+        List<String> lines = new ArrayList<>();
+        sink.drain((text, error) -> lines.add(text));
+        assertEquals(lines.size(), 128);
+        assertEquals(lines.get(0), "line 0" + System.lineSeparator());
+        assertEquals(sink.takeDroppedLines(), 872);
+        assertEquals(sink.getTotalDroppedLines(), 872);
+        assertEquals(sink.takeDroppedLines(), 0);
+
+        out.println("after");
+        assertEquals(drainAll(sink), "after" + System.lineSeparator());
+    }
+
+    @Test
+    public void test_concurrentWritersSingleDrainer() throws Exception {
+        final int kWriters = 8, kLines = 5_000;
+        final ConsoleSink kSink = new ConsoleSink(1000);
+        final PrintStream kOut = new PrintStream(kSink.newOutputStream(false), true);
+        final CountDownLatch kDone = new CountDownLatch(kWriters);
+        final AtomicBoolean kFailed = new AtomicBoolean();
+
+        for (int w = 0; w < kWriters; w++) {
+            final int kWriter = w;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < kLines; i++) kOut.println(kWriter + ":" + i);
+                kDone.countDown();
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+
+        ///  Per writer, the drained lines must keep their order
+        final int[] kLast = new int[kWriters];
+        Arrays.fill(kLast, -1);
+        final long[] kReceived = new long[1];
+        final ConsoleSink.ChunkHandler kHandler = (text, error) -> {
+            for (String line : text.split("\\R")) {
+                if (line.isEmpty()) continue;
+                String[] parts = line.split(":");
+                int writer = Integer.parseInt(parts[0]), index = Integer.parseInt(parts[1]);
+                if (index <= kLast[writer]) kFailed.set(true);
+                kLast[writer] = index;
+                kReceived[0]++;
+            }
+        };
+        while (kDone.getCount() > 0) {
+            kSink.drain(kHandler);
+            Thread.sleep(5);
+        }
+        kSink.drain(kHandler);
+
+        assertFalse(kFailed.get());
+        assertTrue(kReceived[0] + kSink.getTotalDroppedLines() >= (long) kWriters * kLines);
+    }
+}
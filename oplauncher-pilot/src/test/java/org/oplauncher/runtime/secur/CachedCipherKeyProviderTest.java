@@ -0,0 +1,64 @@
+package org.oplauncher.runtime.secur;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.FileUtils;
+import org.oplauncher.ConfigurationHelper;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.oplauncher.IConstants.CONFIG_PROP_SECUR_KEYFILE;
+import static org.testng.Assert.*;
+
+public class CachedCipherKeyProviderTest {
+
+    @AfterMethod
+    public void resetConfig() {
+        ConfigurationHelper.CONFIG.remove(CONFIG_PROP_SECUR_KEYFILE);
+    }
+
+    @Test
+    public void test_keyLoadedOnce() {
+        OPCipherKeyProvider provider = new CachedCipherKeyProvider();
+
+        OPCipherKey key = provider.getKey();
+        assertEquals(key.getLength(), 24);
+        assertFalse(key.toString().contains(CipherOPMessageProcessorTest.KEY));
+        for (int i = 0; i < 10; i++) {
+            assertSame(provider.getKey(), key);
+        }
+
+        OPCipherKey reloaded = provider.reload();
+        assertNotSame(reloaded, key);
+        assertEquals(reloaded.getVersion(), key.getVersion() + 1);
+        assertSame(provider.getKey(), reloaded);
+    }
+
+    @Test
+    public void test_keyFileRotation() throws Exception {
+        File keyFile = File.createTempFile("oplauncher", ".key");
+        keyFile.deleteOnExit();
+        FileUtils.writeStringToFile(keyFile, CipherOPMessageProcessorTest.KEY + "\n", UTF_8);
+        ConfigurationHelper.CONFIG.setProperty(CONFIG_PROP_SECUR_KEYFILE, keyFile.getAbsolutePath());
+
+        OPCipherKeyProvider provider = new CachedCipherKeyProvider();
+        OPCipherProcessor processor = new CipherOPMessageAESGCMProcessor();
+        String json = "{\"m\":\"rotate\"}";
+
+        OPCipherKey key = provider.getKey();
+        assertEquals(key.getSource(), keyFile.getAbsolutePath());
+        assertEquals(processor.decryptPayload(CipherOPMessageProcessorTest.encryptAESGCM(json, CipherOPMessageProcessorTest.KEY), provider.getKey()), json);
+
+        String rotatedKey = Base64.encodeBase64String(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+        FileUtils.writeStringToFile(keyFile, rotatedKey, UTF_8);
+
+        long deadline = System.currentTimeMillis() + 15_000L;
+        while (provider.getKey() == key && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(provider.getKey().getLength(), 16);
+        assertEquals(processor.decryptPayload(CipherOPMessageProcessorTest.encryptAESGCM(json, rotatedKey), provider.getKey()), json);
+    }
+}
@@ -0,0 +1,124 @@
+package org.oplauncher.runtime.secur;
+
+import org.apache.commons.codec.binary.Base64;
+import org.oplauncher.OPLauncherException;
+import org.testng.annotations.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.*;
+
+public class CipherOPMessageProcessorTest {
+    static final String KEY = "oFcwe0uR6plrVa1eQJljTiqb10clfGaH";
+    static final String OTHER_KEY = Base64.encodeBase64String(new byte[32]);
+    static final OPCipherKey CIPHER_KEY = OPCipherKey.fromBase64(KEY, "test", 1L);
+    static final OPCipherKey OTHER_CIPHER_KEY = OPCipherKey.fromBase64(OTHER_KEY, "test", 2L);
+    static final SecureRandom RANDOM = new SecureRandom();
+
+    static String encryptDES3(String json, String base64Key) throws Exception {
+        Cipher cipher = Cipher.getInstance("DESede/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.decodeBase64(base64Key), "DESede"));
+        return Base64.encodeBase64String(cipher.doFinal(json.getBytes(UTF_8)));
+    }
+
+    static String encryptAESGCM(String json, String base64Key) throws Exception {
+        byte[] iv = new byte[CipherOPMessageAESGCMProcessor.IV_LENGTH];
+        RANDOM.nextBytes(iv);
+
+        Cipher cipher = Cipher.getInstance(CipherOPMessageAESGCMProcessor.ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.decodeBase64(base64Key), "AES"),
+                    new GCMParameterSpec(CipherOPMessageAESGCMProcessor.TAG_LENGTH_BITS, iv));
+        byte[] encrypted = cipher.doFinal(json.getBytes(UTF_8));
+
+        byte[] message = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, message, 0, iv.length);
+        System.arraycopy(encrypted, 0, message, iv.length, encrypted.length);
+        return Base64.encodeBase64String(message);
+    }
+
+    static String payload(int size) {
+        StringBuilder sb = new StringBuilder("{\"op\":\"applet_method\",\"m\":\"set\",\"params\":[\"");
+        while (sb.length() < size) sb.append('x');
+        return sb.append("\"]}").toString();
+    }
+
+    @Test
+    public void test_des3RoundTrip() throws Exception {
+        OPCipherProcessor processor = new CipherOPMessage3DESProcessor();
+        String json = payload(100);
+
+        assertFalse(processor.isAuthenticated());
+        assertEquals(processor.decryptPayload(encryptDES3(json, KEY), CIPHER_KEY), json);
+        assertEquals(processor.decryptPayload(encryptDES3(json, KEY), CIPHER_KEY), json);
+    }
+
+    @Test
+    public void test_aesGcmRoundTripAndKeyChange() throws Exception {
+        OPCipherProcessor processor = new CipherOPMessageAESGCMProcessor();
+        String json = payload(100);
+
+        assertTrue(processor.isAuthenticated());
+        assertEquals(processor.decryptPayload(encryptAESGCM(json, KEY), CIPHER_KEY), json);
+        assertEquals(processor.decryptPayload(encryptAESGCM(json, OTHER_KEY), OTHER_CIPHER_KEY), json);
+        assertEquals(processor.decryptPayload(encryptAESGCM(json, KEY), CIPHER_KEY), json);
+    }
+
+    @Test(expectedExceptions = OPLauncherException.class)
+    public void test_aesGcmRejectsTamperedPayload() throws Exception {
+        byte[] message = Base64.decodeBase64(encryptAESGCM(payload(100), KEY));
+        message[message.length / 2] ^= 1;
+
+        new CipherOPMessageAESGCMProcessor().decryptPayload(Base64.encodeBase64String(message), CIPHER_KEY);
+    }
+
+    @Test
+    public void test_concurrentDecrypt() throws Exception {
+        final OPCipherProcessor kProcessor = new CipherOPMessage3DESProcessor();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                final String kJson = payload(50 + i);
+                final String kEncrypted = encryptDES3(kJson, KEY);
+                results.add(executor.submit(() -> kJson.equals(kProcessor.decryptPayload(kEncrypted, CIPHER_KEY))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Previous path: key decoded, cipher looked up and key spec built on every payload
+     */
+    static String legacyDecryptDES3(String encrypted, String base64Key) throws Exception {
+        Cipher cipher = Cipher.getInstance("DESede/ECB/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(Base64.decodeBase64(base64Key), "DESede"));
+        return new String(cipher.doFinal(Base64.decodeBase64(encrypted)), UTF_8);
+    }
+
+    @Test
+    public void test_sameDES3PlainTextAsTheLegacyPath() throws Exception {
+        final String kJson = payload(1024);
+        final String kDES3 = encryptDES3(kJson, KEY);
+        OPCipherProcessor des3 = new CipherOPMessage3DESProcessor();
+
+        assertEquals(legacyDecryptDES3(kDES3, KEY), kJson);
+        for (int i = 0; i < 3; i++) {
+            // the cached cipher is reused across payloads
+            assertEquals(des3.decryptPayload(kDES3, CIPHER_KEY), kJson);
+        }
+    }
+}
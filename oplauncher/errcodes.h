@@ -52,5 +52,8 @@
 #define RC_ERR_DECODE_MSG_ERROR             7048
 #define RC_ERR_MEMORY_ALLOCATION            7049
 #define RC_ERR_FAILED_APPLET_EXECUTION      7050
+#define RC_ERR_CDS_NOT_CONFIGURED           7051
+#define RC_ERR_OP_QUEUE_CLOSED              7052
+#define RC_ERR_OP_QUEUE_FULL                7053
 
 #endif //_ERRCODES_H
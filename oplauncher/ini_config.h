@@ -16,6 +16,7 @@
 #define INI_SECTION_JVM_PROP_JARPATH       "jar_path"
 #define INI_SECTION_JVM_PROP_POLICYFILE    "policy_file"
 #define INI_SECTION_JVM_PROP_DEBUG         "debug"
+#define INI_SECTION_JVM_PROP_CDSARCHIVE    "cds_archive"
 
 #define INI_SECTION_LOGGING_FILE           "log_file"
 
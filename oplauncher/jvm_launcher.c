@@ -1,6 +1,7 @@
 #include "jvm_launcher.h"
 #include "ini_config.h"
 #include "logging.h"
+#include "op_queue.h"
 
 #ifdef _WIN32
     #include <windows.h>
@@ -8,6 +9,7 @@
 	#include <mach-o/dyld.h>
     #include <unistd.h>
     #include <libgen.h> // For dirname
+    #include <pthread.h>
 #endif
 
 /**
@@ -21,46 +23,66 @@ char *applet_policy_filepath;
 jvm_launcher_t *jvm_launcher;
 
 /**
- * Initializes the JVM
+ * JNI references of the OPs, resolved once (see jvm_launcher_cache_refs)
  */
-returncode_t jvm_launcher_init(const char *class_name) {
+typedef struct {
+	jclass controller_class;
+	jmethodID load_method;
+	jmethodID c2a_method;
+	jclass arraylist_class;
+	jmethodID arraylist_init;
+	jmethodID arraylist_add;
+} jvm_jni_cache_t;
+
+static jvm_jni_cache_t jni_cache;
+
+/**
+ * Creates the JVM with the OPLauncher Class-Path and Security Policy. When a CDS archive is configured (cds_archive),
+ * the JVM maps its classes from the archive if it exists, or dumps the classes it loads into the archive when it's
+ * destroyed (dump_cds, see jvm_launcher_generate_cds)
+ */
+static returncode_t jvm_launcher_create(int dump_cds) {
 	int res;
+	int num_options = 0;
+	uint64_t start_ms;
 	returncode_t rc;
 	char *oplauncher_cp;
 	char policy_path[MAX_PATH];
 	char oplauncher_libhome[MAX_PATH];
+	char cds_archive[MAX_PATH];
 	JavaVMInitArgs vm_args;
-#if defined(_DEBUG_)
-	JavaVMOption options[4];
-#else
-	JavaVMOption options[3];
-#endif
+	JavaVMOption options[6];
 
 	char *classpath_option = malloc(BUFFER_SIZE);
 	char *policy_option = malloc(BUFFER_SIZE);
+	char *cds_option = malloc(BUFFER_SIZE);
 	applet_policy_filepath = malloc(BUFFER_SIZE);
 	jvm_launcher = malloc(sizeof(jvm_launcher_t));
 
+	if (!classpath_option || !policy_option || !cds_option) {
+		logmsg(LOGGING_ERROR, "Failed to allocate memory for classpath options");
+		return RC_ERR_FAILED_TO_LAUNCHJVM;
+	}
+
 	_MEMZERO(oplauncher_libhome, MAX_PATH);
 	_MEMZERO(policy_path, MAX_PATH);
+	_MEMZERO(cds_archive, MAX_PATH);
 	_MEMZERO(classpath_option, BUFFER_SIZE);
 	_MEMZERO(policy_option, BUFFER_SIZE);
+	_MEMZERO(cds_option, BUFFER_SIZE);
 	_MEMZERO(applet_policy_filepath, BUFFER_SIZE);
 	_MEMZERO(jvm_launcher, sizeof(jvm_launcher_t));
 
-	if (!classpath_option || !policy_option) {
-		logmsg(LOGGING_ERROR, "Failed to allocate memory for classpath options");
-		return RC_ERR_FAILED_TO_LAUNCHJVM;
-	}
-
 	// Prepare the configuration files
 	read_ini_value(INI_SECTION_JVM, INI_SECTION_JVM_PROP_LIBPATH, oplauncher_libhome, MAX_PATH);
 	read_ini_value(INI_SECTION_JVM, INI_SECTION_JVM_PROP_POLICYFILE, policy_path, MAX_PATH);
+	read_ini_value(INI_SECTION_JVM, INI_SECTION_JVM_PROP_CDSARCHIVE, cds_archive, MAX_PATH);
 	rc = format_get_classpath(oplauncher_libhome, &oplauncher_cp, MID_BUFFER_SIZE);
 	if (rc != EXIT_SUCCESS) {
 		logmsg(LOGGING_ERROR, "Failed to load the classpath");
 		free(classpath_option);
 		free(policy_option);
+		free(cds_option);
 		free(oplauncher_cp);
 		return rc;
 	}
@@ -74,8 +96,16 @@ returncode_t jvm_launcher_init(const char *class_name) {
 		logmsg(LOGGING_ERROR, "Policy file not found: %s\n", policy_path);
 		free(classpath_option);
 		free(policy_option);
+		free(cds_option);
 		return RC_ERR_POLICY_FILE_MISSING;
 	}
+	if (dump_cds && cds_archive[0] == EMPTY_CHAR) {
+		logmsg(LOGGING_ERROR, "No CDS archive configured ([%s] %s), nothing to generate", INI_SECTION_JVM, INI_SECTION_JVM_PROP_CDSARCHIVE);
+		free(classpath_option);
+		free(policy_option);
+		free(cds_option);
+		return RC_ERR_CDS_NOT_CONFIGURED;
+	}
 
 	logmsg(LOGGING_NORMAL, "-> Initializing JVM with Class-Path: %s", oplauncher_cp);
 	logmsg(LOGGING_NORMAL, "-> Initializing the JVM with the Security Policy: %s", policy_path);
@@ -85,35 +115,247 @@ returncode_t jvm_launcher_init(const char *class_name) {
 	snprintf(policy_option, BUFFER_SIZE, "-Djava.security.policy=%s", policy_path);
 	free(oplauncher_cp);
 
-	options[0].optionString = classpath_option;
-	options[1].optionString = policy_option;
-	options[2].optionString = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off";
+	options[num_options++].optionString = classpath_option;
+	options[num_options++].optionString = policy_option;
+	options[num_options++].optionString = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off";
+
+	/// Class data sharing: the archive is only valid for the JRE and Class-Path it was generated with
+	if (dump_cds) {
+		// Dynamic archive (JDK 13+), written when the JVM is destroyed
+		logmsg(LOGGING_NORMAL, "-> The loaded classes will be dumped into the CDS archive: %s", cds_archive);
+		snprintf(cds_option, BUFFER_SIZE, "-XX:ArchiveClassesAtExit=%s", cds_archive);
+		options[num_options++].optionString = cds_option;
+	}
+	else if (cds_archive[0] != EMPTY_CHAR) {
+#ifdef _WIN32
+		if (_access(cds_archive, F_OK) == 0) {
+#else
+		if ( access(cds_archive, F_OK) == 0 ) {
+#endif
+			logmsg(LOGGING_NORMAL, "-> Initializing the JVM with the CDS archive: %s", cds_archive);
+			snprintf(cds_option, BUFFER_SIZE, "-XX:SharedArchiveFile=%s", cds_archive);
+			// auto: the JVM ignores an archive that doesn't match its JRE or Class-Path anymore
+			options[num_options++].optionString = "-Xshare:auto";
+			options[num_options++].optionString = cds_option;
+			PTR(jvm_launcher).cds_active = TRUE;
+		}
+		else {
+			logmsg(LOGGING_NORMAL, "-> CDS archive not found, the JVM starts without it (oplauncher %s creates it): %s",
+				   JVM_OPT_GENERATE_CDS, cds_archive);
+		}
+	}
 #if defined(_DEBUG_)
-	options[3].optionString = "-verbose:jni"; // Debug JNI
+	options[num_options++].optionString = "-verbose:jni"; // Debug JNI
 #endif
 
 	JNI_GetDefaultJavaVMInitArgs(&vm_args);
 	// Initialize JVM arguments
 	vm_args.version = JNI_VERSION_1_8;
-#if defined(_DEBUG_)
-	vm_args.nOptions = 4;
-#else
-	vm_args.nOptions = 3;
-#endif
+	vm_args.nOptions = num_options;
 	vm_args.options = options;
 	vm_args.ignoreUnrecognized = JNI_FALSE;
 
 	// Create JVM
+	start_ms = current_time_millis();
 	res = JNI_CreateJavaVM(&jvm_launcher->jvm, (void **)&jvm_launcher->env, &vm_args);
+	PTR(jvm_launcher).create_ms = current_time_millis() - start_ms;
 	free(classpath_option);
 	free(policy_option);
+	free(cds_option);
 
 	if (res < 0) {
 		logmsg(LOGGING_ERROR, "JNI_CreateJavaVM failed with error code %d\n", res);
 		return RC_ERR_FAILED_TO_LAUNCHJVM;
 	}
 
-	logmsg(LOGGING_NORMAL, "Successfully initialized JVM: %p", PTR(jvm_launcher).jvm);
+	logmsg(LOGGING_NORMAL, "Successfully initialized JVM: %p in %llu ms (CDS archive: %s)", PTR(jvm_launcher).jvm,
+		   (unsigned long long)PTR(jvm_launcher).create_ms, PTR(jvm_launcher).cds_active ? "on" : "off");
+
+	return EXIT_SUCCESS;
+}
+
+/**
+ * Finds a static method of the JVM warm-up class (org.oplauncher.load.JVMWarmup)
+ */
+static jmethodID jvm_launcher_warmup_method(JNIEnv *env, jclass *warmupClass, const char *method, const char *paramtypes) {
+	PTR(warmupClass) = PTR(env)->FindClass(env, CL_JVM_WARMUP);
+	if (PTR(warmupClass) == NULL) {
+		PTR(env)->ExceptionClear(env);
+		logmsg(LOGGING_ERROR, "Failed to find the JVM warm-up class: %s", CL_JVM_WARMUP);
+		return NULL;
+	}
+
+	jmethodID methodID = PTR(env)->GetStaticMethodID(env, PTR(warmupClass), method, paramtypes);
+	if (methodID == NULL) {
+		PTR(env)->ExceptionClear(env);
+		logmsg(LOGGING_ERROR, "Method %s not found in the JVM warm-up class", method);
+		PTR(env)->DeleteLocalRef(env, PTR(warmupClass));
+	}
+
+	return methodID;
+}
+
+/**
+ * Resolves the JNI classes and methods of the OPs once, right after the JVM is created: the classes are kept as global
+ * references, usable from any thread, and so are the method IDs
+ */
+static returncode_t jvm_launcher_cache_refs(JNIEnv *env) {
+	logmsg(LOGGING_NORMAL, "Loading the Applet loader class: %s", CL_APPLET_CLASSLOADER);
+	jclass appletClassLoaderClass = PTR(env)->FindClass(env, CL_APPLET_CLASSLOADER);
+	if (appletClassLoaderClass == NULL) {
+		PTR(env)->ExceptionClear(env);
+		logmsg(LOGGING_ERROR, "Failed to find the AppletClassLoader class");
+		return RC_ERR_FAILED_FIND_APPCLLOADER;
+	}
+	jclass arrayListClass = PTR(env)->FindClass(env, "java/util/ArrayList");
+	if (arrayListClass == NULL) {
+		PTR(env)->ExceptionClear(env);
+		logmsg(LOGGING_ERROR, "Class ArrayList not found.");
+		PTR(env)->DeleteLocalRef(env, appletClassLoaderClass);
+		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
+	}
+
+	jni_cache.controller_class = PTR(env)->NewGlobalRef(env, appletClassLoaderClass);
+	jni_cache.arraylist_class = PTR(env)->NewGlobalRef(env, arrayListClass);
+	PTR(env)->DeleteLocalRef(env, appletClassLoaderClass);
+	PTR(env)->DeleteLocalRef(env, arrayListClass);
+
+	jni_cache.load_method = PTR(env)->GetMethodID(env, jni_cache.controller_class, CL_APPLET_CLASSLOADER_METHOD, CL_APPLET_CLASSLOADER_PARAMTYPES);
+	jni_cache.c2a_method = PTR(env)->GetMethodID(env, jni_cache.controller_class, CL_APPLET_C2A_METHOD, CL_APPLET_CLASSLOADER_PARAMTYPES);
+	jni_cache.arraylist_init = PTR(env)->GetMethodID(env, jni_cache.arraylist_class, "<init>", "()V");
+	jni_cache.arraylist_add = PTR(env)->GetMethodID(env, jni_cache.arraylist_class, "add", "(Ljava/lang/Object;)Z");
+	if (!jni_cache.load_method || !jni_cache.c2a_method || !jni_cache.arraylist_init || !jni_cache.arraylist_add) {
+		PTR(env)->ExceptionClear(env);
+		logmsg(LOGGING_ERROR, "Method %s, %s or ArrayList methods not found.", CL_APPLET_CLASSLOADER_METHOD, CL_APPLET_C2A_METHOD);
+		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
+	}
+
+	return EXIT_SUCCESS;
+}
+
+/**
+ * The JVM worker thread: attached once, it runs the queued OPs (see op_queue.h) until the JVM is terminated. It's a
+ * daemon for the JVM, so it doesn't hold its destruction
+ */
+#if defined(_WIN32) || defined(_WIN64)
+static DWORD WINAPI jvm_worker_thread(LPVOID arg) {
+#else
+static void *jvm_worker_thread(void *arg) {
+#endif
+	JNIEnv *env = NULL;
+	JavaVM *jvm = (JavaVM *)arg;
+
+	logmsg(LOGGING_NORMAL, "Attaching the JVM(%p) to the worker Thread...", jvm);
+	if (PTR(jvm)->AttachCurrentThreadAsDaemon(jvm, (void **)&env, NULL) != JNI_OK) {
+		// the OPs fail, the tasks that don't need the JVM still run
+		logmsg(LOGGING_ERROR, "Failed to attach the worker thread to JVM: %p", jvm);
+		env = NULL;
+	}
+
+	op_queue_run(env);
+
+	if (env) {
+		PTR(jvm)->DetachCurrentThread(jvm);
+	}
+	logmsg(LOGGING_NORMAL, "JVM worker thread ended");
+
+	return 0;
+}
+
+/**
+ * Starts the JVM worker thread with its OP queue
+ */
+static returncode_t jvm_worker_start(JavaVM *jvm) {
+	op_queue_init();
+
+#if defined(_WIN32) || defined(_WIN64)
+	HANDLE hThread = CreateThread(NULL, 0, jvm_worker_thread, jvm, 0, NULL);
+	if (hThread == NULL) {
+		logmsg(LOGGING_ERROR, "Failed to create the JVM worker thread");
+		op_queue_close();
+		return RC_ERR_FAILED_CREATE_THREAD;
+	}
+
+	CloseHandle(hThread);
+#else
+	pthread_t worker_thread;
+	if (pthread_create(&worker_thread, NULL, jvm_worker_thread, jvm) != 0) {
+		logmsg(LOGGING_ERROR, "Failed to create the JVM worker thread");
+		op_queue_close();
+		return RC_ERR_FAILED_CREATE_THREAD;
+	}
+	pthread_detach(worker_thread);
+#endif
+
+	return EXIT_SUCCESS;
+}
+
+/**
+ * Initializes the JVM, and starts its warm-up in the background: the OP server, JSON mappers and AWT classes are
+ * loaded while the first load request is parsed and its archives are downloaded. The JVM worker thread, which runs
+ * the next OPs, is started as well
+ */
+returncode_t jvm_launcher_init(const char *class_name) {
+	jclass warmupClass;
+	returncode_t rc = jvm_launcher_create(FALSE);
+	if ( !_IS_SUCCESS(rc) ) {
+		return rc;
+	}
+
+	JNIEnv *env = PTR(jvm_launcher).env;
+	rc = jvm_launcher_cache_refs(env);
+	if ( !_IS_SUCCESS(rc) ) {
+		return rc;
+	}
+
+	jmethodID startWarmupMethodID = jvm_launcher_warmup_method(env, &warmupClass, CL_JVM_WARMUP_START_METHOD, CL_JVM_WARMUP_START_PARAMTYPES);
+	if (startWarmupMethodID != NULL) {
+		jboolean started = PTR(env)->CallStaticBooleanMethod(env, warmupClass, startWarmupMethodID);
+		if (PTR(env)->ExceptionCheck(env)) {
+			PTR(env)->ExceptionClear(env);
+			logmsg(LOGGING_ERROR, "The JVM warm-up failed to start, the applet loads without it");
+		}
+		else {
+			logmsg(LOGGING_NORMAL, "JVM warm-up %s", started ? "started" : "disabled");
+		}
+		PTR(env)->DeleteLocalRef(env, warmupClass);
+	}
+
+	return jvm_worker_start(PTR(jvm_launcher).jvm);
+}
+
+/**
+ * Generates the CDS archive (cds_archive) of the OPLauncher Class-Path: the JVM runs the warm-up, and the classes
+ * it loaded are dumped into the archive when it's destroyed. It's run at install time (oplauncher --generate-cds),
+ * with the JRE and libraries the launcher uses. The JRE must support dynamic archives (JDK 13+)
+ */
+returncode_t jvm_launcher_generate_cds(void) {
+	jclass warmupClass;
+	returncode_t rc = jvm_launcher_create(TRUE);
+	if ( !_IS_SUCCESS(rc) ) {
+		logmsg(LOGGING_ERROR, "Could not create the JVM to generate the CDS archive. Return code %d", rc);
+		return rc;
+	}
+
+	JNIEnv *env = PTR(jvm_launcher).env;
+	jmethodID warmupMethodID = jvm_launcher_warmup_method(env, &warmupClass, CL_JVM_WARMUP_METHOD, CL_JVM_WARMUP_PARAMTYPES);
+	if (warmupMethodID == NULL) {
+		jvm_launcher_terminate();
+		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
+	}
+
+	jlong warmup_ms = PTR(env)->CallStaticLongMethod(env, warmupClass, warmupMethodID);
+	if (PTR(env)->ExceptionCheck(env)) {
+		PTR(env)->ExceptionClear(env);
+		logmsg(LOGGING_ERROR, "The JVM warm-up failed, the CDS archive only has the classes loaded so far");
+	}
+	else {
+		logmsg(LOGGING_NORMAL, "JVM warm-up done in %lld ms, dumping the CDS archive...", (long long)warmup_ms);
+	}
+	PTR(env)->DeleteLocalRef(env, warmupClass);
+
+	// The archive is written here
+	jvm_launcher_terminate();
 
 	return EXIT_SUCCESS;
 }
@@ -125,6 +367,9 @@ void jvm_launcher_terminate() {
 			PTR(PTR(jvm_launcher).env)->DeleteLocalRef(PTR(jvm_launcher).env, PTR(jvm_launcher).applet_classloader);
 		}*/
 
+		// Runs the OPs already queued and ends the worker thread
+		op_queue_close();
+
 		// Destroys the JVM
 		PTR(PTR(jvm_launcher).jvm)->DestroyJavaVM(PTR(jvm_launcher).jvm);
 
@@ -171,142 +416,149 @@ void get_executable_directory(char *buffer, size_t size) {
 }
 
 /**
- * Trigger a new operation execution based on the given parameters
- * @param opcodename	the operation code name
- * @param opcode		the parsed operation code (output)
- * @param params		the opration parameters
- * @param param_count	the number of parameters
- * @return	the return code
+ * OP executed by the JVM worker thread (see trigger_applet_operation)
  */
-returncode_t trigger_applet_operation(opcode_t opcode, char **params, int param_count) {
+typedef struct {
+	opcode_t opcode;
+	char **params;
+	int param_count;
+} jvm_operation_t;
 
-	if (!jvm_launcher || !jvm_launcher->jvm || !jvm_launcher->env) {
-		char *errMsg = "Error: JVM is not initialized.";
-		logmsg(LOGGING_ERROR, errMsg);
-		send_jsonerror_message(errMsg, RC_ERR_FAILED_FIND_APPCLLOADER);
-		return RC_ERR_JVMNOTLOADED;
-	}
-
-	JNIEnv *env = jvm_launcher->env;
-	JavaVM *jvm = jvm_launcher->jvm;
-
-	logmsg(LOGGING_NORMAL, "Trigging the operation [%s] on the JVM: %p", opcode, jvm);
-	logmsg(LOGGING_NORMAL, "Attaching the JVM(%p) to the current Thread...", jvm);
-	// Attach the current thread to the JVM if needed
-	int attachResult = (*jvm)->AttachCurrentThread(jvm, (void **)&env, NULL);
-	if (attachResult != JNI_OK) {
-		logmsg(LOGGING_ERROR, "Failed to attach current thread to JVM: %p", jvm);
-		return RC_ERR_FAILEDJVM_ATTACH;
-	}
-
-	logmsg(LOGGING_NORMAL, "Loading the Applet loader class: %s", CL_APPLET_CLASSLOADER);
-	// Load the custom classloader
-	jclass appletClassLoaderClass = PTR(env)->FindClass(env, CL_APPLET_CLASSLOADER);
-	if (appletClassLoaderClass == NULL) {
-		logmsg(LOGGING_ERROR, "Failed to find the AppletClassLoader class");
-
-		PTR(PTR(jvm_launcher).jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_FAILED_FIND_APPCLLOADER;
-	}
-
-	jmethodID loadAppletMethodID = PTR(env)->GetMethodID(env, appletClassLoaderClass,
-														CL_APPLET_C2A_METHOD, CL_APPLET_CLASSLOADER_PARAMTYPES);
-	if (loadAppletMethodID == NULL) {
-		logmsg(LOGGING_ERROR, "Method processLoadAppletOp not found.");
-
-		PTR(jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
-	}
-
-	// Create a Java ArrayList and add all parameters to it
-	jclass arrayListClass = PTR(env)->FindClass(env, "java/util/ArrayList");
-	if (arrayListClass == NULL) {
-		char *errMsg = "Error: Class ArrayList not found.";
-		logmsg(LOGGING_ERROR, "Class ArrayList not found.");
-
-		PTR(PTR(jvm_launcher).jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
-	}
-	jmethodID arrayListConstructor = PTR(env)->GetMethodID(env, arrayListClass, "<init>", "()V");
-	jobject parameterList = PTR(env)->NewObject(env, arrayListClass, arrayListConstructor);
+/**
+ * Creates the java.util.ArrayList with the OP parameters
+ * @return the list (local reference), NULL if it couldn't be created
+ */
+static jobject jvm_launcher_new_paramlist(JNIEnv *env, char **params, int param_count) {
+	jobject parameterList = PTR(env)->NewObject(env, jni_cache.arraylist_class, jni_cache.arraylist_init);
 	if (parameterList == NULL) {
-		char *errMsg = "Error: Could not create ArrayList instance.";
+		PTR(env)->ExceptionClear(env);
 		logmsg(LOGGING_ERROR, "Could not create ArrayList instance.");
-
-		PTR(jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CANNOT_CLASS_INSTANCE;
-	}
-
-	/// Add the parameters to the list
-	jmethodID addMethod = PTR(env)->GetMethodID(env, arrayListClass, "add", "(Ljava/lang/Object;)Z");
-	if (addMethod == NULL) {
-		logmsg(LOGGING_ERROR, "Method add not found in ArrayList.");
-
-		PTR(jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
+		return NULL;
 	}
 
-	logmsg(LOGGING_NORMAL, "Creating the parameters to run the operation: %s", opcode);
 	// iterate all and populate parameters
 	for (int i = 0; i < param_count; i++) {
 		char *currentParam = params[i];
 		logmsg(LOGGING_NORMAL, "+-> Param[%d]: %s", (i + 1), currentParam);
 		jstring paramString = PTR(env)->NewStringUTF(env, currentParam);
 		if (paramString == NULL) {
+			PTR(env)->ExceptionClear(env);
 			logmsg(LOGGING_ERROR, "Could not create Java string for parameter %d", i);
-
-			PTR(jvm)->DetachCurrentThread(jvm);
-			return RC_ERR_CANNOT_CLASS_INSTANCE;
+			PTR(env)->DeleteLocalRef(env, parameterList);
+			return NULL;
 		}
-		PTR(env)->CallBooleanMethod(env, parameterList, addMethod, paramString);
+		PTR(env)->CallBooleanMethod(env, parameterList, jni_cache.arraylist_add, paramString);
+		PTR(env)->DeleteLocalRef(env, paramString);
+	}
+
+	return parameterList;
+}
+
+/**
+ * Runs the OP on the JVM worker thread. Its local references are released when it ends, the worker thread never
+ * returns to the JVM to have them released
+ */
+static returncode_t jvm_launcher_run_operation(void *ctx, void *arg) {
+	JNIEnv *env = (JNIEnv *)ctx;
+	jvm_operation_t *operation = (jvm_operation_t *)arg;
+	returncode_t rc = EXIT_SUCCESS;
+
+	if (env == NULL) {
+		return RC_ERR_FAILEDJVM_ATTACH;
+	}
+	if (PTR(env)->PushLocalFrame(env, operation->param_count + 4) != JNI_OK) {
+		PTR(env)->ExceptionClear(env);
+		return RC_ERR_MEMORY_ALLOCATION;
+	}
+
+	logmsg(LOGGING_NORMAL, "Creating the parameters to run the operation: %d", operation->opcode);
+	jobject parameterList = jvm_launcher_new_paramlist(env, operation->params, operation->param_count);
+	if (parameterList == NULL) {
+		PTR(env)->PopLocalFrame(env, NULL);
+		return RC_ERR_CANNOT_CLASS_INSTANCE;
 	}
 
 	/// Switches the execution based on the chosen opcode
-	switch (opcode) {
+	switch (operation->opcode) {
 #if defined (_DEBUG_)
 		case OP_LOAD:
 #else
 		case OP_LOAD: {
 			// TODO: Probably load different JVMs for pages with multiple applets, but this is not supported yet
-			return RC_WARN_OPCODE_NOT_SUPPORTED;
+			rc = RC_WARN_OPCODE_NOT_SUPPORTED;
+			break;
 		}
 #endif
 		case OP_UNLOAD: {
-			logmsg(LOGGING_NORMAL, "Calling the applet loader method: %s <-> ParamTypes: %s", CL_APPLET_CLASSLOADER_METHOD, CL_APPLET_CLASSLOADER_PARAMTYPES);
-			// Call the processLoadAppletOp method
-			PTR(env)->CallObjectMethod(env, PTR(jvm_launcher).applet_classloader, loadAppletMethodID, parameterList);
+			logmsg(LOGGING_NORMAL, "Calling the applet loader method: %s <-> ParamTypes: %s", CL_APPLET_C2A_METHOD, CL_APPLET_CLASSLOADER_PARAMTYPES);
+			// Call the processAppletC2A method
+			PTR(env)->CallObjectMethod(env, PTR(jvm_launcher).applet_classloader, jni_cache.c2a_method, parameterList);
+			if (PTR(env)->ExceptionCheck(env)) {
+				PTR(env)->ExceptionClear(env);
+				logmsg(LOGGING_ERROR, "The operation %d failed in the JVM", operation->opcode);
+				rc = RC_ERR_FAILED_APPLET_EXECUTION;
+			}
 			break;
 		}
 		case OP_MOVE: {
 			// TODO: Implement the moviment of the applet based on the page attached
-			return RC_WARN_OPCODE_NOT_SUPPORTED;
+			rc = RC_WARN_OPCODE_NOT_SUPPORTED;
+			break;
 		}
 		default:
 			logmsg(LOGGING_ERROR, "Unsupported opcode.");
-			return RC_WARN_OPCODE_NOT_SUPPORTED;
+			rc = RC_WARN_OPCODE_NOT_SUPPORTED;
 	}
 
 	// Release resources
-	PTR(jvm)->DetachCurrentThread(jvm);
+	PTR(env)->PopLocalFrame(env, NULL);
 
-	return EXIT_SUCCESS;
+	return rc;
 }
 
 /**
- * Calls the "processLoadAppletOp" method of the "com.oplauncher.AppletClassLoader".
+ * Trigger a new operation execution based on the given parameters. The operation is queued to the JVM worker thread,
+ * and the caller waits for its result
+ * @param opcode		the parsed operation code
+ * @param params		the opration parameters
+ * @param param_count	the number of parameters
+ * @return	the return code
+ */
+returncode_t trigger_applet_operation(opcode_t opcode, char **params, int param_count) {
+	jvm_operation_t operation;
+
+	if (!jvm_launcher || !jvm_launcher->jvm || !PTR(jvm_launcher).applet_classloader) {
+		char *errMsg = "Error: JVM is not initialized.";
+		logmsg(LOGGING_ERROR, errMsg);
+		send_jsonerror_message(errMsg, RC_ERR_FAILED_FIND_APPCLLOADER);
+		return RC_ERR_JVMNOTLOADED;
+	}
+
+	operation.opcode = opcode;
+	operation.params = params;
+	operation.param_count = param_count;
+
+	logmsg(LOGGING_NORMAL, "Queuing the operation [%d] for the JVM: %p", opcode, PTR(jvm_launcher).jvm);
+	returncode_t rc = op_queue_submit_wait(jvm_launcher_run_operation, &operation);
+	if ( !_IS_SUCCESS(rc) ) {
+		logmsg(LOGGING_ERROR, "The operation [%d] failed. Return code %d", opcode, rc);
+	}
+
+	return rc;
+}
+
+/**
+ * Calls the "processLoadAppletOp" method of the "org.oplauncher.OPLauncherController".
  *
  * @param class_name The fully qualified name of the class to load (e.g. "com.oplauncher.AppletClassLoader").
- * @param jar_file Path to the jar file that contains the class.
  * @param params List of parameters to pass to the applet (as a C array of strings).
  * @param param_count Number of parameters in the "params" array.
  *
  * @return int Status of the function call (0 for success, non-zero for failure).
  */
 returncode_t trigger_applet_execution(const char *class_name, char **params, int param_count) {
-	const int kNumOfParameters = MAXARRAYSIZE;
-
 	logmsg(LOGGING_NORMAL, "Trigging the Applet execution in the newly created JVM...");
-	if (!jvm_launcher || !jvm_launcher->jvm || !jvm_launcher->env) {
+	if (!jvm_launcher || !jvm_launcher->jvm || !jvm_launcher->env || !jni_cache.controller_class) {
 		char *errMsg = "Error: JVM is not initialized.";
 		logmsg(LOGGING_ERROR, errMsg);
 		send_jsonerror_message(errMsg, RC_ERR_FAILED_FIND_APPCLLOADER);
@@ -326,105 +578,46 @@ returncode_t trigger_applet_execution(const char *class_name, char **params, int
 		return RC_ERR_FAILEDJVM_ATTACH;
 	}
 
-	logmsg(LOGGING_NORMAL, "Loading the Applet loader class: %s", CL_APPLET_CLASSLOADER);
-	// Load the custom classloader
-	jclass appletClassLoaderClass = PTR(env)->FindClass(env, CL_APPLET_CLASSLOADER);
-	if (appletClassLoaderClass == NULL) {
-		char *errMsg = "Failed to find the AppletClassLoader class";
-		logmsg(LOGGING_ERROR, errMsg);
-		send_jsonerror_message(errMsg, RC_ERR_FAILED_FIND_APPCLLOADER);
-
-		PTR(PTR(jvm_launcher).jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_FAILED_FIND_APPCLLOADER;
-	}
-
-	// Call the AppletClassLoader constructor
-	jmethodID appletClassLoaderInstance = PTR(env)->GetMethodID(env, appletClassLoaderClass, "<init>", "()V");
-	PTR(jvm_launcher).applet_classloader = PTR(env)->NewObject(env, appletClassLoaderClass, appletClassLoaderInstance); // Saves the object instance
-	if (PTR(jvm_launcher).applet_classloader == NULL) {
+	logmsg(LOGGING_NORMAL, "Creating the Applet loader: %s", CL_APPLET_CLASSLOADER);
+	// Call the OPLauncherController constructor
+	jmethodID appletClassLoaderInstance = PTR(env)->GetMethodID(env, jni_cache.controller_class, "<init>", "()V");
+	jobject appletClassLoader = appletClassLoaderInstance ? PTR(env)->NewObject(env, jni_cache.controller_class, appletClassLoaderInstance) : NULL;
+	if (appletClassLoader == NULL) {
 		char *errMsg = "Failed to create AppletClassLoader instance";
+		PTR(env)->ExceptionClear(env);
 		logmsg(LOGGING_ERROR, errMsg);
 		send_jsonerror_message(errMsg, RC_ERR_FAILED_CRE_APPCLLOADER);
 
-		PTR(PTR(jvm_launcher).jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_FAILED_CRE_APPCLLOADER;
-	}
-
-	// Find the method ID for "processLoadAppletOp"
-	jmethodID loadAppletMethodID = PTR(env)->GetMethodID(env, appletClassLoaderClass,
-												    CL_APPLET_CLASSLOADER_METHOD,
-														 CL_APPLET_CLASSLOADER_PARAMTYPES);
-
-	if (loadAppletMethodID == NULL) {
-		char *errMsg = "Error: Method processLoadAppletOp not found.";
-		logmsg(LOGGING_ERROR, errMsg);
-		send_jsonerror_message(errMsg, RC_ERR_CLLOADER_METHOD_NOTFOUND);
-
 		PTR(jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
+		return RC_ERR_FAILED_CRE_APPCLLOADER;
 	}
+	// Global: the instance is used by the next OPs, from the JVM worker thread
+	PTR(jvm_launcher).applet_classloader = PTR(env)->NewGlobalRef(env, appletClassLoader);
+	PTR(env)->DeleteLocalRef(env, appletClassLoader);
 
-	// Create a Java ArrayList and add all parameters to it
-	jclass arrayListClass = PTR(env)->FindClass(env, "java/util/ArrayList");
-	if (arrayListClass == NULL) {
-		char *errMsg = "Error: Class ArrayList not found.";
-		logmsg(LOGGING_ERROR, errMsg);
-		send_jsonerror_message(errMsg, RC_ERR_CLLOADER_METHOD_NOTFOUND);
-
-		PTR(PTR(jvm_launcher).jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
-	}
-	jmethodID arrayListConstructor = PTR(env)->GetMethodID(env, arrayListClass, "<init>", "()V");
-	jobject parameterList = PTR(env)->NewObject(env, arrayListClass, arrayListConstructor);
+	logmsg(LOGGING_NORMAL, "Creating the parameters to run the Applet loader:");
+	jobject parameterList = jvm_launcher_new_paramlist(env, params, param_count);
 	if (parameterList == NULL) {
-		char *errMsg = "Error: Could not create ArrayList instance.";
-		logmsg(LOGGING_ERROR, errMsg);
+		char *errMsg = "Error: Could not create the Applet loader parameters.";
 		send_jsonerror_message(errMsg, RC_ERR_CANNOT_CLASS_INSTANCE);
 
 		PTR(jvm)->DetachCurrentThread(jvm);
 		return RC_ERR_CANNOT_CLASS_INSTANCE;
 	}
 
-	/// Add the parameters to the list
-	jmethodID addMethod = PTR(env)->GetMethodID(env, arrayListClass, "add", "(Ljava/lang/Object;)Z");
-	if (addMethod == NULL) {
-		char *errMsg = "Error: Method add not found in ArrayList.";
-		logmsg(LOGGING_ERROR, errMsg);
-		send_jsonerror_message(errMsg, RC_ERR_CLLOADER_METHOD_NOTFOUND);
-
-		PTR(jvm)->DetachCurrentThread(jvm);
-		return RC_ERR_CLLOADER_METHOD_NOTFOUND;
-	}
-
-	logmsg(LOGGING_NORMAL, "Creating the parameters to run the Applet loader:");
-	// iterate all and populate parameters
-	for (int i = 0; i < param_count; i++) {
-		char *currentParam = params[i];
-		logmsg(LOGGING_NORMAL, "+-> Param[%d]: %s", (i + 1), currentParam);
-		jstring paramString = PTR(env)->NewStringUTF(env, currentParam);
-		if (paramString == NULL) {
-			char *errMsg = "Error: Could not create Java string for parameter";
-			snprintf(errMsg, MAXPATHLEN, "Error: Could not create Java string for parameter %d", i);
-			logmsg(LOGGING_ERROR, errMsg);
-			send_jsonerror_message(errMsg, RC_ERR_CANNOT_CLASS_INSTANCE);
-
-			PTR(jvm)->DetachCurrentThread(jvm);
-			return RC_ERR_CANNOT_CLASS_INSTANCE;
-		}
-		PTR(PTR(jvm_launcher).env)->CallBooleanMethod(env, parameterList, addMethod, paramString);
-	}
-
 	logmsg(LOGGING_NORMAL, "Calling the applet loader method: %s <-> ParamTypes: %s", CL_APPLET_CLASSLOADER_METHOD, CL_APPLET_CLASSLOADER_PARAMTYPES);
 	// Call the processLoadAppletOp method
-	jstring resultString = (jstring)PTR(env)->CallObjectMethod(env, PTR(jvm_launcher).applet_classloader, loadAppletMethodID, parameterList);
+	jstring resultString = (jstring)PTR(env)->CallObjectMethod(env, PTR(jvm_launcher).applet_classloader, jni_cache.load_method, parameterList);
 	if (resultString == NULL) {
 		char *errMsg = "Error: Applet method trigger returned null.";
+		PTR(env)->ExceptionClear(env);
 		logmsg(LOGGING_ERROR, errMsg);
 		//send_jsonerror_message(errMsg, RC_ERR_WRONG_RESULT_CLLOADER);
 
-		PTR(jvm)->DetachCurrentThread(jvm);
-		PTR(env)->DeleteLocalRef(env, PTR(jvm_launcher).applet_classloader);
+		PTR(env)->DeleteGlobalRef(env, PTR(jvm_launcher).applet_classloader);
+		PTR(jvm_launcher).applet_classloader = NULL;
 		PTR(env)->DeleteLocalRef(env, parameterList);
+		PTR(jvm)->DetachCurrentThread(jvm);
 
 		return RC_ERR_WRONG_RESULT_CLLOADER;
 	}
@@ -436,12 +629,11 @@ returncode_t trigger_applet_execution(const char *class_name, char **params, int
 		logmsg(LOGGING_ERROR, errMsg);
 		send_jsonerror_message(errMsg, RC_ERR_TYPECONVERTING_FAILED);
 
-		// Release resources
-		PTR(jvm)->DetachCurrentThread(jvm);
-		PTR(env)->ReleaseStringUTFChars(env, resultString, resultCStr);
-		// Clean up local references
-		PTR(env)->DeleteLocalRef(env, PTR(jvm_launcher).applet_classloader);
+		// Clean up references
+		PTR(env)->DeleteGlobalRef(env, PTR(jvm_launcher).applet_classloader);
+		PTR(jvm_launcher).applet_classloader = NULL;
 		PTR(env)->DeleteLocalRef(env, parameterList);
+		PTR(jvm)->DetachCurrentThread(jvm);
 
 		return RC_ERR_TYPECONVERTING_FAILED;
 	}
@@ -461,14 +653,14 @@ returncode_t trigger_applet_execution(const char *class_name, char **params, int
 	logmsg(LOGGING_NORMAL, "JVM Applet loader response: (%s)", resultCStr);
 	logmsg(LOGGING_NORMAL, "Saving the Applet loader instance for future OP executions: %p (JVM: %p)", PTR(jvm_launcher).applet_classloader, jvm);
 
-	// Saves the classloader class and instance
-	PTR(jvm_launcher).klazz = &appletClassLoaderClass;
+	// Saves the classloader class (the instance is already saved)
+	PTR(jvm_launcher).klazz = jni_cache.controller_class;
 
 	// Release resources
 	PTR(env)->ReleaseStringUTFChars(env, resultString, resultCStr);
+	PTR(env)->DeleteLocalRef(env, resultString);
+	PTR(env)->DeleteLocalRef(env, parameterList);
 	PTR(jvm)->DetachCurrentThread(jvm);
-	//PTR(env)->DeleteLocalRef(env, parameterList);
 
 	return EXIT_SUCCESS;
 }
-
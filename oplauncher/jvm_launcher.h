@@ -17,6 +17,13 @@
 #define CL_APPLET_CLASSLOADER_METHOD        "processLoadAppletOp"
 #define CL_APPLET_C2A_METHOD                "processAppletC2A"
 #define CL_APPLET_CLASSLOADER_PARAMTYPES    "(Ljava/util/List;)Ljava/lang/String;"
+#define CL_JVM_WARMUP                       "org/oplauncher/load/JVMWarmup"
+#define CL_JVM_WARMUP_START_METHOD          "startWarmup"
+#define CL_JVM_WARMUP_START_PARAMTYPES      "()Z"
+#define CL_JVM_WARMUP_METHOD                "warmup"
+#define CL_JVM_WARMUP_PARAMTYPES            "()J"
+
+#define JVM_OPT_GENERATE_CDS                "--generate-cds"
 
 #ifdef _WIN32
 #include <io.h> // For access() on Windows
@@ -28,12 +35,15 @@
 typedef struct {
     JavaVM *jvm;
     JNIEnv *env;
-    jclass *klazz;
+    jclass klazz;
     jobject applet_classloader;
+    int cds_active;
+    uint64_t create_ms;
 } jvm_launcher_t;
 
 void get_executable_directory(char *buffer, size_t size);
 returncode_t jvm_launcher_init(const char *class_name);
+returncode_t jvm_launcher_generate_cds(void);
 void jvm_launcher_terminate(void);
 returncode_t trigger_applet_execution(const char *class_name, char **params, int param_count);
 returncode_t trigger_applet_operation(opcode_t opcode, char **params, int param_count);
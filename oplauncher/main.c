@@ -58,6 +58,67 @@ BOOL WINAPI consoleCtrlHandler(DWORD ctrlType) {
 }
 #endif
 
+#if defined(_WIN32) || defined(_WIN64)
+/**
+ * Resolves the JVM dependencies from OPLAUNCHER_JAVA_HOME and loads the jvm.dll
+ * @return the library handle, NULL if it couldn't be loaded
+ */
+HMODULE load_jvm_library(void) {
+    char javaHome[MAX_PATH];
+    char jvmDll[MAX_PATH];
+    GetEnvironmentVariable("OPLAUNCHER_JAVA_HOME", javaHome, MAX_PATH);
+
+    logmsg(LOGGING_NORMAL, "Initializing all Java libraries");
+    // Retrieve the OPLAUNCHER_JAVA_HOME environment variable
+    if ( resolveJNIDllDepsOnEnvVar("jre/bin/server") != EXIT_SUCCESS ) {
+        return NULL;
+    }
+    if ( resolveJNIDllDepsOnEnvVar("jre/bin") != EXIT_SUCCESS ) {
+        return NULL;
+    }
+    if ( resolveJNIDllDepsOnEnvVar("lib") != EXIT_SUCCESS ) {
+        return NULL;
+    }
+
+    SetDefaultDllDirectories(LOAD_LIBRARY_SEARCH_DEFAULT_DIRS | LOAD_LIBRARY_SEARCH_USER_DIRS);
+
+    // Use LoadLibraryEx to load jvm.dll with the extended DLL search path
+    snprintf(jvmDll, MAX_PATH, "%s/jre/bin/server/jvm.dll", javaHome);
+    HMODULE hJvm = LoadLibraryEx(jvmDll, NULL, LOAD_LIBRARY_SEARCH_USER_DIRS);
+    if (!hJvm) {
+        logmsg(LOGGING_ERROR, "Error: Failed to load jvm.dll. Error code: %lu", GetLastError());
+    }
+
+    return hJvm;
+}
+#endif
+
+/**
+ * Generates the CDS archive of the JVM (oplauncher --generate-cds). Run at install time: there is no Chrome message
+ * to process, the launcher ends once the archive is written
+ */
+returncode_t generate_cds_archive(void) {
+    returncode_t rc;
+#if defined(_WIN32) || defined(_WIN64)
+    HMODULE hJvm = load_jvm_library();
+    if (!hJvm) {
+        return RC_ERR_FAILED_TO_LAUNCHJVM;
+    }
+#endif
+
+    logmsg(LOGGING_NORMAL, "Generating the CDS archive of the JVM");
+    rc = jvm_launcher_generate_cds();
+    if ( _IS_SUCCESS(rc) ) {
+        logmsg(LOGGING_NORMAL, "CDS archive generated");
+    }
+
+#if defined(_WIN32) || defined(_WIN64)
+    FreeLibrary(hJvm);
+#endif
+
+    return rc;
+}
+
 /**
  * Code Main Execution
  */
@@ -70,10 +131,11 @@ int WINAPI WinMain(HINSTANCE hInstance, HINSTANCE hPrevInstance, LPSTR lpCmdLine
 
     omit_stderr(); // to avoid messing with the Chrome native message protocol
 #else
-int main(void) {
+int main(int argc, char **argv) {
 #endif
     char buffer[BUFFER_SIZE];
     char cache_path[MAX_PATH];
+    uint64_t launch_start_ms;
     returncode_t rc = EXIT_SUCCESS;
 
     // Logging...
@@ -83,6 +145,17 @@ int main(void) {
         return rc;
     }
 
+    // Install time: only generates the CDS archive of the JVM
+#if defined(_WIN32) || defined(_WIN64)
+    if ( lpCmdLine && strstr(lpCmdLine, JVM_OPT_GENERATE_CDS) ) {
+#else
+    if ( argc > 1 && strcmp(argv[1], JVM_OPT_GENERATE_CDS) == 0 ) {
+#endif
+        rc = generate_cds_archive();
+        logging_end();
+        return rc;
+    }
+
     logmsg(LOGGING_NORMAL, "Waiting from Chrome to parse the first native message (load_applet)");
     _MEMZERO(buffer, BUFFER_SIZE);
 
@@ -130,10 +203,10 @@ int main(void) {
         send_jsonerror_message("Could not parse the native message from chrome", rc);
     }
 
-#if defined(_WIN32) || defined(_WIN64)
-    char javaHome[MAX_PATH];
-    GetEnvironmentVariable("OPLAUNCHER_JAVA_HOME", javaHome, MAX_PATH);
+    // Cold start: from here until the first applet is loaded
+    launch_start_ms = current_time_millis();
 
+#if defined(_WIN32) || defined(_WIN64)
     logmsg(LOGGING_NORMAL, "Creating the OPLauncher tray icon");
     // Tray initialization
     WNDCLASS wc = { 0 };
@@ -150,25 +223,8 @@ int main(void) {
     /*
      * Step 1: Service initialization...
      */
-    logmsg(LOGGING_NORMAL, "Initializing all Java libraries");
-    // Retrieve the OPLAUNCHER_JAVA_HOME environment variable
-    if ( resolveJNIDllDepsOnEnvVar("jre/bin/server") != EXIT_SUCCESS ) {
-        return EXIT_FAILURE;
-    }
-    if ( resolveJNIDllDepsOnEnvVar("jre/bin") != EXIT_SUCCESS ) {
-        return EXIT_FAILURE;
-    }
-    if ( resolveJNIDllDepsOnEnvVar("lib") != EXIT_SUCCESS ) {
-        return EXIT_FAILURE;
-    }
-
-    SetDefaultDllDirectories(LOAD_LIBRARY_SEARCH_DEFAULT_DIRS | LOAD_LIBRARY_SEARCH_USER_DIRS);
-
-    // Use LoadLibraryEx to load jvm.dll with the extended DLL search path
-    snprintf(javaHome, MAX_PATH, "%s/jre/bin/server/jvm.dll", javaHome);
-    HMODULE hJvm = LoadLibraryEx(javaHome, NULL, LOAD_LIBRARY_SEARCH_USER_DIRS);
+    HMODULE hJvm = load_jvm_library();
     if (!hJvm) {
-        logmsg(LOGGING_ERROR, "Error: Failed to load jvm.dll. Error code: %lu", GetLastError());
         return EXIT_FAILURE;
     }
 
@@ -249,6 +305,9 @@ int main(void) {
 #endif*/
         return RC_ERR_FAILED_LOAD_APPLET;
     }
+    logmsg(LOGGING_NORMAL, "[COLD START] Applet %s loaded %llu ms after the launch (JVM created in %llu ms, CDS archive: %s)",
+           class_name, (unsigned long long)(current_time_millis() - launch_start_ms),
+           (unsigned long long)PTR(jvm_launcher).create_ms, PTR(jvm_launcher).cds_active ? "on" : "off");
     free_tuplets(parameters, num_parameters);
     free_tuplets(cookies, num_cookies);
 
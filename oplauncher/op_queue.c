@@ -0,0 +1,235 @@
+#include "op_queue.h"
+#include "logging.h"
+
+#include <stdlib.h>
+#include <string.h>
+
+#if defined(_WIN32) || defined(_WIN64)
+#   include <windows.h>
+#   define OPQ_LOCK()           EnterCriticalSection(&_queue_lock)
+#   define OPQ_UNLOCK()         LeaveCriticalSection(&_queue_lock)
+#   define OPQ_WAIT(cond)       SleepConditionVariableCS(&(cond), &_queue_lock, INFINITE)
+#   define OPQ_SIGNAL(cond)     WakeConditionVariable(&(cond))
+#   define OPQ_BROADCAST(cond)  WakeAllConditionVariable(&(cond))
+#   define OPQ_SELF()           GetCurrentThreadId()
+#   define OPQ_IS_SELF(t)       ((t) == GetCurrentThreadId())
+typedef DWORD               opq_thread_t;
+typedef CONDITION_VARIABLE  opq_cond_t;
+static CRITICAL_SECTION     _queue_lock;
+#else
+#   include <pthread.h>
+#   define OPQ_LOCK()           pthread_mutex_lock(&_queue_lock)
+#   define OPQ_UNLOCK()         pthread_mutex_unlock(&_queue_lock)
+#   define OPQ_WAIT(cond)       pthread_cond_wait(&(cond), &_queue_lock)
+#   define OPQ_SIGNAL(cond)     pthread_cond_signal(&(cond))
+#   define OPQ_BROADCAST(cond)  pthread_cond_broadcast(&(cond))
+#   define OPQ_SELF()           pthread_self()
+#   define OPQ_IS_SELF(t)       pthread_equal((t), pthread_self())
+typedef pthread_t           opq_thread_t;
+typedef pthread_cond_t      opq_cond_t;
+static pthread_mutex_t      _queue_lock = PTHREAD_MUTEX_INITIALIZER;
+#endif
+
+typedef struct op_task {
+    op_task_fct_t   fct;
+    void            *arg;
+    int             wait;   /* the caller waits for it (on its stack), otherwise the worker frees it */
+    int             done;
+    returncode_t    rc;
+    struct op_task  *next;
+} op_task_t;
+
+/**
+ * Native OP queue: the tasks are run in order by a single worker thread (see op_queue_run), the JVM worker thread
+ * attached once for all the OPs. Producers (the Chrome message loop, the OP server accept loop) only queue them
+ */
+static op_task_t    *_head;
+static op_task_t    *_tail;
+static size_t       _size;
+static int          _initialized;
+static int          _closed;
+static int          _worker_running;
+static opq_thread_t _worker;
+static void         *_worker_ctx;
+#if defined(_WIN32) || defined(_WIN64)
+static opq_cond_t   _not_empty;
+static opq_cond_t   _task_done;
+static opq_cond_t   _worker_done;
+#else
+static opq_cond_t   _not_empty = PTHREAD_COND_INITIALIZER;
+static opq_cond_t   _task_done = PTHREAD_COND_INITIALIZER;
+static opq_cond_t   _worker_done = PTHREAD_COND_INITIALIZER;
+#endif
+
+returncode_t op_queue_init() {
+#if defined(_WIN32) || defined(_WIN64)
+    InitializeCriticalSection(&_queue_lock);
+    InitializeConditionVariable(&_not_empty);
+    InitializeConditionVariable(&_task_done);
+    InitializeConditionVariable(&_worker_done);
+#endif
+    _head = _tail = NULL;
+    _size = 0;
+    _closed = FALSE;
+    _initialized = TRUE;
+
+    return EXIT_SUCCESS;
+}
+
+/**
+ * Appends the task, the lock must be held
+ */
+static returncode_t op_queue_push(op_task_t *task) {
+    if (_closed) {
+        return RC_ERR_OP_QUEUE_CLOSED;
+    }
+    if (_size >= OP_QUEUE_MAX_TASKS) {
+        return RC_ERR_OP_QUEUE_FULL;
+    }
+
+    task->next = NULL;
+    if (_tail) {
+        _tail->next = task;
+    }
+    else {
+        _head = task;
+    }
+    _tail = task;
+    _size++;
+
+    OPQ_SIGNAL(_not_empty);
+
+    return EXIT_SUCCESS;
+}
+
+/**
+ * Queues the task without waiting for it. If it can't be queued (queue full or closed), the argument stays with the
+ * caller
+ */
+returncode_t op_queue_submit(op_task_fct_t fct, void *arg) {
+    returncode_t rc;
+    if (!_initialized) {
+        return RC_ERR_OP_QUEUE_CLOSED;
+    }
+
+    op_task_t *task = malloc(sizeof(op_task_t));
+    if (!task) {
+        return RC_ERR_MEMORY_ALLOCATION;
+    }
+    _MEMZERO(task, sizeof(op_task_t));
+    task->fct = fct;
+    task->arg = arg;
+
+    OPQ_LOCK();
+    rc = op_queue_push(task);
+    OPQ_UNLOCK();
+
+    if ( !_IS_SUCCESS(rc) ) {
+        free(task);
+    }
+
+    return rc;
+}
+
+/**
+ * Queues the task and waits for the worker to run it
+ * @return the return code of the task
+ */
+returncode_t op_queue_submit_wait(op_task_fct_t fct, void *arg) {
+    returncode_t rc;
+    op_task_t task;
+    if (!_initialized) {
+        return RC_ERR_OP_QUEUE_CLOSED;
+    }
+
+    _MEMZERO(&task, sizeof(op_task_t));
+    task.fct = fct;
+    task.arg = arg;
+    task.wait = TRUE;
+
+    OPQ_LOCK();
+    // Submitted by a task: it runs right away, the worker would be waiting for itself
+    if (_worker_running && OPQ_IS_SELF(_worker)) {
+        void *ctx = _worker_ctx;
+        OPQ_UNLOCK();
+
+        return fct(ctx, arg);
+    }
+
+    rc = op_queue_push(&task);
+    if ( _IS_SUCCESS(rc) ) {
+        while (!task.done) {
+            OPQ_WAIT(_task_done);
+        }
+        rc = task.rc;
+    }
+    OPQ_UNLOCK();
+
+    return rc;
+}
+
+/**
+ * The worker loop: runs the tasks in order until the queue is closed and empty
+ * @param ctx   context given to every task
+ */
+void op_queue_run(void *ctx) {
+    OPQ_LOCK();
+    _worker = OPQ_SELF();
+    _worker_ctx = ctx;
+    _worker_running = TRUE;
+
+    for (;;) {
+        while (!_head && !_closed) {
+            OPQ_WAIT(_not_empty);
+        }
+        if (!_head) {
+            break; // closed, and all the queued tasks were run
+        }
+
+        op_task_t *task = _head;
+        _head = task->next;
+        if (!_head) {
+            _tail = NULL;
+        }
+        _size--;
+
+        OPQ_UNLOCK();
+        returncode_t rc = task->fct(ctx, task->arg);
+        OPQ_LOCK();
+
+        if (task->wait) {
+            task->rc = rc;
+            task->done = TRUE;
+            OPQ_BROADCAST(_task_done);
+        }
+        else {
+            if ( !_IS_SUCCESS(rc) ) {
+                logmsg(LOGGING_ERROR, "Queued OP task failed. Return code %d", rc);
+            }
+            free(task);
+        }
+    }
+
+    _worker_running = FALSE;
+    OPQ_BROADCAST(_worker_done);
+    OPQ_UNLOCK();
+}
+
+/**
+ * Closes the queue: nothing else is queued, and the worker ends after running the tasks already queued. It waits for
+ * the worker unless called by it
+ */
+void op_queue_close() {
+    if (!_initialized) {
+        return;
+    }
+
+    OPQ_LOCK();
+    _closed = TRUE;
+    OPQ_BROADCAST(_not_empty);
+
+    while (_worker_running && !OPQ_IS_SELF(_worker)) {
+        OPQ_WAIT(_worker_done);
+    }
+    OPQ_UNLOCK();
+}
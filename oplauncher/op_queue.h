@@ -0,0 +1,19 @@
+#ifndef _OP_QUEUE_H
+#define _OP_QUEUE_H
+
+#include "utils.h"
+
+#define OP_QUEUE_MAX_TASKS  64
+
+/**
+ * Task run by the queue worker. The context is the one given to op_queue_run (i.e., the JNIEnv of the JVM worker)
+ */
+typedef returncode_t (*op_task_fct_t)(void *ctx, void *arg);
+
+returncode_t op_queue_init(void);
+returncode_t op_queue_submit(op_task_fct_t fct, void *arg);
+returncode_t op_queue_submit_wait(op_task_fct_t fct, void *arg);
+void op_queue_run(void *ctx);
+void op_queue_close(void);
+
+#endif //_OP_QUEUE_H
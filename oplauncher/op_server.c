@@ -1,6 +1,7 @@
 #include "op_server.h"
 #include "logging.h"
 #include "ini_config.h"
+#include "op_queue.h"
 
 #include <stdlib.h>
 #include <string.h>
@@ -11,11 +12,58 @@
 #else
 #include <unistd.h>
 #include <arpa/inet.h>
+#include <sys/time.h>
 #include <pthread.h>
 #endif
 
 extern BOOL End_OpLauncher_Process;
 
+/**
+ * OP request read by the accept loop and handed over to the OP queue
+ */
+typedef struct {
+    char *message;
+    tcpipop_callbackfct_t callback;
+} op_request_t;
+
+static void close_client_socket(SOCKET client_socket) {
+#ifdef _WIN32
+    closesocket(client_socket);
+#else
+    close(client_socket);
+#endif
+}
+
+/**
+ * Bounds the time a client can keep the accept loop waiting for its request
+ */
+static void set_client_recv_timeout(SOCKET client_socket) {
+#if defined(_WIN32) || defined(_WIN64)
+    DWORD timeout = OP_CLIENT_RECV_TIMEOUT_MS;
+#else
+    struct timeval timeout;
+    timeout.tv_sec = OP_CLIENT_RECV_TIMEOUT_MS / 1000;
+    timeout.tv_usec = (OP_CLIENT_RECV_TIMEOUT_MS % 1000) * 1000;
+#endif
+    if (setsockopt(client_socket, SOL_SOCKET, SO_RCVTIMEO, (const char *)&timeout, sizeof(timeout)) != 0) {
+        logmsg(LOGGING_ERROR, "Failed to set the receive timeout of the client connection");
+    }
+}
+
+/**
+ * Processes the OP request already read from the client. Runs on the JVM worker thread
+ */
+static returncode_t process_request_task(void *ctx, void *arg) {
+    op_request_t *request = (op_request_t *)arg;
+
+    returncode_t rc = process_tciipop_request(request->message, request->callback);
+
+    free(request->message);
+    free(request);
+
+    return rc;
+}
+
 #if defined(_WIN32) || defined(_WIN64)
 void cleanup_winsock() {
     WSACleanup();
@@ -49,7 +97,7 @@ returncode_t start_op_server(tcpipop_callbackfct_t callback) {
     CloseHandle(hThread);
 #else
     pthread_t server_thread;
-    if (pthread_create(&server_thread, NULL, tcp_server_thread, NULL) != 0) {
+    if (pthread_create(&server_thread, NULL, (void *(*)(void *))tcp_server_thread, callback) != 0) {
         logmsg(LOGGING_NORMAL, "Failed to create TCP server thread");
         return RC_ERR_FAILED_CREATE_THREAD;
     }
@@ -67,8 +115,8 @@ DWORD WINAPI tcp_server_thread(LPVOID arg) {
 #else
 returncode_t *tcp_server_thread(void *arg) {
 #endif
-    char *buffer;
     char portbuf[PORT_BUFF_SIZE];
+    char *buffer;
     int port;
 
     SOCKET server_socket, client_socket;
@@ -138,13 +186,11 @@ returncode_t *tcp_server_thread(void *arg) {
             continue;
         }
 
-        // Handle client request in a separate function
+        // The request is read here, only its processing goes to the JVM worker thread
+        buffer = NULL;
         handle_client_op(client_socket, &buffer, callbackfct);
-#ifdef _WIN32
-        closesocket(client_socket);
-#else
-        close(client_socket);
-#endif
+        close_client_socket(client_socket);
+        free(buffer);
     }
 
 #ifdef _WIN32
@@ -169,7 +215,8 @@ returncode_t get_client_ipaddr(int client_socket, struct sockaddr_in *client_add
 }
 
 /**
- * Handle OP requests
+ * Handle OP requests: reads the request of the client (within OP_CLIENT_RECV_TIMEOUT_MS) and queues it to the JVM
+ * worker thread. The queued request owns the buffer, which is set to NULL
  */
 returncode_t handle_client_op(SOCKET client_socket, char **buffer, tcpipop_callbackfct_t callback) {
     struct sockaddr_in client_addr;
@@ -181,10 +228,14 @@ returncode_t handle_client_op(SOCKET client_socket, char **buffer, tcpipop_callb
     logmsg(LOGGING_NORMAL, "Client connected! IP address: %s", client_ip);
 
     PTR(buffer) = malloc(BUFFER_SIZE);
-    _MEMZERO(buffer, BUFFER_SIZE);
+    if (!PTR(buffer)) {
+        return RC_ERR_MEMORY_ALLOCATION;
+    }
+    _MEMZERO(PTR(buffer), BUFFER_SIZE);
 
-    // Read JSON message
-    size_t bytes_received = recv(client_socket, PTR(buffer), BUFFER_SIZE -1, 0);
+    // Read JSON message, a silent client can't hold the accept loop
+    set_client_recv_timeout(client_socket);
+    int bytes_received = recv(client_socket, PTR(buffer), BUFFER_SIZE -1, 0);
     if (bytes_received <= 0) {
         logmsg(LOGGING_ERROR, "Error receiving data from client");
         return RC_ERR_TCPIP_CLIENT_CONNECTED;
@@ -192,7 +243,21 @@ returncode_t handle_client_op(SOCKET client_socket, char **buffer, tcpipop_callb
     PTR(buffer)[bytes_received] = '\0';
 
     logmsg(LOGGING_NORMAL, "Received data from the client(%s): %s", client_ip, PTR(buffer));
-    process_tciipop_request(PTR(buffer), callback);
+
+    op_request_t *request = malloc(sizeof(op_request_t));
+    if (!request) {
+        return RC_ERR_MEMORY_ALLOCATION;
+    }
+    request->message = PTR(buffer);
+    request->callback = callback;
+
+    returncode_t rc = op_queue_submit(process_request_task, request);
+    if ( !_IS_SUCCESS(rc) ) {
+        logmsg(LOGGING_ERROR, "The OP request could not be queued, request dropped. Return code %d", rc);
+        free(request);
+        return rc;
+    }
+    PTR(buffer) = NULL;
 
     return EXIT_SUCCESS;
 }
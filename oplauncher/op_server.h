@@ -5,6 +5,7 @@
 
 #define PORT_BUFF_SIZE  16
 #define DEF_PORT        3333
+#define OP_CLIENT_RECV_TIMEOUT_MS   5000
 
 typedef returncode_t (*tcpipop_callbackfct_t)(const char *);
 
@@ -197,6 +197,20 @@ void print_hello() {
     fprintf(stderr, "\n");
 }
 
+/**
+ * Monotonic clock in milliseconds, to time the launcher steps (not a date)
+ */
+uint64_t current_time_millis() {
+#if defined(_WIN32) || defined(_WIN64)
+    return (uint64_t)GetTickCount64();
+#else
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+
+    return (uint64_t)ts.tv_sec * 1000ULL + (uint64_t)ts.tv_nsec / 1000000ULL;
+#endif
+}
+
 char* replace_with_crlf(const char* input) {
     if (!input) return NULL;
 
@@ -146,6 +146,7 @@ const char* getOpLauncherCommanderJarFileName(void);
 
 returncode_t omit_stderr(void);
 void print_hello(void);
+uint64_t current_time_millis(void);
 
 size_t count_tuplets(const char *inputTuplets);
 void free_tuplets(data_tuplet_t *tuplets, size_t num_tuplets);